@@ -0,0 +1,61 @@
+package com.example.crudusuario.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compara dos ficheros de resultados JSON de JMH (p. ej. el de main y el de una rama) y muestra,
+ * por benchmark y combinación de parámetros, la puntuación de cada uno y la diferencia en %.
+ * Las diferencias menores que la suma de los márgenes de error se marcan como ruido (~).
+ */
+public final class CompararResultados {
+
+    private CompararResultados() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Uso: comparar <anterior.json> <actual.json>");
+        }
+        Map<String, JsonNode> anteriores = leer(new File(args[0]));
+        Map<String, JsonNode> actuales = leer(new File(args[1]));
+
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "anterior", "actual", "cambio");
+        for (Map.Entry<String, JsonNode> actual : actuales.entrySet()) {
+            JsonNode metrica = actual.getValue().path("primaryMetric");
+            JsonNode anterior = anteriores.get(actual.getKey());
+            if (anterior == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", actual.getKey(), "-", metrica.path("score").asDouble(), "nuevo");
+                continue;
+            }
+            JsonNode metricaAnterior = anterior.path("primaryMetric");
+            double antes = metricaAnterior.path("score").asDouble();
+            double ahora = metrica.path("score").asDouble();
+            double error = metricaAnterior.path("scoreError").asDouble() + metrica.path("scoreError").asDouble();
+            String cambio = (antes == 0) ? "-" : String.format("%+8.1f%%", (ahora - antes) * 100 / antes);
+            System.out.printf("%-90s %14.3f %14.3f %9s%s %s%n", actual.getKey(), antes, ahora, cambio,
+                    Math.abs(ahora - antes) <= error ? "~" : " ", metrica.path("scoreUnit").asText());
+        }
+    }
+
+    /**
+     * Resultados indexados por "benchmark (modo) parámetros".
+     */
+    private static Map<String, JsonNode> leer(File fichero) throws IOException {
+        Map<String, JsonNode> resultados = new LinkedHashMap<>();
+        for (JsonNode resultado : new ObjectMapper().readTree(fichero)) {
+            Map<String, String> parametros = new TreeMap<>();
+            resultado.path("params").fields().forEachRemaining(p -> parametros.put(p.getKey(), p.getValue().asText()));
+            String benchmark = resultado.path("benchmark").asText().replace("com.example.crudusuario.benchmarks.", "");
+            resultados.put(benchmark + " (" + resultado.path("mode").asText() + ")" + (parametros.isEmpty() ? "" : " " + parametros),
+                    resultado);
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.crudusuario.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.crudusuario.FormularioSpringMvcDataSecurityApplication;
+import com.example.crudusuario.model.EstadoProyecto;
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.service.BusquedaTareasService;
+
+/**
+ * Arranca la aplicación completa sobre H2 en modo MySQL y siembra proyectos y tareas.
+ *
+ * Los datos se insertan al refrescar el contexto, antes de ApplicationReadyEvent, para que el índice
+ * de búsqueda, los contadores por estado y la rueda de vencimientos se construyan con el volumen
+ * sembrado, como en una aplicación que arranca sobre una base de datos con datos.
+ */
+final class ContextoAplicacion {
+
+    static final int TAREAS_POR_PROYECTO = 100;
+    private static final int LOTE = 1000;
+    private static final String[] VERBOS = { "Revisar", "Preparar", "Enviar", "Corregir", "Planificar", "Documentar" };
+    private static final String[] OBJETOS = { "informe", "presupuesto", "contrato", "entrega", "migración", "reunión" };
+
+    private ContextoAplicacion() {
+    }
+
+    /**
+     * @param tareas Número de tareas a sembrar (una de cada TAREAS_POR_PROYECTO abre un proyecto nuevo).
+     */
+    static ConfigurableApplicationContext arrancar(int tareas) {
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(FormularioSpringMvcDataSecurityApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "spring.thymeleaf.cache=true",
+                        "app.sql.instrumentacion.habilitada=false",
+                        "logging.level.root=WARN")
+                .listeners((ContextRefreshedEvent evento) ->
+                        sembrar(evento.getApplicationContext().getBean(JdbcTemplate.class), tareas))
+                .run();
+        esperarIndice(contexto.getBean(BusquedaTareasService.class), tareas);
+        return contexto;
+    }
+
+    private static void sembrar(JdbcTemplate jdbc, int tareas) {
+        jdbc.update("INSERT INTO usuarios (username, password, role) VALUES ('benchmark', '{noop}benchmark', 'ADMIN')");
+        Long usuarioId = jdbc.queryForObject("SELECT id FROM usuarios WHERE username = 'benchmark'", Long.class);
+
+        int proyectos = Math.max(1, tareas / TAREAS_POR_PROYECTO);
+        EstadoProyecto[] estadosProyecto = EstadoProyecto.values();
+        List<Object[]> filas = new ArrayList<>(LOTE);
+        for (int p = 1; p <= proyectos; p++) {
+            filas.add(new Object[] { "Proyecto " + p, "Proyecto sembrado para benchmarks", LocalDate.of(2024, 1, 1).plusDays(p % 365),
+                    estadosProyecto[p % estadosProyecto.length].name(), usuarioId });
+            if (filas.size() == LOTE || p == proyectos) {
+                jdbc.batchUpdate("INSERT INTO proyectos (nombre, descripcion, fecha_inicio, estado, version, usuario_id) VALUES (?, ?, ?, ?, 0, ?)", filas);
+                filas.clear();
+            }
+        }
+        long primerProyecto = jdbc.queryForObject("SELECT MIN(id) FROM proyectos", Long.class);
+
+        SplittableRandom aleatorio = new SplittableRandom(42); // Misma siembra en cada ejecución
+        EstadoTarea[] estados = EstadoTarea.values();
+        LocalDate hoy = LocalDate.now();
+        for (int t = 0; t < tareas; t++) {
+            String titulo = VERBOS[aleatorio.nextInt(VERBOS.length)] + " " + OBJETOS[aleatorio.nextInt(OBJETOS.length)] + " " + t;
+            LocalDate fechaLimite = aleatorio.nextInt(4) == 0 ? null : hoy.plusDays(aleatorio.nextInt(-60, 120));
+            filas.add(new Object[] { titulo, "Descripción de la tarea " + t + " con algo de texto para el índice de búsqueda",
+                    fechaLimite, estados[aleatorio.nextInt(estados.length)].name(), primerProyecto + (t % proyectos) });
+            if (filas.size() == LOTE || t == tareas - 1) {
+                jdbc.batchUpdate("INSERT INTO tareas (titulo, descripcion, fecha_limite, estado, version, proyecto_id) VALUES (?, ?, ?, ?, 0, ?)", filas);
+                filas.clear();
+            }
+        }
+    }
+
+    /**
+     * El índice de búsqueda se reconstruye en segundo plano al arrancar: se espera a que termine
+     * para no medir con esa reconstrucción compitiendo por la CPU.
+     */
+    private static void esperarIndice(BusquedaTareasService busqueda, int tareas) {
+        long limite = System.nanoTime() + Duration.ofMinutes(5).toNanos();
+        while (busqueda.buscar("tarea", null, null, 0, 1).total() < tareas) {
+            if (System.nanoTime() > limite) {
+                throw new IllegalStateException("El índice de búsqueda no se ha reconstruido a tiempo.");
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrumpido esperando al índice de búsqueda.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.crudusuario.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt al coste configurado (app.seguridad.hash.coste de application.properties), que es lo que
+ * cuesta cada login y cada alta de usuario en uno de los hilos de CodificadorContrasenas.
+ * Otro coste: -p coste=12.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ContrasenasBenchmark {
+
+    private static final String CONTRASENA = "contraseña-de-benchmark";
+
+    /** Vacío = el coste de application.properties. */
+    @Param({ "" })
+    public String coste;
+
+    private BCryptPasswordEncoder codificador;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        codificador = new BCryptPasswordEncoder(coste.isEmpty() ? costeConfigurado() : Integer.parseInt(coste));
+        hash = codificador.encode(CONTRASENA);
+    }
+
+    @Benchmark
+    public String codificar() {
+        return codificador.encode(CONTRASENA);
+    }
+
+    @Benchmark
+    public boolean comprobar() {
+        return codificador.matches(CONTRASENA, hash);
+    }
+
+    private static int costeConfigurado() throws IOException {
+        Properties propiedades = new Properties();
+        try (InputStream entrada = ContrasenasBenchmark.class.getResourceAsStream("/application.properties")) {
+            if (entrada != null) {
+                propiedades.load(entrada);
+            }
+        }
+        return Integer.parseInt(propiedades.getProperty("app.seguridad.hash.coste", "10").trim());
+    }
+}
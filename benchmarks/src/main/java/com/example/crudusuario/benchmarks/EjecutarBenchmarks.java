@@ -0,0 +1,32 @@
+package com.example.crudusuario.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Punto de entrada del módulo: lanza JMH con los argumentos recibidos y, si no se indica otro
+ * formato, guarda los resultados en JSON (target/jmh-resultados.json) para compararlos entre commits.
+ * Con "comparar anterior.json actual.json" compara dos ficheros de resultados (ver {@link CompararResultados}).
+ */
+public final class EjecutarBenchmarks {
+
+    static final String RESULTADOS_POR_DEFECTO = "target/jmh-resultados.json";
+
+    private EjecutarBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("comparar")) {
+            CompararResultados.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        List<String> argumentos = new ArrayList<>(Arrays.asList(args));
+        if (!argumentos.contains("-rf")) {
+            argumentos.addAll(List.of("-rf", "json", "-rff", RESULTADOS_POR_DEFECTO));
+        }
+        Main.main(argumentos.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.crudusuario.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import com.example.crudusuario.dto.FiltroTareas;
+import com.example.crudusuario.dto.Paginacion;
+import com.example.crudusuario.dto.ProyectoResumen;
+import com.example.crudusuario.dto.TareaResumen;
+import com.example.crudusuario.model.EstadoProyecto;
+import com.example.crudusuario.model.EstadoTarea;
+
+/**
+ * Renderizado Thymeleaf de los listados con el mismo modelo que preparan los controladores,
+ * sin base de datos ni HTTP de por medio: solo plantilla, expresiones y escritura de la respuesta.
+ * La vista se resuelve con el ViewResolver de la aplicación (caché de plantillas activa).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RenderizadoBenchmark {
+
+    @Param({ "tareas/listado_general", "proyectos/index" })
+    public String vista;
+
+    @Param({ "100", "10000", "100000" })
+    public int filas;
+
+    private ConfigurableApplicationContext contexto;
+    private View plantilla;
+    private Map<String, Object> modelo;
+    private MockServletContext servletContext;
+    private Authentication autenticacion;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        contexto = ContextoAplicacion.arrancar(0);
+        plantilla = contexto.getBean("thymeleafViewResolver", ViewResolver.class).resolveViewName(vista, Locale.getDefault());
+        modelo = vista.startsWith("tareas/") ? modeloTareas(filas) : modeloProyectos(filas);
+        servletContext = new MockServletContext();
+        autenticacion = UsernamePasswordAuthenticationToken.authenticated("benchmark", null,
+                AuthorityUtils.createAuthorityList("ADMIN"));
+    }
+
+    @TearDown(Level.Trial)
+    public void parar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int renderizar() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(autenticacion); // Para #authorization de la barra de navegación
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/" + vista);
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, contexto);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        plantilla.render(modelo, request, response);
+        return response.getContentAsByteArray().length;
+    }
+
+    /**
+     * Mismo modelo que TareaController.listarTodasLasTareas.
+     */
+    private static Map<String, Object> modeloTareas(int filas) {
+        EstadoTarea[] estados = EstadoTarea.values();
+        List<TareaResumen> tareas = new ArrayList<>(filas);
+        for (int i = 1; i <= filas; i++) {
+            tareas.add(new TareaResumen((long) i, "Tarea " + i, "Descripción de la tarea " + i,
+                    LocalDate.of(2025, 1, 1).plusDays(i % 365), estados[i % estados.length], (long) (i % 100 + 1),
+                    "Proyecto " + (i % 100 + 1)));
+        }
+        Map<String, Object> modelo = new HashMap<>();
+        modelo.put("tareas", tareas);
+        modelo.put("siguienteId", (long) filas);
+        modelo.put("esPrimeraPagina", true);
+        modelo.put("filtro", FiltroTareas.vacio());
+        modelo.put("tamanio", Paginacion.TAMANIO_POR_DEFECTO);
+        modelo.put("estados", estados);
+        return modelo;
+    }
+
+    /**
+     * Mismo modelo que ProyectoController.listarProyectos.
+     */
+    private static Map<String, Object> modeloProyectos(int filas) {
+        EstadoProyecto[] estados = EstadoProyecto.values();
+        List<ProyectoResumen> proyectos = new ArrayList<>(filas);
+        for (int i = 1; i <= filas; i++) {
+            proyectos.add(new ProyectoResumen((long) i, "Proyecto " + i, "Descripción del proyecto " + i,
+                    LocalDate.of(2024, 1, 1).plusDays(i % 365), estados[i % estados.length]));
+        }
+        Map<String, Object> modelo = new HashMap<>();
+        modelo.put("proyectos", proyectos);
+        return modelo;
+    }
+}
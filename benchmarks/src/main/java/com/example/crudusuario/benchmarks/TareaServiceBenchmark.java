@@ -0,0 +1,106 @@
+package com.example.crudusuario.benchmarks;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.crudusuario.dto.FiltroTareas;
+import com.example.crudusuario.dto.PaginaTareas;
+import com.example.crudusuario.dto.Paginacion;
+import com.example.crudusuario.dto.TareaJson;
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.model.Tarea;
+import com.example.crudusuario.service.TareaService;
+
+/**
+ * TareaService de punta a punta (transacción, Hibernate, H2 y los efectos tras confirmar:
+ * contadores, índice de búsqueda y vencimientos) sobre una base de datos sembrada.
+ *
+ * listar: una página del listado general desde un cursor aleatorio, con y sin filtro de estado.
+ * guardar: alta de una tarea en un proyecto aleatorio.
+ * actualizar: edición de una tarea existente sin versión esperada (una lectura y un UPDATE).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TareaServiceBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int tareas;
+
+    private ConfigurableApplicationContext contexto;
+    private TareaService tareaService;
+    private long primeraTarea;
+    private long primerProyecto;
+    private int proyectos;
+
+    @Setup(Level.Trial)
+    public void arrancar() {
+        contexto = ContextoAplicacion.arrancar(tareas);
+        tareaService = contexto.getBean(TareaService.class);
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        primeraTarea = jdbc.queryForObject("SELECT MIN(id) FROM tareas", Long.class);
+        primerProyecto = jdbc.queryForObject("SELECT MIN(id) FROM proyectos", Long.class);
+        proyectos = Math.max(1, tareas / ContextoAplicacion.TAREAS_POR_PROYECTO);
+    }
+
+    @TearDown(Level.Trial)
+    public void parar() {
+        contexto.close();
+    }
+
+    /**
+     * Generador por hilo: los benchmarks pueden lanzarse con varios hilos (-t).
+     */
+    @State(Scope.Thread)
+    public static class Aleatorio {
+        final SplittableRandom generador = new SplittableRandom(7);
+    }
+
+    @Benchmark
+    public PaginaTareas listar(Aleatorio aleatorio) {
+        long cursor = primeraTarea + aleatorio.generador.nextInt(tareas);
+        return tareaService.listarTareasPaginadas(FiltroTareas.vacio(), cursor, Paginacion.TAMANIO_POR_DEFECTO);
+    }
+
+    @Benchmark
+    public PaginaTareas listarFiltrado(Aleatorio aleatorio) {
+        long cursor = primeraTarea + aleatorio.generador.nextInt(tareas);
+        return tareaService.listarTareasPaginadas(new FiltroTareas(EstadoTarea.PENDIENTE, null, null, null), cursor,
+                Paginacion.TAMANIO_POR_DEFECTO);
+    }
+
+    @Benchmark
+    public Tarea guardar(Aleatorio aleatorio) {
+        Tarea tarea = new Tarea("Nueva tarea de benchmark", "Creada durante la medición", LocalDate.now().plusDays(30),
+                EstadoTarea.PENDIENTE, null);
+        return tareaService.guardarTarea(primerProyecto + aleatorio.generador.nextInt(proyectos), tarea);
+    }
+
+    @Benchmark
+    public TareaJson actualizar(Aleatorio aleatorio) {
+        long id = primeraTarea + aleatorio.generador.nextInt(tareas);
+        Tarea cambios = new Tarea("Tarea editada " + id, "Editada durante la medición", LocalDate.now().plusDays(10),
+                EstadoTarea.EN_CURSO, null);
+        return tareaService.actualizarTarea(id, cambios, null);
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.crudusuario.busqueda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria sobre el texto de las tareas, con ranking BM25.
+ *
+ * - Cada término guarda una lista de IDs de tareas (long[] ampliable, sin objetos por entrada).
+ * - Cada tarea guarda sus términos ordenados con su frecuencia y su proyecto; cada proyecto, sus tareas.
+ *   La búsqueda limitada a unos proyectos recorre sus tareas en lugar de la lista del término si son menos.
+ * - Al modificar una tarea solo se añaden a las listas los términos nuevos; los que desaparecen
+ *   quedan como entradas obsoletas que se ignoran al buscar y se compactan cuando son muchas.
+ *
+ * Las búsquedas se ejecutan en paralelo con un bloqueo de lectura; las escrituras son puntuales.
+ */
+public class IndiceInvertido {
+
+    // Parámetros habituales de BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * IDs de las tareas encontradas (ya ordenadas por relevancia) y total de coincidencias.
+     */
+    public record Aciertos(List<Long> ids, long total) {
+        public static final Aciertos VACIO = new Aciertos(List.of(), 0);
+    }
+
+    private static final class Documento {
+        final Long proyectoId;
+        final String[] terminos; // Ordenados, para búsqueda binaria
+        final int[] frecuencias;
+        final int longitud;
+
+        Documento(Long proyectoId, String[] terminos, int[] frecuencias, int longitud) {
+            this.proyectoId = proyectoId;
+            this.terminos = terminos;
+            this.frecuencias = frecuencias;
+            this.longitud = longitud;
+        }
+
+        int frecuencia(String termino) {
+            int i = Arrays.binarySearch(terminos, termino);
+            return (i >= 0) ? frecuencias[i] : 0;
+        }
+    }
+
+    private static final class ListaIds {
+        long[] ids = new long[4];
+        int tamanio;
+        int obsoletos;
+
+        void agregar(long id) {
+            if (tamanio == ids.length) {
+                ids = Arrays.copyOf(ids, tamanio * 2);
+            }
+            ids[tamanio++] = id;
+        }
+
+        int vigentes() {
+            return tamanio - obsoletos;
+        }
+    }
+
+    private final Map<String, ListaIds> listas = new HashMap<>();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private final Map<Long, Set<Long>> tareasPorProyecto = new HashMap<>();
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    private long longitudTotal;
+
+    /**
+     * Añade o reemplaza una tarea en el índice.
+     * @param texto Texto indexado (título y descripción).
+     */
+    public void indexar(long id, Long proyectoId, String texto) {
+        TreeMap<String, Integer> frecuencias = new TreeMap<>();
+        int longitud = 0;
+        for (String termino : Tokenizador.terminos(texto)) {
+            frecuencias.merge(termino, 1, Integer::sum);
+            longitud++;
+        }
+
+        bloqueo.writeLock().lock();
+        try {
+            Documento anterior = documentos.get(id);
+            String[] terminos = new String[frecuencias.size()];
+            int[] valores = new int[frecuencias.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entrada : frecuencias.entrySet()) {
+                String termino = entrada.getKey();
+                ListaIds lista = listas.get(termino);
+                if (lista == null) {
+                    lista = new ListaIds();
+                    listas.put(termino, lista);
+                }
+                if (anterior == null || anterior.frecuencia(termino) == 0) {
+                    lista.agregar(id);
+                }
+                terminos[i] = termino;
+                valores[i++] = entrada.getValue();
+            }
+            Documento nuevo = new Documento(proyectoId, terminos, valores, longitud);
+            documentos.put(id, nuevo);
+            longitudTotal += longitud;
+            if (anterior != null) {
+                marcarObsoletos(anterior, nuevo);
+                longitudTotal -= anterior.longitud;
+                quitarDeProyecto(id, anterior.proyectoId);
+            }
+            tareasPorProyecto.computeIfAbsent(proyectoId, p -> new HashSet<>()).add(id);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita una tarea del índice.
+     */
+    public void eliminar(long id) {
+        bloqueo.writeLock().lock();
+        try {
+            Documento anterior = documentos.remove(id);
+            if (anterior != null) {
+                marcarObsoletos(anterior, null);
+                longitudTotal -= anterior.longitud;
+                quitarDeProyecto(id, anterior.proyectoId);
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    private void quitarDeProyecto(long id, Long proyectoId) {
+        Set<Long> tareas = tareasPorProyecto.get(proyectoId);
+        if (tareas != null && tareas.remove(id) && tareas.isEmpty()) {
+            tareasPorProyecto.remove(proyectoId);
+        }
+    }
+
+    /**
+     * Busca las tareas que contienen todos los términos de la consulta, ordenadas por relevancia.
+     * @param proyectos Limita a estos proyectos (null = todos, para administradores).
+     * @param desde Número de resultados a saltar (paginación).
+     * @param cantidad Número máximo de resultados a devolver.
+     */
+    public Aciertos buscar(String consulta, Set<Long> proyectos, int desde, int cantidad) {
+        List<String> terminos = new ArrayList<>(new HashSet<>(Tokenizador.terminos(consulta)));
+        if (terminos.isEmpty() || (proyectos != null && proyectos.isEmpty())) {
+            return Aciertos.VACIO;
+        }
+
+        bloqueo.readLock().lock();
+        try {
+            List<ListaIds> candidatas = new ArrayList<>();
+            for (String termino : terminos) {
+                ListaIds lista = listas.get(termino);
+                if (lista == null || lista.vigentes() == 0) {
+                    return Aciertos.VACIO;
+                }
+                candidatas.add(lista);
+            }
+            // Se recorre solo la lista más corta; el resto de términos se comprueba en cada documento
+            int menor = 0;
+            for (int i = 1; i < candidatas.size(); i++) {
+                if (candidatas.get(i).tamanio < candidatas.get(menor).tamanio) {
+                    menor = i;
+                }
+            }
+            ListaIds recorrida = candidatas.get(menor);
+            List<Set<Long>> delAmbito = null; // Tareas de los proyectos, si son menos que la lista más corta
+            if (proyectos != null) {
+                delAmbito = new ArrayList<>();
+                long tamanioAmbito = 0;
+                for (Long proyecto : proyectos) {
+                    Set<Long> tareas = tareasPorProyecto.get(proyecto);
+                    if (tareas != null) {
+                        delAmbito.add(tareas);
+                        tamanioAmbito += tareas.size();
+                    }
+                }
+                if (tamanioAmbito >= recorrida.tamanio) {
+                    delAmbito = null;
+                }
+            }
+            double[] idf = new double[terminos.size()];
+            int n = documentos.size();
+            for (int i = 0; i < terminos.size(); i++) {
+                int df = Math.max(candidatas.get(i).vigentes(), 1);
+                idf[i] = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+            }
+            double longitudMedia = (n > 0) ? (double) longitudTotal / n : 1;
+
+            int limite = desde + cantidad;
+            PriorityQueue<double[]> mejores = new PriorityQueue<>(Comparator.comparingDouble(a -> a[0]));
+            long total = 0;
+
+            if (delAmbito != null) {
+                for (Set<Long> tareas : delAmbito) {
+                    for (Long id : tareas) {
+                        total += puntuar(id, documentos.get(id), terminos, idf, longitudMedia, limite, mejores);
+                    }
+                }
+            } else {
+                Set<Long> vistos = (recorrida.obsoletos > 0) ? new HashSet<>() : null; // Puede haber IDs repetidos
+                for (int k = 0; k < recorrida.tamanio; k++) {
+                    long id = recorrida.ids[k];
+                    Documento documento = documentos.get(id);
+                    if (documento == null || (proyectos != null && !proyectos.contains(documento.proyectoId))
+                            || (vistos != null && vistos.contains(id))) {
+                        continue;
+                    }
+                    int acierto = puntuar(id, documento, terminos, idf, longitudMedia, limite, mejores);
+                    if (acierto > 0 && vistos != null) {
+                        vistos.add(id);
+                    }
+                    total += acierto;
+                }
+            }
+
+            List<double[]> ordenados = new ArrayList<>(mejores);
+            ordenados.sort(Comparator.<double[]>comparingDouble(a -> a[0]).reversed()
+                    .thenComparingDouble(a -> a[1]));
+            List<Long> ids = new ArrayList<>();
+            for (int i = desde; i < ordenados.size(); i++) {
+                ids.add((long) ordenados.get(i)[1]);
+            }
+            return new Aciertos(ids, total);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Puntúa el documento si contiene todos los términos y lo guarda entre los mejores.
+     * @return 1 si contiene todos los términos, 0 si no.
+     */
+    private static int puntuar(long id, Documento documento, List<String> terminos, double[] idf, double longitudMedia,
+                               int limite, PriorityQueue<double[]> mejores) {
+        double puntuacion = 0;
+        for (int i = 0; i < terminos.size(); i++) {
+            int tf = documento.frecuencia(terminos.get(i));
+            if (tf == 0) {
+                return 0;
+            }
+            puntuacion += idf[i] * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * documento.longitud / longitudMedia));
+        }
+        if (limite > 0) {
+            mejores.add(new double[] { puntuacion, id });
+            if (mejores.size() > limite) {
+                mejores.poll();
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Número de tareas indexadas.
+     */
+    public int tamanio() {
+        bloqueo.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    private void marcarObsoletos(Documento anterior, Documento nuevo) {
+        for (String termino : anterior.terminos) {
+            if (nuevo == null || nuevo.frecuencia(termino) == 0) {
+                ListaIds lista = listas.get(termino);
+                lista.obsoletos++;
+                if (lista.obsoletos > lista.tamanio / 2) {
+                    compactar(termino, lista);
+                }
+            }
+        }
+    }
+
+    /**
+     * Elimina de la lista los IDs de tareas borradas o que ya no contienen el término (y los repetidos).
+     */
+    private void compactar(String termino, ListaIds lista) {
+        Set<Long> vistos = new HashSet<>();
+        int escritos = 0;
+        for (int k = 0; k < lista.tamanio; k++) {
+            long id = lista.ids[k];
+            Documento documento = documentos.get(id);
+            boolean vigente = documento != null && documento.frecuencia(termino) > 0;
+            if (vigente && vistos.add(id)) {
+                lista.ids[escritos++] = id;
+            }
+        }
+        if (escritos == 0) {
+            listas.remove(termino);
+            return;
+        }
+        lista.tamanio = escritos;
+        lista.obsoletos = 0;
+        if (lista.ids.length > 4 * escritos) {
+            lista.ids = Arrays.copyOf(lista.ids, Math.max(4, escritos * 2));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.crudusuario.busqueda;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Divide un texto en términos para el índice de búsqueda.
+ * Pasa a minúsculas, elimina tildes y diéresis (búsqueda insensible a acentos: "título" = "titulo",
+ * "año" = "ano") y descarta las palabras vacías más frecuentes del español.
+ */
+public final class Tokenizador {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int LONGITUD_MINIMA = 2;
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "de", "la", "que", "el", "en", "los", "del", "se", "las", "por", "un", "una", "para", "con",
+            "no", "al", "lo", "como", "mas", "pero", "sus", "le", "ya", "o", "este", "esta", "si", "porque",
+            "muy", "sin", "sobre", "tambien", "me", "hay", "donde", "y", "a", "es", "su");
+
+    private Tokenizador() {}
+
+    /**
+     * Devuelve los términos del texto en orden de aparición (con repeticiones).
+     */
+    public static List<String> terminos(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return terminos;
+        }
+        String normalizado = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String termino : SEPARADORES.split(normalizado)) {
+            if (termino.length() >= LONGITUD_MINIMA && !PALABRAS_VACIAS.contains(termino)) {
+                terminos.add(termino);
+            }
+        }
+        return terminos;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.crudusuario.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Caché de segundo nivel de Hibernate para Proyecto y Usuario, y caché de consultas para las
+ * búsquedas por username, con JCache (Caffeine) en el heap.
+ *
+ * Cada región tiene tamaño máximo y caducidad propios, configurables con
+ * app.cache.regiones.&lt;region&gt;.tamanio-maximo y app.cache.regiones.&lt;region&gt;.ttl.
+ * Si una entidad o consulta usa una región no declarada aquí, Hibernate no arranca
+ * (missing_cache_strategy=fail), de modo que ninguna región queda sin límite.
+ *
+ * Métricas: hibernate.second.level.cache.* por región (aciertos, fallos, escrituras), que publica la
+ * autoconfiguración de Spring Boot, y hibernate.cache.region.hit.ratio con el porcentaje de aciertos de cada región.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CacheSegundoNivelConfig {
+
+    public static final String REGION_PROYECTOS = "proyectos";
+    public static final String REGION_USUARIOS = "usuarios";
+    public static final String REGION_PROYECTOS_POR_USUARIO = "proyectos-por-usuario";
+    public static final String REGION_USUARIOS_POR_USERNAME = "usuarios-por-username";
+    // Resultados de las consultas cacheables sin región propia; Hibernate la crea al arrancar con la caché de consultas
+    private static final String REGION_CONSULTAS = "default-query-results-region";
+    // Marca de tiempo de la última escritura de cada tabla: invalida las consultas cacheadas.
+    // No debe caducar antes que las regiones de consultas, por eso no tiene TTL.
+    private static final String REGION_TIMESTAMPS = "default-update-timestamps-region";
+
+    /**
+     * Gestor JCache con las regiones de Hibernate, creadas con su tamaño y caducidad.
+     * Cada contexto de Spring tiene su propio gestor (URI única): no comparte regiones con otros contextos
+     * del mismo proceso (p. ej. los contextos cacheados de los tests) y cerrarlo no afecta a los demás.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel(Environment entorno) {
+        CachingProvider proveedor = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = proveedor.getCacheManager(URI.create("urn:crudusuario:segundo-nivel:" + UUID.randomUUID()),
+                CacheSegundoNivelConfig.class.getClassLoader());
+        for (Map.Entry<String, Region> region : regiones(entorno).entrySet()) {
+            CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+            configuracion.setMaximumSize(OptionalLong.of(region.getValue().tamanioMaximo()));
+            if (region.getValue().ttl() != null) {
+                configuracion.setExpireAfterWrite(OptionalLong.of(region.getValue().ttl().toNanos()));
+            }
+            configuracion.setStatisticsEnabled(true);
+            cacheManager.createCache(region.getKey(), configuracion);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheManagerSegundoNivel) {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            propiedades.put(AvailableSettings.USE_QUERY_CACHE, true);
+            propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+            propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            propiedades.put(AvailableSettings.GENERATE_STATISTICS, true); // Necesario para las métricas por región
+        };
+    }
+
+    /**
+     * Publica en Micrometer el ratio de aciertos de cada región.
+     */
+    @Bean
+    public MeterBinder metricasCacheSegundoNivel(EntityManagerFactory entityManagerFactory) {
+        return registro -> {
+            SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+            Statistics estadisticas = sessionFactory.getStatistics();
+            for (String region : estadisticas.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("hibernate.cache.region.hit.ratio", estadisticas, e -> ratioAciertos(e, region))
+                        .tags(Tags.of("region", region))
+                        .description("Proporción de lecturas de la región resueltas desde la caché")
+                        .register(registro);
+            }
+        };
+    }
+
+    private static double ratioAciertos(Statistics estadisticas, String region) {
+        CacheRegionStatistics datos = estadisticas.getCacheRegionStatistics(region);
+        if (datos == null) {
+            return Double.NaN;
+        }
+        long lecturas = datos.getHitCount() + datos.getMissCount();
+        return (lecturas == 0) ? Double.NaN : (double) datos.getHitCount() / lecturas;
+    }
+
+    private static Map<String, Region> regiones(Environment entorno) {
+        Map<String, Region> regiones = new LinkedHashMap<>();
+        regiones.put(REGION_PROYECTOS, region(entorno, REGION_PROYECTOS, 10_000, Duration.ofMinutes(30)));
+        regiones.put(REGION_USUARIOS, region(entorno, REGION_USUARIOS, 10_000, Duration.ofMinutes(30)));
+        regiones.put(REGION_PROYECTOS_POR_USUARIO, region(entorno, REGION_PROYECTOS_POR_USUARIO, 10_000, Duration.ofMinutes(10)));
+        regiones.put(REGION_USUARIOS_POR_USERNAME, region(entorno, REGION_USUARIOS_POR_USERNAME, 10_000, Duration.ofMinutes(10)));
+        regiones.put(REGION_CONSULTAS, region(entorno, "consultas", 10_000, Duration.ofMinutes(10)));
+        regiones.put(REGION_TIMESTAMPS, new Region(
+                entorno.getProperty("app.cache.regiones.timestamps.tamanio-maximo", Long.class, 1_000L), null));
+        return regiones;
+    }
+
+    private static Region region(Environment entorno, String nombre, long tamanioPorDefecto, Duration ttlPorDefecto) {
+        String prefijo = "app.cache.regiones." + nombre + ".";
+        return new Region(entorno.getProperty(prefijo + "tamanio-maximo", Long.class, tamanioPorDefecto),
+                entorno.getProperty(prefijo + "ttl", Duration.class, ttlPorDefecto));
+    }
+
+    private record Region(long tamanioMaximo, Duration ttl) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.crudusuario.config;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Detecta hilos virtuales "clavados" (pinned) a su hilo portador, por ejemplo por un bloque
+ * synchronized en el driver JDBC o en Hibernate mientras se espera a MySQL.
+ * Solo se activa con spring.threads.virtual.enabled=true.
+ *
+ * Escucha el evento JFR jdk.VirtualThreadPinned en el propio proceso, registra en el log
+ * el marco de pila que lo provoca y lo cuenta en la métrica hilos.virtuales.pinning.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DetectorPinning implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DetectorPinning.class);
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+
+    private final Duration umbral;
+    private final Counter contador;
+    private RecordingStream stream;
+
+    public DetectorPinning(@Value("${app.hilos.pinning.umbral:20ms}") Duration umbral, MeterRegistry meterRegistry) {
+        this.umbral = umbral;
+        this.contador = Counter.builder("hilos.virtuales.pinning")
+                .description("Veces que un hilo virtual quedó clavado a su portador más tiempo que el umbral")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(umbral).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        log.info("Modo hilos virtuales activo: vigilando pinning de más de {} ms", umbral.toMillis());
+    }
+
+    private void registrar(RecordedEvent evento) {
+        contador.increment();
+        String origen = "desconocido";
+        if (evento.getStackTrace() != null) {
+            // El primer marco fuera del JDK suele ser el responsable (driver, pool o Hibernate)
+            origen = evento.getStackTrace().getFrames().stream()
+                    .filter(RecordedFrame::isJavaFrame)
+                    .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName())
+                    .filter(m -> !m.startsWith("java.") && !m.startsWith("jdk."))
+                    .findFirst()
+                    .orElse(origen);
+        }
+        log.warn("Hilo virtual clavado {} ms en {}", evento.getDuration().toMillis(), origen);
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.crudusuario.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.example.crudusuario.sql.DataSourceInstrumentado;
+import com.example.crudusuario.sql.FiltroConsultasSql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Contador de SQL por petición: envuelve el DataSource y registra el filtro que publica las métricas
+ * (ver {@link FiltroConsultasSql}). Sustituye a spring.jpa.show-sql para saber cuántas sentencias lanza
+ * cada página. Se desactiva con app.sql.instrumentacion.habilitada=false.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.sql.instrumentacion.habilitada", havingValue = "true", matchIfMissing = true)
+public class InstrumentacionSqlConfig {
+
+    /**
+     * Estático y sin dependencias para no adelantar la creación de otros beans.
+     */
+    @Bean
+    public static BeanPostProcessor instrumentarDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return (bean instanceof DataSource dataSource && !(bean instanceof DataSourceInstrumentado))
+                        ? new DataSourceInstrumentado(dataSource) : bean;
+            }
+        };
+    }
+
+    /**
+     * Por delante de Spring Security, para contar también el SQL de la autenticación.
+     */
+    @Bean
+    public FilterRegistrationBean<FiltroConsultasSql> filtroConsultasSql(MeterRegistry meterRegistry,
+                                                                         @Value("${app.sql.presupuesto:30}") int presupuesto,
+                                                                         @Value("${app.sql.umbral-repeticiones:3}") int umbralRepeticiones) {
+        FilterRegistrationBean<FiltroConsultasSql> registro = new FilterRegistrationBean<>(
+                new FiltroConsultasSql(meterRegistry, presupuesto, umbralRepeticiones));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.crudusuario.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import com.example.crudusuario.recursos.ResolverComprimidos;
+
+import jakarta.servlet.DispatcherType;
+
+/**
+ * Recursos estáticos (webjars y classpath:/static/{css,js,images}) con la URL versionada por el hash de su
+ * contenido: /webjars/bootstrap/5.3.0/css/bootstrap.min-&lt;md5&gt;.css.
+ * - Las plantillas enlazan sin versión ni hash (th:href="@{/webjars/bootstrap/css/bootstrap.min.css}") y
+ *   ResourceUrlEncodingFilter reescribe la URL al generar la página; la versión del webjar la pone su localizador.
+ * - Como la URL cambia con el contenido, se cachean app.recursos.cache (un año) como immutable:
+ *   el navegador no vuelve a pedirlos ni a revalidarlos al navegar.
+ * - Se sirven comprimidos con gzip o Brotli ({@link ResolverComprimidos}).
+ * - No pasan por la autenticación ni leen la sesión (ver la cadena de recursos estáticos en SecurityConfig).
+ *
+ * Sustituye a los recursos de Spring Boot (spring.web.resources.add-mappings=false).
+ */
+@Configuration(proxyBeanMethods = false)
+public class RecursosEstaticosConfig implements WebMvcConfigurer {
+
+    /** Rutas de los recursos estáticos. */
+    public static final String[] RUTAS = { "/webjars/**", "/css/**", "/js/**", "/images/**" };
+
+    private final CacheControl cache;
+    private final ResolverComprimidos comprimidos;
+
+    public RecursosEstaticosConfig(@Value("${app.recursos.cache:365d}") Duration cache,
+                                   @Value("${app.recursos.tamanio-minimo-compresion:1024}") int tamanioMinimoCompresion) {
+        this.cache = CacheControl.maxAge(cache).cachePublic().immutable();
+        this.comprimidos = new ResolverComprimidos(tamanioMinimoCompresion);
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        configurar(registry.addResourceHandler("/webjars/**").addResourceLocations("classpath:/META-INF/resources/webjars/"));
+        for (String carpeta : List.of("css", "js", "images")) {
+            configurar(registry.addResourceHandler("/" + carpeta + "/**").addResourceLocations("classpath:/static/" + carpeta + "/"));
+        }
+    }
+
+    /**
+     * Cadena con caché de lo ya resuelto: el hash y la compresión se calculan una vez por recurso.
+     * El localizador de webjars lo añade Spring al final de la cadena.
+     */
+    private void configurar(ResourceHandlerRegistration registro) {
+        registro.setCacheControl(cache)
+                .resourceChain(true)
+                .addResolver(comprimidos)
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    /**
+     * Reescribe las URL de recursos de las plantillas a su versión con hash. También en las páginas de error.
+     */
+    @Bean
+    public FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+        FilterRegistrationBean<ResourceUrlEncodingFilter> registro = new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+        registro.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ERROR);
+        return registro;
+    }
+}
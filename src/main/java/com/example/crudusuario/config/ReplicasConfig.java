@@ -0,0 +1,100 @@
+package com.example.crudusuario.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+
+import com.example.crudusuario.replicas.DataSourceReplicado;
+import com.example.crudusuario.replicas.DialectoReplicas;
+import com.example.crudusuario.replicas.FiltroLecturaPropia;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Réplicas de lectura: con app.datasource.replicas.urls (lista separada por comas) el DataSource de la
+ * aplicación envía las transacciones de solo lectura a las réplicas y el resto al primario de spring.datasource.*
+ * (ver {@link DataSourceReplicado}). Sin esa propiedad se usa el DataSource de Spring Boot.
+ *
+ * Cada pool es un HikariCP con su nombre (primario, replica-0...) y métricas hikaricp.connections.* por pool;
+ * todos toman la configuración de spring.datasource.hikari.*. El contador de SQL por petición
+ * (InstrumentacionSqlConfig) envuelve este DataSource, así que cuenta las sentencias de todos los pools.
+ * Lo leído de una réplica no se guarda en la caché de segundo nivel ({@link DialectoReplicas}).
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.datasource.replicas.urls")
+public class ReplicasConfig {
+
+    @Bean
+    public DataSourceReplicado dataSource(DataSourceProperties propiedades, Environment entorno, MeterRegistry meterRegistry,
+                                          @Value("${app.datasource.replicas.urls}") List<String> urls,
+                                          @Value("${app.datasource.replicas.username:${spring.datasource.username:}}") String usuario,
+                                          @Value("${app.datasource.replicas.password:${spring.datasource.password:}}") String contrasena) {
+        MicrometerMetricsTrackerFactory metricas = new MicrometerMetricsTrackerFactory(meterRegistry);
+        HikariDataSource primario = pool(propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build(),
+                "primario", entorno, metricas);
+
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            String nombre = "replica-" + replicas.size();
+            HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(url.trim()).username(usuario).password(contrasena).build();
+            replicas.put(nombre, pool(replica, nombre, entorno, metricas));
+        }
+        return new DataSourceReplicado(primario, replicas, meterRegistry);
+    }
+
+    /**
+     * Sustituye el dialecto JPA de Hibernate antes de inicializar la factoría, que es de donde lo toma
+     * el gestor de transacciones. Estático para no adelantar la creación de otros beans.
+     */
+    @Bean
+    public static BeanPostProcessor dialectoReplicas() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean factoria) {
+                    factoria.setJpaDialect(new DialectoReplicas());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Por delante de Spring Security, que ya lee usuarios al autenticar, y por detrás del filtro de
+     * Spring Session, para que la marca de escritura se guarde con la sesión al terminar la petición.
+     * Los recursos estáticos no la consultan.
+     */
+    @Bean
+    public FilterRegistrationBean<FiltroLecturaPropia> filtroLecturaPropia(
+            @Value("${app.datasource.lectura-propia.ventana:5s}") Duration ventana) {
+        FilterRegistrationBean<FiltroLecturaPropia> registro = new FilterRegistrationBean<>(new FiltroLecturaPropia(ventana, RecursosEstaticosConfig.RUTAS));
+        registro.setOrder(SessionRepositoryFilter.DEFAULT_ORDER + 10);
+        return registro;
+    }
+
+    private static HikariDataSource pool(HikariDataSource pool, String nombre, Environment entorno,
+                                         MicrometerMetricsTrackerFactory metricas) {
+        Binder.get(entorno).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(nombre);
+        pool.setMetricsTrackerFactory(metricas);
+        return pool;
+    }
+}
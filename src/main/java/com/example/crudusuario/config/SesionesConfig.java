@@ -0,0 +1,63 @@
+package com.example.crudusuario.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.env.Environment;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+
+import com.example.crudusuario.sesion.RepositorioSesiones;
+import com.example.crudusuario.sesion.SerializadorSesion;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sesiones HTTP en la base de datos con Spring Session JDBC (tablas SPRING_SESSION*), para que cualquier
+ * nodo pueda atender cualquier petición sin afinidad en el balanceador y un reinicio no cierre las sesiones.
+ * La configuración del almacén está en spring.session.jdbc.* (application.properties):
+ * - save-mode=on-set-attribute: al guardar solo se escriben los atributos modificados.
+ * - cleanup-cron: borrado periódico de las sesiones caducadas en segundo plano.
+ *
+ * Aquí se añade la serialización comprimida de los atributos ({@link SerializadorSesion}) y el repositorio
+ * que evita escribir la sesión en las peticiones que no la cambian y mide su coste ({@link RepositorioSesiones}).
+ */
+@Configuration(proxyBeanMethods = false)
+public class SesionesConfig {
+
+    /**
+     * Spring Session lo usa en lugar de la serialización Java sin comprimir (se busca por este nombre).
+     */
+    @Bean
+    public ConversionService springSessionConversionService(MeterRegistry meterRegistry) {
+        SerializadorSesion serializador = new SerializadorSesion(SesionesConfig.class.getClassLoader(), meterRegistry);
+        GenericConversionService conversion = new GenericConversionService();
+        conversion.addConverter(Object.class, byte[].class, serializador::serializar);
+        conversion.addConverter(byte[].class, Object.class, serializador::deserializar);
+        return conversion;
+    }
+
+    /**
+     * Envuelve el repositorio JDBC que crea Spring Boot, con sus propiedades ya aplicadas.
+     * Estático para no adelantar la creación de otros beans; el registro de métricas se pide al envolver.
+     */
+    @Bean
+    public static BeanPostProcessor repositorioSesionesPerezoso(ObjectProvider<MeterRegistry> meterRegistry, Environment entorno) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof JdbcIndexedSessionRepository)) {
+                    return bean;
+                }
+                SessionRepository<?> repositorio = (SessionRepository<?>) bean; // Su tipo de sesión no es público
+                Duration umbral = entorno.getProperty("app.sesion.umbral-ultimo-acceso", Duration.class, Duration.ofMinutes(1));
+                return new RepositorioSesiones<>(repositorio, umbral, meterRegistry.getObject());
+            }
+        };
+    }
+}
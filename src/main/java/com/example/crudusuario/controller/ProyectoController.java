@@ -1,7 +1,11 @@
 package com.example.crudusuario.controller;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,11 +13,18 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import com.example.crudusuario.dto.FormatoFichero;
+import com.example.crudusuario.dto.ProyectoResumen;
+import com.example.crudusuario.model.EstadoProyecto;
 import com.example.crudusuario.model.Proyecto;
+import com.example.crudusuario.service.ExportacionService;
 import com.example.crudusuario.service.ProyectoService;
 import com.example.crudusuario.service.UsuarioService;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 /**
  * Controlador para gestionar proyectos.
  */
@@ -22,12 +33,15 @@ import com.example.crudusuario.service.UsuarioService;
 public class ProyectoController {
     // Dependencias del servicio de proyectos
     private final ProyectoService proyectoService;
+    private final ExportacionService exportacionService;
 
     /**
      * Constructor con Inyección de dependencias
      */
-    public ProyectoController(ProyectoService proyectoService, UsuarioService usuarioService) {
+    public ProyectoController(ProyectoService proyectoService, UsuarioService usuarioService,
+                              ExportacionService exportacionService) {
         this.proyectoService = proyectoService;
+        this.exportacionService = exportacionService;
     }
 
     /**
@@ -35,11 +49,26 @@ public class ProyectoController {
      */
     @GetMapping // Indica que este método maneja peticiones GET
     public String listarProyectos(Model model) {
-        List<Proyecto> proyectos = proyectoService.listarProyectos(); // Obtiene la lista de proyectos desde el servicio
+        List<ProyectoResumen> proyectos = proyectoService.listarResumenProyectos(); // Obtiene el resumen de proyectos en una sola consulta
         model.addAttribute("proyectos", proyectos); // Agrega los proyectos al modelo para la vista
         return "proyectos/index"; // Devuelve la vista en la carpeta proyectos
     }
 
+    /**
+     * Exporta los proyectos (CSV o NDJSON) escribiendo directamente en la respuesta.
+     * Filtros opcionales por estado y rango de fecha de inicio.
+     */
+    @GetMapping("/exportar")
+    public void exportarProyectos(@RequestParam(required = false) EstadoProyecto estado,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                                  @RequestParam(defaultValue = "CSV") FormatoFichero formato,
+                                  HttpServletResponse response) throws IOException {
+        response.setContentType(formato.getTipoContenido() + ";charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"proyectos" + formato.getExtension() + "\"");
+        exportacionService.exportarProyectos(estado, desde, hasta, formato, response.getOutputStream());
+    }
+
     /**
      * Muestra el formulario para crear un nuevo proyecto
      */
@@ -73,10 +102,16 @@ public class ProyectoController {
 
     /**
      * Maneja la solicitud POST para actualizar un proyecto existente en la base de datos.
+     * Si otro usuario lo ha modificado desde que se abrió el formulario, se vuelve a mostrar con un aviso.
      */
     @PostMapping("/actualizar/{id}")
-    public String actualizarProyecto(@PathVariable Long id, @ModelAttribute Proyecto proyecto) {
-        proyectoService.actualizarProyecto(id, proyecto);  
+    public String actualizarProyecto(@PathVariable Long id, @ModelAttribute Proyecto proyecto,
+                                     @RequestParam(required = false) Long version) {
+        try {
+            proyectoService.actualizarProyecto(id, proyecto, version);
+        } catch (OptimisticLockingFailureException e) {
+            return "redirect:/proyectos/editar/" + id + "?conflicto=true";
+        }
         return "redirect:/proyectos";  // Redirige a la página de listado de proyectos.
     }
 
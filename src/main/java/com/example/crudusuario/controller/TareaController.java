@@ -1,7 +1,15 @@
 package com.example.crudusuario.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,12 +17,37 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.example.crudusuario.dto.FiltroTareas;
+import com.example.crudusuario.dto.FormatoFichero;
+import com.example.crudusuario.dto.Paginacion;
+import com.example.crudusuario.dto.ResultadoBusqueda;
+import com.example.crudusuario.dto.ResultadoImportacion;
+import com.example.crudusuario.dto.ResultadoTransicion;
+import com.example.crudusuario.dto.TareaJson;
+import com.example.crudusuario.dto.TareaResumen;
+import com.example.crudusuario.dto.TransicionPeticion;
+import com.example.crudusuario.model.EstadoTarea;
 import com.example.crudusuario.model.Proyecto;
 import com.example.crudusuario.model.Tarea;
+import com.example.crudusuario.service.BusquedaTareasService;
+import com.example.crudusuario.service.ExportacionService;
+import com.example.crudusuario.service.ImportacionTareasService;
 import com.example.crudusuario.service.ProyectoService;
+import com.example.crudusuario.service.TableroTareasService;
 import com.example.crudusuario.service.TareaService;
+import com.example.crudusuario.service.TransicionesTareasService;
+import com.example.crudusuario.service.VencimientosService;
+import com.example.crudusuario.vista.RenderizadorPorBloques;
+import com.example.crudusuario.vista.TablaPorBloques;
 
 /**
  * Controlador para gestionar tareas dentro de proyectos.
@@ -25,55 +58,160 @@ public class TareaController {
     //Dependencias del servicio de tareas y proyectos
     private final TareaService tareaService;
     private final ProyectoService proyectoService;
+    private final ImportacionTareasService importacionTareasService;
+    private final ExportacionService exportacionService;
+    private final BusquedaTareasService busquedaTareasService;
+    private final VencimientosService vencimientosService;
+    private final TransicionesTareasService transicionesTareasService;
+    private final TableroTareasService tableroTareasService;
+    private final RenderizadorPorBloques renderizadorPorBloques;
 
     //Constructor con Inyección de dependencias
-    public TareaController(TareaService tareaService, ProyectoService proyectoService) {
+    public TareaController(TareaService tareaService, ProyectoService proyectoService,
+                           ImportacionTareasService importacionTareasService, ExportacionService exportacionService,
+                           BusquedaTareasService busquedaTareasService, VencimientosService vencimientosService,
+                           TransicionesTareasService transicionesTareasService,
+                           TableroTareasService tableroTareasService,
+                           RenderizadorPorBloques renderizadorPorBloques) {
         this.tareaService = tareaService;
         this.proyectoService = proyectoService;
+        this.importacionTareasService = importacionTareasService;
+        this.exportacionService = exportacionService;
+        this.busquedaTareasService = busquedaTareasService;
+        this.vencimientosService = vencimientosService;
+        this.transicionesTareasService = transicionesTareasService;
+        this.tableroTareasService = tableroTareasService;
+        this.renderizadorPorBloques = renderizadorPorBloques;
     }
 
     /**
-     * Muestra la lista de todas las tareas junto con sus proyectos.
+     * Muestra la lista de todas las tareas junto con sus proyectos, paginada por cursor.
+     * Los filtros son opcionales y se conservan en los enlaces de paginación.
+     * La cabecera se envía antes de la consulta y las filas por bloques según se leen,
+     * por lo que admite páginas de hasta {@link Paginacion#TAMANIO_MAXIMO_POR_BLOQUES} tareas.
      */
     @GetMapping("/todas") // Indica que este método maneja peticiones GET
-    public String listarTodasLasTareas(Model model) {
-        List<Tarea> tareas = tareaService.listarTodasLasTareas(); // Obtiene la lista de tareas desde el servicio
+    public void listarTodasLasTareas(@RequestParam(required = false) EstadoTarea estado,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                                     @RequestParam(required = false) Long proyectoId,
+                                     @RequestParam(required = false) Long despuesDe,
+                                     @RequestParam(defaultValue = "" + Paginacion.TAMANIO_POR_DEFECTO) int tamanio,
+                                     Model model, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FiltroTareas filtro = new FiltroTareas(estado, desde, hasta, proyectoId);
+
+        model.addAttribute("esPrimeraPagina", despuesDe == null);
+        model.addAttribute("filtro", filtro);
+        model.addAttribute("tamanio", tamanio);
+        model.addAttribute("estados", EstadoTarea.values());
+
+        TablaPorBloques<TareaResumen> tabla = renderizadorPorBloques.abrir("tareas/listado_general", "tareas",
+                model.asMap(), request, response); // Cabecera y filtros salen antes de consultar
+        Long siguienteId = tareaService.recorrerTareasPaginadas(filtro, despuesDe, tamanio, tabla::escribir);
+        tabla.ponerEnPie("siguienteId", siguienteId); // La paginación va después de la tabla
+        tabla.terminar();
+    }
+
+    /**
+     * Busca tareas por texto en el título y la descripción, ordenadas por relevancia.
+     * Un ADMIN busca en todas las tareas; el resto de usuarios solo en las de sus proyectos.
+     */
+    @GetMapping("/buscar")
+    public String buscarTareas(@RequestParam(defaultValue = "") String q,
+                               @RequestParam(required = false) Long proyectoId,
+                               @RequestParam(defaultValue = "0") int pagina,
+                               @RequestParam(defaultValue = "" + Paginacion.TAMANIO_POR_DEFECTO) int tamanio,
+                               Authentication authentication, Model model) {
+        boolean esAdmin = authentication.getAuthorities().stream()
+                .anyMatch(a -> "ADMIN".equals(a.getAuthority()));
+        String propietario = esAdmin ? null : authentication.getName();
 
-        if (tareas.isEmpty()) {
-            model.addAttribute("mensaje", "No hay tareas registradas.");
+        ResultadoBusqueda resultado = busquedaTareasService.buscar(q, proyectoId, propietario, pagina, tamanio);
+        if (!q.isBlank() && resultado.tareas().isEmpty()) {
+            model.addAttribute("mensaje", "No se encontraron tareas para \"" + q + "\".");
         }
 
-        model.addAttribute("tareas", tareas); // Agrega las tareas al modelo para la vista
+        model.addAttribute("resultado", resultado);
+        model.addAttribute("q", q);
+        model.addAttribute("proyectoId", proyectoId);
+        return "tareas/busqueda";
+    }
 
-        return "tareas/listado_general"; // Devuelve la vista en la carpeta tareas
+    /**
+     * Muestra un calendario mensual con las tareas por fecha límite, junto a las tareas
+     * vencidas y las que vencen en los próximos días (sin completar).
+     * @param mes Mes a mostrar en formato AAAA-MM (por defecto, el actual).
+     */
+    @GetMapping("/calendario")
+    public String mostrarCalendario(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth mes,
+                                    Model model) {
+        YearMonth mesMostrado = (mes != null) ? mes : YearMonth.now();
+        model.addAttribute("calendario", vencimientosService.calendario(mesMostrado));
+        model.addAttribute("mesAnterior", mesMostrado.minusMonths(1));
+        model.addAttribute("mesSiguiente", mesMostrado.plusMonths(1));
+        model.addAttribute("vencidas", vencimientosService.listarVencidas());
+        model.addAttribute("proximas", vencimientosService.listarProximas(vencimientosService.getAntelacionDias()));
+        model.addAttribute("hoy", LocalDate.now());
+        return "tareas/calendario";
     }
 
 
     /**
-     * Muestra la lista de tareas de un proyecto específico.
+     * Exporta las tareas filtradas (CSV o NDJSON) escribiendo directamente en la respuesta.
+     * Se usan los mismos filtros que el listado general.
+     */
+    @GetMapping("/exportar")
+    public void exportarTareas(@RequestParam(required = false) EstadoTarea estado,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                               @RequestParam(required = false) Long proyectoId,
+                               @RequestParam(defaultValue = "CSV") FormatoFichero formato,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType(formato.getTipoContenido() + ";charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"tareas" + formato.getExtension() + "\"");
+        exportacionService.exportarTareas(new FiltroTareas(estado, desde, hasta, proyectoId), formato,
+                response.getOutputStream());
+    }
+
+    /**
+     * Muestra la lista de tareas de un proyecto específico, enviando las filas por bloques según se leen.
      */
     @GetMapping("/proyecto/{proyectoId}")
-    public String listarTareasPorProyecto(@PathVariable Long proyectoId, Model model) {
+    public void listarTareasPorProyecto(@PathVariable Long proyectoId, Model model,
+                                        HttpServletRequest request, HttpServletResponse response) throws IOException {
         Proyecto proyecto = proyectoService.obtenerProyectoPorId(proyectoId); 
     
         if (proyecto == null) {
             model.addAttribute("error", "El proyecto con ID " + proyectoId + " no existe o ha sido eliminado.");
-            return "tareas/index";
-        }
-    
-        List<Tarea> tareas = tareaService.listarTareasPorProyecto(proyectoId); // Obtiene la lista de tareas desde el servicio
-    
-        if (tareas.isEmpty()) {
-            model.addAttribute("mensaje", "No hay tareas registradas en los proyectos.");
+            renderizadorPorBloques.renderizar("tareas/index", model.asMap(), request, response);
+            return;
         }
     
-        model.addAttribute("tareas", tareas);
         model.addAttribute("proyecto", proyecto);
-    
-        return "tareas/index";
+        model.addAttribute("estados", EstadoTarea.values());
+        model.addAttribute("ultimoEvento", tableroTareasService.ultimoPublicado(proyectoId)); // Antes de leer las tareas
+
+        TablaPorBloques<TareaResumen> tabla = renderizadorPorBloques.abrir("tareas/index", "tareas",
+                model.asMap(), request, response);
+        tareaService.recorrerResumenTareasPorProyecto(proyectoId, tabla::escribir); // Una sola consulta con JOIN al proyecto
+        tabla.terminar();
     }
     
 
+    /**
+     * Cambios de las tareas del proyecto en vivo (Server-Sent Events) para la página del proyecto,
+     * que así no necesita recargarse. No consulta la base de datos.
+     * En la primera conexión el navegador no puede enviar Last-Event-ID y envía en el parámetro ultimo
+     * el id con el que se generó la página; al reconectar manda la cabecera, que tiene prioridad.
+     */
+    @GetMapping(value = "/proyecto/{proyectoId}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter eventosProyecto(@PathVariable Long proyectoId,
+                                      @RequestHeader(value = "Last-Event-ID", required = false) String ultimoVisto,
+                                      @RequestParam(value = "ultimo", required = false) String ultimoDeLaPagina) {
+        return tableroTareasService.suscribir(proyectoId, (ultimoVisto != null) ? ultimoVisto : ultimoDeLaPagina);
+    }
+
     /**
      * Muestra el formulario para crear una nueva tarea dentro de un proyecto.
      */
@@ -94,15 +232,55 @@ public class TareaController {
      */
     @PostMapping("/guardar")
     public String guardarTarea(@ModelAttribute Tarea tarea, @RequestParam Long proyectoId) {
+        tareaService.guardarTarea(proyectoId, tarea); // El proyecto se comprueba con la clave foránea, sin leerlo
+
+        return "redirect:/tareas/proyecto/" + proyectoId;
+    }
+
+    /**
+     * Importa tareas en bloque desde un fichero CSV o NDJSON subido para un proyecto.
+     * El fichero se procesa en streaming y se muestra el resumen con los errores por fila.
+     */
+    @PostMapping("/importar/{proyectoId}")
+    public String importarTareas(@PathVariable Long proyectoId, @RequestParam("archivo") MultipartFile archivo,
+                                 Model model) throws IOException {
         Proyecto proyecto = proyectoService.obtenerProyectoPorId(proyectoId);
-        if (proyecto == null) {
-            return "redirect:/proyectos";
+        model.addAttribute("proyecto", proyecto);
+
+        if (archivo.isEmpty()) {
+            model.addAttribute("error", "Debe seleccionar un fichero CSV o NDJSON.");
+            return "tareas/importacion";
         }
 
-        tarea.setProyecto(proyecto);
-        tareaService.guardarTarea(tarea);
+        FormatoFichero formato = FormatoFichero.desdeNombreFichero(archivo.getOriginalFilename());
+        try (InputStream entrada = archivo.getInputStream()) {
+            ResultadoImportacion resultado = importacionTareasService.importar(proyectoId, entrada, formato);
+            model.addAttribute("resultado", resultado);
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("error", e.getMessage()); // Fichero mal formado (p. ej. sin cabecera CSV)
+        }
+        return "tareas/importacion";
+    }
 
-        return "redirect:/tareas/proyecto/" + proyectoId;
+    /**
+     * Cambia el estado de varias tareas a la vez y muestra el resultado de cada una:
+     * las marcadas en el listado (ids) o, si se indica estadoActual, todas las del proyecto en ese estado.
+     * @param proyectoId Proyecto del filtro, o al que se vuelve tras cambiar las tareas marcadas.
+     */
+    @PostMapping("/estado")
+    public String cambiarEstado(@RequestParam(required = false) List<Long> ids,
+                                @RequestParam(required = false) Long proyectoId,
+                                @RequestParam(required = false) EstadoTarea estadoActual,
+                                @RequestParam EstadoTarea estado, Model model) {
+        model.addAttribute("proyectoId", proyectoId);
+        try {
+            ResultadoTransicion resultado = transicionesTareasService.cambiarEstado(
+                    new TransicionPeticion(ids, proyectoId, estadoActual, estado));
+            model.addAttribute("resultado", resultado);
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("error", e.getMessage()); // P. ej. ninguna tarea marcada
+        }
+        return "tareas/transicion";
     }
 
     /**
@@ -122,31 +300,34 @@ public class TareaController {
 
     /**
      * Actualiza una tarea en la base de datos.
+     * Si otro usuario la ha modificado desde que se abrió el formulario, se vuelve a mostrar con un aviso.
      */
     @PostMapping("/actualizar/{id}")
-    public String actualizarTarea(@PathVariable Long id, @ModelAttribute Tarea tarea) {
-        Tarea tareaExistente = tareaService.obtenerTareaPorId(id);
-        if (tareaExistente == null || tareaExistente.getProyecto() == null) {
-            return "redirect:/tareas";
+    public String actualizarTarea(@PathVariable Long id, @ModelAttribute Tarea tarea,
+                                  @RequestParam(required = false) Long version) {
+        TareaJson actualizada;
+        try {
+            actualizada = tareaService.actualizarTarea(id, tarea, version);
+        } catch (OptimisticLockingFailureException e) {
+            return "redirect:/tareas/editar/" + id + "?conflicto=true";
         }
 
-        tarea.setProyecto(tareaExistente.getProyecto());
-        tareaService.actualizarTarea(id, tarea);
-
-        return "redirect:/tareas/proyecto/" + tareaExistente.getProyecto().getId();
+        return "redirect:/tareas/proyecto/" + actualizada.proyectoId();
     }
 
     /**
      * Elimina una tarea.
+     * Si otro usuario la ha modificado desde que se mostró el listado (version), no se borra y se muestra
+     * la tarea con un aviso, igual que al actualizar.
      */
     @GetMapping("/eliminar/{id}")
-    public String eliminarTarea(@PathVariable Long id) {
-        Tarea tarea = tareaService.obtenerTareaPorId(id);
-        if (tarea != null && tarea.getProyecto() != null) {
-            Long proyectoId = tarea.getProyecto().getId();
-            tareaService.eliminarTarea(id);
-            return "redirect:/tareas/proyecto/" + proyectoId;
+    public String eliminarTarea(@PathVariable Long id, @RequestParam(required = false) Long version) {
+        Long proyectoId;
+        try {
+            proyectoId = tareaService.eliminarTarea(id, version);
+        } catch (OptimisticLockingFailureException e) {
+            return "redirect:/tareas/editar/" + id + "?conflicto=true";
         }
-        return "redirect:/proyectos";
+        return "redirect:/tareas/proyecto/" + proyectoId;
     }
 }
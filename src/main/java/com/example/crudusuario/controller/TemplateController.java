@@ -1,10 +1,26 @@
 package com.example.crudusuario.controller;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
+import com.example.crudusuario.dto.ProyectoResumen;
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.service.ContadoresTareasService;
+import com.example.crudusuario.service.ProyectoService;
+
 @Controller
 public class TemplateController {
+    private final ProyectoService proyectoService;
+    private final ContadoresTareasService contadoresTareasService;
+
+    public TemplateController(ProyectoService proyectoService, ContadoresTareasService contadoresTareasService) {
+        this.proyectoService = proyectoService;
+        this.contadoresTareasService = contadoresTareasService;
+    }
 
     /**
      * Muestra la vista de login.
@@ -15,10 +31,19 @@ public class TemplateController {
     }
 
     /**
-     * Muestra el dashboard del administrador.
+     * Muestra el dashboard del administrador con el número de tareas por estado,
+     * global y por proyecto (los contadores se leen de la tabla resumen, sin contar tareas).
      */
     @GetMapping("/admin/dashboard")
-    public String dashboard() {
+    public String dashboard(Model model) {
+        Map<Long, Map<EstadoTarea, Long>> contadores = contadoresTareasService.resumenTodosLosProyectos();
+        Map<ProyectoResumen, Map<EstadoTarea, Long>> porProyecto = new LinkedHashMap<>();
+        for (ProyectoResumen proyecto : proyectoService.listarResumenProyectos()) {
+            porProyecto.put(proyecto, contadores.getOrDefault(proyecto.id(), ContadoresTareasService.vacio()));
+        }
+        model.addAttribute("estados", EstadoTarea.values());
+        model.addAttribute("resumenGlobal", contadoresTareasService.resumenGlobal());
+        model.addAttribute("resumenPorProyecto", porProyecto);
         return "admin/dashboard";
     }
 }
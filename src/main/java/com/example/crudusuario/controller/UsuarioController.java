@@ -1,19 +1,33 @@
 package com.example.crudusuario.controller;
 
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.model.Proyecto;
 import com.example.crudusuario.model.Usuario;
+import com.example.crudusuario.service.ContadoresTareasService;
+import com.example.crudusuario.service.ProyectoService;
 import com.example.crudusuario.service.UsuarioService;
 
 @Controller
 public class UsuarioController {
     private final UsuarioService usuarioService;
+    private final ProyectoService proyectoService;
+    private final ContadoresTareasService contadoresTareasService;
 
-    public UsuarioController(UsuarioService usuarioService) {
+    public UsuarioController(UsuarioService usuarioService, ProyectoService proyectoService,
+                             ContadoresTareasService contadoresTareasService) {
         this.usuarioService = usuarioService;
+        this.proyectoService = proyectoService;
+        this.contadoresTareasService = contadoresTareasService;
     }
 
     /**
@@ -35,10 +49,19 @@ public class UsuarioController {
     }
 
     /**
-     * Muestra el home del usuario.
+     * Muestra el home del usuario con el número de tareas por estado de cada uno de sus proyectos.
      */
     @GetMapping("/usuario/home")
-    public String home() {
+    public String home(Principal principal, Model model) {
+        List<Proyecto> proyectos = proyectoService.obtenerProyectosPorUsuario(principal.getName());
+        Map<Long, Map<EstadoTarea, Long>> contadores = contadoresTareasService.resumenProyectos(
+                proyectos.stream().map(Proyecto::getId).toList()); // Una sola consulta para todos
+        Map<Proyecto, Map<EstadoTarea, Long>> porProyecto = new LinkedHashMap<>();
+        for (Proyecto proyecto : proyectos) {
+            porProyecto.put(proyecto, contadores.get(proyecto.getId()));
+        }
+        model.addAttribute("estados", EstadoTarea.values());
+        model.addAttribute("resumenPorProyecto", porProyecto);
         return "user/home";
     }     
 }
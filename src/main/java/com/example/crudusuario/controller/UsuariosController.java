@@ -1,5 +1,7 @@
 package com.example.crudusuario.controller;
 
+import java.io.IOException;
+
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,25 +10,35 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import com.example.crudusuario.dto.UsuarioResumen;
 import com.example.crudusuario.model.Usuario;
 import com.example.crudusuario.service.UsuarioService;
+import com.example.crudusuario.vista.RenderizadorPorBloques;
+import com.example.crudusuario.vista.TablaPorBloques;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Controller
 @RequestMapping("/admin/usuarios")
 public class UsuariosController {
     private final UsuarioService usuarioService;
+    private final RenderizadorPorBloques renderizadorPorBloques;
 
-    public UsuariosController(UsuarioService usuarioService) {
+    public UsuariosController(UsuarioService usuarioService, RenderizadorPorBloques renderizadorPorBloques) {
         this.usuarioService = usuarioService;
+        this.renderizadorPorBloques = renderizadorPorBloques;
     }
 
     /**
-     * Muestra la lista de usuarios.
+     * Muestra la lista de usuarios, enviando las filas por bloques según se leen.
      */
     @GetMapping
-    public String listarUsuarios(Model model) {
-        model.addAttribute("usuarios", usuarioService.listarUsuarios());
-        return "admin/usuarios";
+    public void listarUsuarios(Model model, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        TablaPorBloques<UsuarioResumen> tabla = renderizadorPorBloques.abrir("admin/usuarios", "usuarios",
+                model.asMap(), request, response);
+        usuarioService.recorrerUsuarios(tabla::escribir);
+        tabla.terminar();
     }
 
     /**
@@ -0,0 +1,44 @@
+package com.example.crudusuario.controller.api;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Traduce las excepciones de los servicios a respuestas JSON (RFC 7807) solo para el API REST.
+ * Las vistas Thymeleaf mantienen su tratamiento de errores habitual.
+ */
+@RestControllerAdvice(basePackageClasses = ApiExceptionHandler.class)
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ProblemDetail noEncontrado(EntityNotFoundException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail peticionNoValida(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    /**
+     * Modificación concurrente: 412 si el cliente envió If-Match (su versión ya no es la actual), 409 si no.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail modificacionConcurrente(OptimisticLockingFailureException e, HttpServletRequest request) {
+        HttpStatus estado = (request.getHeader(HttpHeaders.IF_MATCH) != null)
+                ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return ProblemDetail.forStatusAndDetail(estado, e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ProblemDetail conflicto(IllegalStateException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+    }
+}
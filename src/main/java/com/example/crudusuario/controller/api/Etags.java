@@ -0,0 +1,69 @@
+package com.example.crudusuario.controller.api;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import com.example.crudusuario.dto.PaginaJson;
+import com.example.crudusuario.dto.Versionado;
+
+/**
+ * Cálculo de ETags fuertes a partir de la versión de las entidades (columna @Version).
+ * Un recurso cambia de ETag exactamente cuando cambia su fila en la base de datos.
+ */
+final class Etags {
+
+    private Etags() {}
+
+    /**
+     * ETag de un recurso individual: "id-version".
+     */
+    static String de(Versionado recurso) {
+        return "\"" + recurso.id() + "-" + recurso.version() + "\"";
+    }
+
+    /**
+     * ETag de una página: resumen (FNV-1a de 64 bits) de los pares id/versión y del cursor siguiente,
+     * de modo que cambia si se crea, modifica o borra cualquier elemento de la página.
+     */
+    static String de(PaginaJson<?> pagina) {
+        long hash = 0xcbf29ce484222325L;
+        for (Versionado recurso : pagina.contenido()) {
+            hash = mezclar(hash, recurso.id());
+            hash = mezclar(hash, recurso.version());
+        }
+        hash = mezclar(hash, (pagina.siguienteId() != null) ? pagina.siguienteId() : -1L);
+        return "\"p-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Versión indicada en una cabecera If-Match con el ETag de un recurso individual ("id-version").
+     * @return La versión, o null si no hay cabecera o es "*" (cualquier versión).
+     * @throws OptimisticLockingFailureException Si el ETag no corresponde a este recurso (412).
+     */
+    static Long versionDe(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.startsWith("W/")) {
+            valor = valor.substring(2);
+        }
+        valor = valor.replace("\"", "");
+        String prefijo = id + "-";
+        if (valor.startsWith(prefijo)) {
+            try {
+                return Long.parseLong(valor.substring(prefijo.length()));
+            } catch (NumberFormatException e) {
+                // Se trata como un ETag que no coincide
+            }
+        }
+        throw new OptimisticLockingFailureException("El ETag de If-Match no corresponde al recurso " + id + ".");
+    }
+
+    private static long mezclar(long hash, long valor) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (valor >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.crudusuario.controller.api;
+
+import java.net.URI;
+import java.time.Instant;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.crudusuario.dto.FiltroTareas;
+import com.example.crudusuario.dto.PaginaHistorial;
+import com.example.crudusuario.dto.PaginaJson;
+import com.example.crudusuario.dto.Paginacion;
+import com.example.crudusuario.dto.ProyectoJson;
+import com.example.crudusuario.dto.ProyectoPeticion;
+import com.example.crudusuario.dto.TareaJson;
+import com.example.crudusuario.model.Proyecto;
+import com.example.crudusuario.service.HistorialTareasService;
+import com.example.crudusuario.service.ProyectoService;
+import com.example.crudusuario.service.TareaService;
+import com.example.crudusuario.service.UsuarioService;
+
+/**
+ * API REST (JSON) de proyectos sobre las mismas operaciones que ProyectoController.
+ * Las respuestas GET llevan un ETag basado en la versión de las filas; si el cliente envía
+ * If-None-Match con el mismo valor, Spring responde 304 sin serializar el cuerpo.
+ */
+@RestController
+@RequestMapping("/api/proyectos")
+public class ProyectoApiController {
+    private final ProyectoService proyectoService;
+    private final TareaService tareaService;
+    private final UsuarioService usuarioService;
+    private final HistorialTareasService historialTareasService;
+
+    public ProyectoApiController(ProyectoService proyectoService, TareaService tareaService,
+                                 UsuarioService usuarioService, HistorialTareasService historialTareasService) {
+        this.proyectoService = proyectoService;
+        this.tareaService = tareaService;
+        this.usuarioService = usuarioService;
+        this.historialTareasService = historialTareasService;
+    }
+
+    /**
+     * Lista los proyectos paginados por cursor (parámetro despuesDe = siguienteId de la página anterior).
+     */
+    @GetMapping
+    public ResponseEntity<PaginaJson<ProyectoJson>> listar(@RequestParam(required = false) Long despuesDe,
+                                                           @RequestParam(defaultValue = "" + Paginacion.TAMANIO_POR_DEFECTO) int tamanio) {
+        PaginaJson<ProyectoJson> pagina = proyectoService.listarProyectosJson(despuesDe, tamanio);
+        return conEtag(pagina, Etags.de(pagina));
+    }
+
+    /**
+     * Obtiene un proyecto.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ProyectoJson> obtener(@PathVariable Long id) {
+        ProyectoJson proyecto = proyectoService.obtenerProyectoJson(id);
+        return conEtag(proyecto, Etags.de(proyecto));
+    }
+
+    /**
+     * Lista las tareas de un proyecto paginadas por cursor.
+     */
+    @GetMapping("/{id}/tareas")
+    public ResponseEntity<PaginaJson<TareaJson>> listarTareas(@PathVariable Long id,
+                                                              @RequestParam(required = false) Long despuesDe,
+                                                              @RequestParam(defaultValue = "" + Paginacion.TAMANIO_POR_DEFECTO) int tamanio) {
+        proyectoService.obtenerProyectoJson(id); // 404 si el proyecto no existe
+        PaginaJson<TareaJson> pagina = tareaService.listarTareasJson(
+                new FiltroTareas(null, null, null, id), despuesDe, tamanio);
+        return conEtag(pagina, Etags.de(pagina));
+    }
+
+    /**
+     * Cambios de las tareas de un proyecto entre dos instantes ISO-8601 (desde incluido, hasta excluido),
+     * paginados por cursor: la página siguiente se pide con desde = siguienteDesde y despuesDe = siguienteId.
+     */
+    @GetMapping("/{id}/historial")
+    public PaginaHistorial historial(@PathVariable Long id, @RequestParam(required = false) Instant desde,
+                                     @RequestParam(required = false) Instant hasta,
+                                     @RequestParam(required = false) Long despuesDe,
+                                     @RequestParam(defaultValue = "" + Paginacion.TAMANIO_POR_DEFECTO) int tamanio) {
+        return historialTareasService.historialProyecto(id, desde, despuesDe, hasta, tamanio);
+    }
+
+    /**
+     * Crea un proyecto cuyo propietario es el usuario autenticado.
+     */
+    @PostMapping
+    public ResponseEntity<ProyectoJson> crear(@RequestBody ProyectoPeticion peticion, Authentication autenticacion) {
+        Proyecto proyecto = peticion.toProyecto();
+        proyecto.setUsuario(usuarioService.buscarPorUsername(autenticacion.getName()));
+        ProyectoJson creado = ProyectoJson.desde(proyectoService.guardarProyecto(proyecto));
+        return ResponseEntity.created(URI.create("/api/proyectos/" + creado.id())).eTag(Etags.de(creado)).body(creado);
+    }
+
+    /**
+     * Actualiza un proyecto y devuelve su nueva representación.
+     * Con If-Match (ETag obtenido en un GET) solo se aplica si nadie lo ha modificado desde entonces (412 si no).
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<ProyectoJson> actualizar(@PathVariable Long id, @RequestBody ProyectoPeticion peticion,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProyectoJson actualizado = proyectoService.actualizarProyecto(id, peticion.toProyecto(),
+                Etags.versionDe(ifMatch, id));
+        return ResponseEntity.ok().eTag(Etags.de(actualizado)).body(actualizado);
+    }
+
+    /**
+     * Elimina un proyecto (solo si no tiene tareas, 409 en caso contrario). Admite If-Match como PUT.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> eliminar(@PathVariable Long id,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        proyectoService.eliminarProyecto(id, Etags.versionDe(ifMatch, id));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Respuesta 200 con ETag. "no-cache" obliga a revalidar siempre, pero permite al cliente
+     * guardar la copia y recibir 304 mientras el ETag no cambie.
+     */
+    static <T> ResponseEntity<T> conEtag(T cuerpo, String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(cuerpo);
+    }
+}
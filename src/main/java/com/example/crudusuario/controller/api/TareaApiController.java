@@ -0,0 +1,127 @@
+package com.example.crudusuario.controller.api;
+
+import static com.example.crudusuario.controller.api.ProyectoApiController.conEtag;
+
+import java.net.URI;
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.crudusuario.dto.FiltroTareas;
+import com.example.crudusuario.dto.PaginaHistorial;
+import com.example.crudusuario.dto.PaginaJson;
+import com.example.crudusuario.dto.Paginacion;
+import com.example.crudusuario.dto.ResultadoTransicion;
+import com.example.crudusuario.dto.TareaJson;
+import com.example.crudusuario.dto.TareaPeticion;
+import com.example.crudusuario.dto.TransicionPeticion;
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.service.HistorialTareasService;
+import com.example.crudusuario.service.TareaService;
+import com.example.crudusuario.service.TransicionesTareasService;
+
+/**
+ * API REST (JSON) de tareas sobre las mismas operaciones que TareaController,
+ * con ETags y respuestas 304 igual que {@link ProyectoApiController}.
+ */
+@RestController
+@RequestMapping("/api/tareas")
+public class TareaApiController {
+    private final TareaService tareaService;
+    private final TransicionesTareasService transicionesTareasService;
+    private final HistorialTareasService historialTareasService;
+
+    public TareaApiController(TareaService tareaService, TransicionesTareasService transicionesTareasService,
+                              HistorialTareasService historialTareasService) {
+        this.tareaService = tareaService;
+        this.transicionesTareasService = transicionesTareasService;
+        this.historialTareasService = historialTareasService;
+    }
+
+    /**
+     * Lista las tareas paginadas por cursor, con los mismos filtros opcionales que /tareas/todas.
+     */
+    @GetMapping
+    public ResponseEntity<PaginaJson<TareaJson>> listar(@RequestParam(required = false) EstadoTarea estado,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                                                        @RequestParam(required = false) Long proyectoId,
+                                                        @RequestParam(required = false) Long despuesDe,
+                                                        @RequestParam(defaultValue = "" + Paginacion.TAMANIO_POR_DEFECTO) int tamanio) {
+        PaginaJson<TareaJson> pagina = tareaService.listarTareasJson(
+                new FiltroTareas(estado, desde, hasta, proyectoId), despuesDe, tamanio);
+        return conEtag(pagina, Etags.de(pagina));
+    }
+
+    /**
+     * Obtiene una tarea.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<TareaJson> obtener(@PathVariable Long id) {
+        TareaJson tarea = tareaService.obtenerTareaJson(id);
+        return conEtag(tarea, Etags.de(tarea));
+    }
+
+    /**
+     * Historial de cambios de una tarea (también de las ya eliminadas), paginado por cursor.
+     * Los cambios aparecen unos segundos después de hacerse (se registran en segundo plano).
+     */
+    @GetMapping("/{id}/historial")
+    public PaginaHistorial historial(@PathVariable Long id, @RequestParam(required = false) Long despuesDe,
+                                     @RequestParam(defaultValue = "" + Paginacion.TAMANIO_POR_DEFECTO) int tamanio) {
+        return historialTareasService.historialTarea(id, despuesDe, tamanio);
+    }
+
+    /**
+     * Crea una tarea en el proyecto indicado en el cuerpo (proyectoId).
+     * El proyecto no se lee: si no existe, la clave foránea rechaza el INSERT (404).
+     */
+    @PostMapping
+    public ResponseEntity<TareaJson> crear(@RequestBody TareaPeticion peticion) {
+        TareaJson creada = TareaJson.desde(tareaService.guardarTarea(peticion.proyectoId(), peticion.toTarea()));
+        return ResponseEntity.created(URI.create("/api/tareas/" + creada.id())).eTag(Etags.de(creada)).body(creada);
+    }
+
+    /**
+     * Actualiza una tarea (el proyecto no cambia) y devuelve su nueva representación.
+     * Con If-Match (ETag obtenido en un GET) solo se aplica si nadie la ha modificado desde entonces (412 si no).
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<TareaJson> actualizar(@PathVariable Long id, @RequestBody TareaPeticion peticion,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TareaJson actualizada = tareaService.actualizarTarea(id, peticion.toTarea(), Etags.versionDe(ifMatch, id));
+        return ResponseEntity.ok().eTag(Etags.de(actualizada)).body(actualizada);
+    }
+
+    /**
+     * Elimina una tarea (solo si está PENDIENTE, 409 en caso contrario). Admite If-Match como PUT.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> eliminar(@PathVariable Long id,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        tareaService.eliminarTarea(id, Etags.versionDe(ifMatch, id));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Cambia el estado de varias tareas: {"ids": [...], "estado": "EN_CURSO"} o, para todas las de un proyecto
+     * en un estado, {"proyectoId": 1, "estadoActual": "PENDIENTE", "estado": "EN_CURSO"}.
+     * Devuelve el resultado de cada tarea con su nueva versión (ETag).
+     */
+    @PostMapping("/estado")
+    public ResultadoTransicion cambiarEstado(@RequestBody TransicionPeticion peticion) {
+        return transicionesTareasService.cambiarEstado(peticion);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.crudusuario.dto;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tareas de un mes agrupadas por día de fecha límite, para la vista de calendario.
+ * @param mes Mes mostrado.
+ * @param semanas Semanas del calendario (de lunes a domingo); incluyen días de los meses contiguos.
+ * @param tareasPorDia Tareas de cada día del mes que tiene alguna.
+ * @param truncado true si el mes tiene más tareas de las que se muestran.
+ */
+public record CalendarioMes(YearMonth mes, List<List<LocalDate>> semanas,
+                            Map<LocalDate, List<TareaResumen>> tareasPorDia, boolean truncado) {
+
+    public List<TareaResumen> tareasDe(LocalDate dia) {
+        return tareasPorDia.getOrDefault(dia, List.of());
+    }
+
+    public boolean esDelMes(LocalDate dia) {
+        return YearMonth.from(dia).equals(mes);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.crudusuario.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.model.HistorialTarea.Campo;
+import com.example.crudusuario.model.HistorialTarea.Tipo;
+
+/**
+ * Representación JSON de un cambio del historial de una tarea.
+ * @param campos Campos que cambiaron; los valores del resto son null.
+ * @param estadoAnterior Estado antes del cambio, si cambió el estado de una tarea existente.
+ */
+public record CambioHistorial(Long id, long tareaId, long proyectoId, Instant momento, String usuario, Tipo tipo,
+                              Set<Campo> campos, EstadoTarea estadoAnterior, EstadoTarea estado, String titulo,
+                              String descripcion, LocalDate fechaLimite) {
+}
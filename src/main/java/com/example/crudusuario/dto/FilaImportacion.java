@@ -0,0 +1,8 @@
+package com.example.crudusuario.dto;
+
+/**
+ * Fila leída de un fichero de importación de tareas (CSV o NDJSON), todavía sin validar.
+ * Los valores llegan como texto para poder informar del error exacto de cada fila.
+ */
+public record FilaImportacion(String titulo, String descripcion, String fechaLimite, String estado) {
+}
@@ -0,0 +1,16 @@
+package com.example.crudusuario.dto;
+
+import java.time.LocalDate;
+
+import com.example.crudusuario.model.EstadoTarea;
+
+/**
+ * Filtros opcionales para el listado general de tareas.
+ * Un valor null significa que no se filtra por ese campo.
+ */
+public record FiltroTareas(EstadoTarea estado, LocalDate desde, LocalDate hasta, Long proyectoId) {
+
+    public static FiltroTareas vacio() {
+        return new FiltroTareas(null, null, null, null);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.crudusuario.dto;
+
+import java.util.Locale;
+
+/**
+ * Formatos de fichero admitidos en la importación y exportación masiva.
+ */
+public enum FormatoFichero {
+    CSV("text/csv", ".csv"),
+    NDJSON("application/x-ndjson", ".ndjson");
+
+    private final String tipoContenido;
+    private final String extension;
+
+    FormatoFichero(String tipoContenido, String extension) {
+        this.tipoContenido = tipoContenido;
+        this.extension = extension;
+    }
+
+    public String getTipoContenido() { return tipoContenido; }
+    public String getExtension() { return extension; }
+
+    /**
+     * Deduce el formato a partir del nombre del fichero (.ndjson / .jsonl → NDJSON, resto CSV).
+     */
+    public static FormatoFichero desdeNombreFichero(String nombre) {
+        String minusculas = (nombre == null) ? "" : nombre.toLowerCase(Locale.ROOT);
+        return (minusculas.endsWith(".ndjson") || minusculas.endsWith(".jsonl")) ? NDJSON : CSV;
+    }
+}
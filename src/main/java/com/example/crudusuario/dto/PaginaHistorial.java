@@ -0,0 +1,14 @@
+package com.example.crudusuario.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Página del historial de tareas, paginada por cursor.
+ * @param contenido Cambios de la página, en el orden en que se hicieron.
+ * @param siguienteDesde Valor de "desde" para pedir la página siguiente de un proyecto (null en el de una tarea
+ *                       o si no hay más).
+ * @param siguienteId Valor de "despuesDe" para pedir la página siguiente, o null si no hay más.
+ */
+public record PaginaHistorial(List<CambioHistorial> contenido, Instant siguienteDesde, Long siguienteId) {
+}
@@ -0,0 +1,23 @@
+package com.example.crudusuario.dto;
+
+import java.util.List;
+
+/**
+ * Página de una colección del API, paginada por cursor sobre el ID.
+ * @param contenido Elementos de la página, ordenados por ID ascendente.
+ * @param siguienteId Valor de "despuesDe" para pedir la página siguiente, o null si no hay más.
+ */
+public record PaginaJson<T extends Versionado>(List<T> contenido, Long siguienteId) {
+
+    /**
+     * Construye la página a partir de una consulta que pidió {@code tamanio + 1} filas:
+     * si llegó la fila extra, hay página siguiente y se descarta.
+     */
+    public static <T extends Versionado> PaginaJson<T> desdeFilas(List<T> filas, int tamanio) {
+        if (filas.size() > tamanio) {
+            List<T> pagina = filas.subList(0, tamanio);
+            return new PaginaJson<>(pagina, pagina.get(tamanio - 1).id());
+        }
+        return new PaginaJson<>(filas, null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.crudusuario.dto;
+
+import java.util.List;
+
+/**
+ * Página de tareas obtenida por paginación de tipo "keyset" (cursor sobre el ID).
+ * @param tareas Tareas de la página actual, ordenadas por ID ascendente.
+ * @param siguienteId Cursor para pedir la página siguiente, o null si no hay más.
+ */
+public record PaginaTareas(List<TareaResumen> tareas, Long siguienteId) {
+
+    public boolean hayMas() {
+        return siguienteId != null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.crudusuario.dto;
+
+/**
+ * Tamaños de página comunes a los listados y al API paginados por cursor.
+ */
+public final class Paginacion {
+
+    public static final int TAMANIO_POR_DEFECTO = 50;
+    public static final int TAMANIO_MAXIMO = 200;
+    /** Máximo de los listados HTML renderizados por bloques: no retienen la página en memoria. */
+    public static final int TAMANIO_MAXIMO_POR_BLOQUES = 10_000;
+
+    private Paginacion() {}
+
+    /**
+     * Aplica el tamaño por defecto a valores no positivos y limita al máximo permitido.
+     */
+    public static int tamanioEfectivo(int tamanio) {
+        return (tamanio <= 0) ? TAMANIO_POR_DEFECTO : Math.min(tamanio, TAMANIO_MAXIMO);
+    }
+
+    /**
+     * Como {@link #tamanioEfectivo(int)} pero con el máximo de los listados renderizados por bloques.
+     */
+    public static int tamanioEfectivoPorBloques(int tamanio) {
+        return (tamanio <= 0) ? TAMANIO_POR_DEFECTO : Math.min(tamanio, TAMANIO_MAXIMO_POR_BLOQUES);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.crudusuario.dto;
+
+import java.time.LocalDate;
+
+import com.example.crudusuario.model.EstadoProyecto;
+import com.example.crudusuario.model.Proyecto;
+
+/**
+ * Representación JSON de un proyecto en el API REST.
+ */
+public record ProyectoJson(Long id, String nombre, String descripcion, LocalDate fechaInicio,
+                           EstadoProyecto estado, long version) implements Versionado {
+
+    /**
+     * Representación de un proyecto recién guardado (sin volver a leerlo de la base de datos).
+     */
+    public static ProyectoJson desde(Proyecto proyecto) {
+        return new ProyectoJson(proyecto.getId(), proyecto.getNombre(), proyecto.getDescripcion(),
+                proyecto.getFechaInicio(), proyecto.getEstado(), proyecto.getVersion());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.crudusuario.dto;
+
+import java.time.LocalDate;
+
+import com.example.crudusuario.model.EstadoProyecto;
+import com.example.crudusuario.model.Proyecto;
+
+/**
+ * Cuerpo de las peticiones del API para crear o modificar un proyecto.
+ */
+public record ProyectoPeticion(String nombre, String descripcion, LocalDate fechaInicio, EstadoProyecto estado) {
+
+    public Proyecto toProyecto() {
+        return new Proyecto(nombre, descripcion, fechaInicio, estado, null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.crudusuario.dto;
+
+import java.time.LocalDate;
+
+import com.example.crudusuario.model.EstadoProyecto;
+
+/**
+ * Proyección de solo lectura con las columnas que muestra el listado de proyectos.
+ * No toca ni el usuario propietario ni la colección de tareas.
+ */
+public record ProyectoResumen(Long id, String nombre, String descripcion, LocalDate fechaInicio,
+                              EstadoProyecto estado) {
+}
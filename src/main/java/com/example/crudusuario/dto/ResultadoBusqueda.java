@@ -0,0 +1,17 @@
+package com.example.crudusuario.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados de la búsqueda de texto sobre tareas.
+ * @param tareas Tareas de la página, ordenadas de más a menos relevante.
+ * @param total Número total de tareas que coinciden con la consulta.
+ * @param pagina Número de página (empezando en 0).
+ * @param tamanio Tamaño de página aplicado.
+ */
+public record ResultadoBusqueda(List<TareaResumen> tareas, long total, int pagina, int tamanio) {
+
+    public boolean hayMas() {
+        return (long) (pagina + 1) * tamanio < total;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.crudusuario.dto;
+
+import java.util.List;
+
+/**
+ * Resumen de una importación masiva de tareas.
+ * @param filasLeidas Filas de datos leídas del fichero (sin contar la cabecera CSV).
+ * @param importadas Filas insertadas en la base de datos.
+ * @param conErrores Filas descartadas por no pasar la validación.
+ * @param errores Detalle de las primeras filas con error (la lista está acotada).
+ */
+public record ResultadoImportacion(long filasLeidas, long importadas, long conErrores, List<ErrorFila> errores) {
+
+    /**
+     * Error de validación de una fila concreta.
+     * @param linea Número de línea en el fichero (empezando en 1).
+     */
+    public record ErrorFila(long linea, String mensaje) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.crudusuario.dto;
+
+import java.util.List;
+
+import com.example.crudusuario.model.EstadoTarea;
+
+/**
+ * Resultado de un cambio de estado masivo de tareas.
+ * @param estado Estado al que se han pasado las tareas.
+ * @param cambiadas Tareas que han cambiado de estado.
+ * @param sinCambios Tareas que ya estaban en ese estado.
+ * @param noEncontradas IDs pedidos que no existen.
+ * @param tareas Resultado de cada tarea, en el orden en que se pidieron (o por ID con un filtro).
+ */
+public record ResultadoTransicion(EstadoTarea estado, long cambiadas, long sinCambios, long noEncontradas,
+                                  List<ResultadoTarea> tareas) {
+
+    public enum Resultado {
+        CAMBIADA, SIN_CAMBIOS, NO_ENCONTRADA
+    }
+
+    /**
+     * Resultado de una tarea.
+     * @param version Versión de la tarea tras la operación (null si no existe), para el ETag del API.
+     */
+    public record ResultadoTarea(Long id, Resultado resultado, Long version) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.crudusuario.dto;
+
+import java.time.LocalDate;
+
+import com.example.crudusuario.model.EstadoTarea;
+
+/**
+ * Columnas de una tarea que necesitan las escrituras para validar reglas y actualizar contadores,
+ * avisos, índices e historial, leídas sin cargar la entidad ni su proyecto.
+ */
+public record TareaCabecera(Long id, Long proyectoId, String titulo, String descripcion, EstadoTarea estado,
+                            LocalDate fechaLimite, long version) {
+}
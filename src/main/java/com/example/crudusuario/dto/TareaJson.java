@@ -0,0 +1,21 @@
+package com.example.crudusuario.dto;
+
+import java.time.LocalDate;
+
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.model.Tarea;
+
+/**
+ * Representación JSON de una tarea en el API REST.
+ */
+public record TareaJson(Long id, String titulo, String descripcion, LocalDate fechaLimite,
+                        EstadoTarea estado, Long proyectoId, long version) implements Versionado {
+
+    /**
+     * Representación de una tarea recién guardada (sin volver a leerla de la base de datos).
+     */
+    public static TareaJson desde(Tarea tarea) {
+        return new TareaJson(tarea.getId(), tarea.getTitulo(), tarea.getDescripcion(), tarea.getFechaLimite(),
+                tarea.getEstado(), tarea.getProyecto().getId(), tarea.getVersion());
+    }
+}
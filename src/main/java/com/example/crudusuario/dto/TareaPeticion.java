@@ -0,0 +1,18 @@
+package com.example.crudusuario.dto;
+
+import java.time.LocalDate;
+
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.model.Tarea;
+
+/**
+ * Cuerpo de las peticiones del API para crear o modificar una tarea.
+ * El proyecto solo se tiene en cuenta al crear.
+ */
+public record TareaPeticion(String titulo, String descripcion, LocalDate fechaLimite,
+                            EstadoTarea estado, Long proyectoId) {
+
+    public Tarea toTarea() {
+        return new Tarea(titulo, descripcion, fechaLimite, estado, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.crudusuario.dto;
+
+import java.time.LocalDate;
+
+import com.example.crudusuario.model.EstadoTarea;
+
+/**
+ * Proyección de solo lectura con las columnas que muestran los listados de tareas.
+ * Se construye en una única consulta con JOIN al proyecto, sin cargar entidades.
+ * @param version Versión de la fila, que llevan los enlaces de borrado para detectar cambios de otros usuarios.
+ */
+public record TareaResumen(Long id, String titulo, String descripcion, LocalDate fechaLimite,
+                           EstadoTarea estado, Long proyectoId, String proyectoNombre, long version) {
+}
@@ -0,0 +1,12 @@
+package com.example.crudusuario.dto;
+
+import java.util.List;
+
+import com.example.crudusuario.model.EstadoTarea;
+
+/**
+ * Cuerpo de la petición del API para cambiar el estado de varias tareas: las de la lista de IDs,
+ * o si no se indica, todas las de un proyecto que están en estadoActual.
+ */
+public record TransicionPeticion(List<Long> ids, Long proyectoId, EstadoTarea estadoActual, EstadoTarea estado) {
+}
@@ -0,0 +1,7 @@
+package com.example.crudusuario.dto;
+
+/**
+ * Proyección de solo lectura con las columnas que muestra el listado de usuarios (sin la contraseña).
+ */
+public record UsuarioResumen(Long id, String username, String role) {
+}
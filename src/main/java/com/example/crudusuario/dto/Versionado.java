@@ -0,0 +1,9 @@
+package com.example.crudusuario.dto;
+
+/**
+ * Recurso del API con identificador y versión, a partir de los que se calcula su ETag.
+ */
+public interface Versionado {
+    Long id();
+    long version();
+}
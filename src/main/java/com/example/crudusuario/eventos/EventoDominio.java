@@ -0,0 +1,49 @@
+package com.example.crudusuario.eventos;
+
+import java.time.Instant;
+
+import com.example.crudusuario.dto.TareaCabecera;
+import com.example.crudusuario.dto.TareaJson;
+import com.example.crudusuario.model.EstadoTarea;
+
+/**
+ * Cambio en una tarea, un proyecto o un usuario, tal como lo reciben los suscriptores ({@link SuscriptorEventos}).
+ * @param id Posición del evento en la bandeja de salida: crece en el orden en que se registran.
+ * @param agregadoId ID de la tarea, proyecto o usuario modificado.
+ * @param datos Contenido del evento en JSON (ver los tipos de datos de cada agregado más abajo), o null.
+ * @param usuario Usuario autenticado que hizo el cambio, o null si no lo hizo un usuario.
+ * @param intento Número de entrega: mayor que 1 si alguna entrega anterior falló.
+ */
+public record EventoDominio(long id, Agregado agregado, Long agregadoId, Tipo tipo, String datos, String usuario,
+                            Instant creado, int intento) {
+
+    public enum Agregado {
+        TAREA, PROYECTO, USUARIO
+    }
+
+    /**
+     * Datos de cada tipo:
+     * - TAREA: CREADO y MODIFICADO con {@link CambioTarea}, ESTADO_CAMBIADO con {@link CambioEstadoTarea},
+     *   ELIMINADO con {"proyectoId": ...}.
+     * - PROYECTO: CREADO y MODIFICADO con ProyectoJson, ELIMINADO sin datos,
+     *   TAREAS_IMPORTADAS con {"importadas": ...}. Ya no se registra (la importación registra un TAREA/CREADO
+     *   por fila); se mantiene para entregar los que queden en la bandeja de versiones anteriores.
+     * - USUARIO: CREADO y MODIFICADO con UsuarioResumen, ELIMINADO sin datos.
+     */
+    public enum Tipo {
+        CREADO, MODIFICADO, ELIMINADO, ESTADO_CAMBIADO, TAREAS_IMPORTADAS
+    }
+
+    /**
+     * Tarea creada o editada.
+     * @param anterior Columnas de la tarea antes de la edición (null al crear).
+     */
+    public record CambioTarea(TareaCabecera anterior, TareaJson tarea) {
+    }
+
+    /**
+     * Tarea que ha cambiado de estado en un cambio masivo, sin más modificaciones.
+     */
+    public record CambioEstadoTarea(Long proyectoId, EstadoTarea estadoAnterior, EstadoTarea estado, long version) {
+    }
+}
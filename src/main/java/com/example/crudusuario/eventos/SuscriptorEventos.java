@@ -0,0 +1,35 @@
+package com.example.crudusuario.eventos;
+
+import java.util.Collection;
+
+/**
+ * Bean que recibe los eventos de dominio en segundo plano, después de que la transacción del cambio confirme
+ * (ver BandejaSalidaService).
+ *
+ * La entrega es "al menos una vez": tras un fallo o una caída el evento se vuelve a entregar a todos los
+ * suscriptores, así que recibir debe ser idempotente (p. ej. ignorar los eventos con id ya procesado).
+ * Los eventos de un mismo agregado llegan en orden y no se entrega el siguiente hasta que el anterior
+ * se ha entregado sin error.
+ *
+ * Cada evento se entrega en un solo nodo: la bandeja se reparte con FOR UPDATE SKIP LOCKED y el nodo que se lleva
+ * el evento lo borra. Un suscriptor que solo actualiza memoria (cachés, tableros SSE) no se entera de los cambios
+ * que entregan los demás nodos; con más de un nodo tiene que escribir en la base de datos, tolerar perder eventos
+ * (p. ej. recargando al detectar un hueco) o recibirlos por un canal de difusión aparte.
+ */
+public interface SuscriptorEventos {
+
+    /**
+     * Procesa un evento. Se ejecuta en una transacción propia, compartida por todos los suscriptores del evento:
+     * si lanza una excepción, se deshace y el evento se reintenta más tarde.
+     */
+    void recibir(EventoDominio evento);
+
+    /**
+     * Procesa un lote de eventos (como mucho uno por agregado) en una única transacción. Por defecto, uno a uno;
+     * los suscriptores que escriben en la base de datos pueden sobrescribirlo para agrupar las escrituras.
+     * Si lanza una excepción, el lote se repite evento a evento.
+     */
+    default void recibir(Collection<EventoDominio> eventos) {
+        eventos.forEach(this::recibir);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.crudusuario.model;
+
+/**
+ * Enumeración que define los posibles estados de un proyecto.
+ */
+public enum EstadoProyecto {
+    ACTIVO, EN_PROGRESO, FINALIZADO
+}
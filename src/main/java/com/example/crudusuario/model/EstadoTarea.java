@@ -4,5 +4,34 @@ package com.example.crudusuario.model;
  * Enumeración que define los posibles estados de una tarea.
  */
 public enum EstadoTarea {
-    PENDIENTE, EN_CURSO, COMPLETADA
+    PENDIENTE(1), EN_CURSO(2), COMPLETADA(3);
+
+    private final byte codigo;
+
+    EstadoTarea(int codigo) {
+        this.codigo = (byte) codigo;
+    }
+
+    /**
+     * Código de un byte con el que se guarda el estado en el historial. Es fijo: no depende del orden
+     * de declaración, así que se pueden añadir estados sin reinterpretar el historial ya guardado.
+     */
+    public byte codigo() {
+        return codigo;
+    }
+
+    /**
+     * Estado correspondiente a un código del historial (null para null).
+     */
+    public static EstadoTarea desdeCodigo(Byte codigo) {
+        if (codigo == null) {
+            return null;
+        }
+        for (EstadoTarea estado : values()) {
+            if (estado.codigo == codigo) {
+                return estado;
+            }
+        }
+        throw new IllegalArgumentException("Código de estado de tarea desconocido: " + codigo);
+    }
 }
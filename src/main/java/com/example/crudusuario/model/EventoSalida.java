@@ -0,0 +1,77 @@
+package com.example.crudusuario.model;
+
+import java.time.Instant;
+
+import com.example.crudusuario.eventos.EventoDominio;
+import com.example.crudusuario.eventos.EventoDominio.Agregado;
+import com.example.crudusuario.eventos.EventoDominio.Tipo;
+
+import jakarta.persistence.*;
+
+/**
+ * Evento de dominio pendiente de entregar (bandeja de salida, ver BandejaSalidaService).
+ * Se inserta en la misma transacción que el cambio y se borra al entregarse.
+ * Los instantes se guardan en milisegundos, igual desde JDBC (inserción por lotes) que desde JPA.
+ */
+@Entity
+@Table(name = "eventos_salida", indexes = {
+    @Index(name = "idx_eventos_salida_agregado", columnList = "agregado, agregado_id, id") // Primer evento pendiente de cada agregado
+})
+public class EventoSalida {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // Orden de registro de los eventos
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Agregado agregado;
+
+    @Column(name = "agregado_id", nullable = false)
+    private Long agregadoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Tipo tipo;
+
+    @Column(length = 4000)
+    private String datos; // JSON
+
+    private String usuario; // Quién hizo el cambio (null si no fue un usuario)
+
+    @Column(nullable = false)
+    private long creado; // Milisegundos desde la época
+
+    @Column(nullable = false)
+    private long siguienteIntento; // No se entrega antes de este instante (milisegundos)
+
+    @Column(nullable = false)
+    private int intentos; // Entregas fallidas
+
+    @Column(length = 500)
+    private String ultimoError;
+
+    // Constructor vacío requerido por JPA
+    protected EventoSalida() {}
+
+    /**
+     * Anota una entrega fallida y el instante del siguiente intento.
+     */
+    public void registrarFallo(long siguienteIntento, String error) {
+        this.intentos++;
+        this.siguienteIntento = siguienteIntento;
+        this.ultimoError = (error != null && error.length() > 500) ? error.substring(0, 500) : error;
+    }
+
+    public EventoDominio toEventoDominio() {
+        return new EventoDominio(id, agregado, agregadoId, tipo, datos, usuario, Instant.ofEpochMilli(creado),
+                intentos + 1);
+    }
+
+    public Long getId() { return id; }
+    public Agregado getAgregado() { return agregado; }
+    public Long getAgregadoId() { return agregadoId; }
+    public Tipo getTipo() { return tipo; }
+    public long getCreado() { return creado; }
+    public int getIntentos() { return intentos; }
+}
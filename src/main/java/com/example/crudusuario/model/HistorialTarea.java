@@ -0,0 +1,119 @@
+package com.example.crudusuario.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.example.crudusuario.dto.CambioHistorial;
+
+/**
+ * Cambio en una tarea dentro de su historial (solo se inserta, nunca se modifica; ver HistorialTareasService).
+ *
+ * Cada fila guarda solo los campos que cambiaron: campos es una máscara de bits ({@link Campo}) y el resto
+ * de columnas de datos quedan a null, que en InnoDB no ocupan más que un bit. Tipo y estados se guardan como
+ * códigos de un byte. La tabla no tiene clave foránea a tareas: el historial sobrevive a la tarea.
+ *
+ * La columna mes (AAAAMM, UTC) permite podar por meses enteros; en MySQL la tabla puede particionarse
+ * por rangos de mes (ver HistorialTareasService).
+ */
+@Entity
+@Table(name = "historial_tareas", indexes = {
+    @Index(name = "idx_historial_tarea", columnList = "tarea_id, id"), // Historial de una tarea en orden
+    @Index(name = "idx_historial_proyecto", columnList = "proyecto_id, momento, id"), // Cambios de un proyecto entre fechas
+    @Index(name = "idx_historial_mes", columnList = "mes") // Poda de los meses antiguos
+})
+public class HistorialTarea {
+
+    @Id
+    private Long id; // ID del evento de dominio que lo originó: una entrega repetida no duplica la fila
+
+    @Column(name = "tarea_id", nullable = false)
+    private long tareaId;
+
+    @Column(name = "proyecto_id", nullable = false)
+    private long proyectoId;
+
+    @Column(nullable = false)
+    private Instant momento; // Cuándo se hizo el cambio
+
+    @Column(nullable = false)
+    private int mes; // AAAAMM de momento en UTC
+
+    private String usuario; // Quién hizo el cambio (null si no fue un usuario)
+
+    @Column(nullable = false)
+    private byte tipo; // Tipo.codigo()
+
+    @Column(nullable = false)
+    private byte campos; // Máscara de Campo.bit()
+
+    private Byte estadoAnterior; // EstadoTarea.codigo(), solo si cambió el estado
+    private Byte estado;
+    private String titulo; // Valores nuevos, solo si cambiaron
+    private String descripcion;
+    private LocalDate fechaLimite;
+
+    // Constructor vacío requerido por JPA
+    protected HistorialTarea() {}
+
+    public CambioHistorial toCambioHistorial() {
+        Set<Campo> cambiados = EnumSet.noneOf(Campo.class);
+        for (Campo campo : Campo.values()) {
+            if ((campos & campo.bit()) != 0) {
+                cambiados.add(campo);
+            }
+        }
+        return new CambioHistorial(id, tareaId, proyectoId, momento, usuario, Tipo.desdeCodigo(tipo), cambiados,
+                EstadoTarea.desdeCodigo(estadoAnterior), EstadoTarea.desdeCodigo(estado), titulo, descripcion,
+                fechaLimite);
+    }
+
+    public Long getId() { return id; }
+    public long getTareaId() { return tareaId; }
+    public Instant getMomento() { return momento; }
+
+    /**
+     * Tipo de cambio, guardado con un código de un byte.
+     */
+    public enum Tipo {
+        CREADA(1), MODIFICADA(2), ELIMINADA(3);
+
+        private final byte codigo;
+
+        Tipo(int codigo) {
+            this.codigo = (byte) codigo;
+        }
+
+        public byte codigo() {
+            return codigo;
+        }
+
+        public static Tipo desdeCodigo(byte codigo) {
+            for (Tipo tipo : values()) {
+                if (tipo.codigo == codigo) {
+                    return tipo;
+                }
+            }
+            throw new IllegalArgumentException("Código de tipo de cambio desconocido: " + codigo);
+        }
+    }
+
+    /**
+     * Campos de la tarea que registra el historial, con su bit en la máscara de campos cambiados.
+     */
+    public enum Campo {
+        TITULO(1), DESCRIPCION(2), FECHA_LIMITE(4), ESTADO(8);
+
+        private final int bit;
+
+        Campo(int bit) {
+            this.bit = bit;
+        }
+
+        public int bit() {
+            return bit;
+        }
+    }
+}
@@ -3,11 +3,17 @@ package com.example.crudusuario.model;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -15,11 +21,14 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 /**
  * Clase que representa la entidad Proyecto en la base de datos.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "proyectos") // Caché de segundo nivel (ver CacheSegundoNivelConfig)
 @Table(name = "proyectos")
 public class Proyecto {
     
@@ -38,11 +47,16 @@ public class Proyecto {
     @Enumerated(EnumType.STRING)
     private EstadoProyecto estado; // Estado del proyecto: Activo, En Progreso, Finalizado
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version; // Versión de la fila: se incrementa en cada actualización (ETag del API)
+
     /**
      * Relación N:1 con la entidad Usuario.
      * Un usuario puede tener varios proyectos, pero un proyecto pertenece a un solo usuario. Futura funcionalidad
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY) // Se carga solo cuando se necesita (ver ProyectoRepository)
     @JoinColumn(name = "usuario_id", nullable = false) // Llave foránea en la BD
     private Usuario usuario;
 
@@ -75,6 +89,7 @@ public class Proyecto {
     public EstadoProyecto getEstado() { return estado; }
     public Usuario getUsuario() { return usuario; }
     public List<Tarea> getTareas() { return tareas; }
+    public long getVersion() { return version; }
 
     public void setNombre(String nombre) { this.nombre = nombre; }
     public void setDescripcion(String descripcion) { this.descripcion = descripcion; }
@@ -83,10 +98,3 @@ public class Proyecto {
     public void setUsuario(Usuario usuario) { this.usuario = usuario; }
     public void setTareas(List<Tarea> tareas) { this.tareas = tareas; }
 }
-
-/**
- * Enumeración que define los posibles estados de un proyecto.
- */
-enum EstadoProyecto {
-    ACTIVO, EN_PROGRESO, FINALIZADO
-}
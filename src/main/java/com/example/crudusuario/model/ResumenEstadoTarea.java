@@ -0,0 +1,67 @@
+package com.example.crudusuario.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Tabla resumen con el número de tareas de cada proyecto en cada estado.
+ * Se mantiene de forma incremental en la transacción de cada cambio y los paneles la leen directamente
+ * (ver ContadoresTareasService), para que no tengan que contar la tabla de tareas.
+ */
+@Entity
+@Table(name = "resumen_estados_tarea")
+@IdClass(ResumenEstadoTarea.Clave.class)
+public class ResumenEstadoTarea {
+
+    @Id
+    @Column(name = "proyecto_id")
+    private Long proyectoId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private EstadoTarea estado;
+
+    @Column(nullable = false)
+    private long total;
+
+    // Constructor vacío requerido por JPA
+    public ResumenEstadoTarea() {}
+
+    public Long getProyectoId() { return proyectoId; }
+    public EstadoTarea getEstado() { return estado; }
+    public long getTotal() { return total; }
+
+    /**
+     * Clave compuesta (proyecto, estado).
+     */
+    public static class Clave implements Serializable {
+        private Long proyectoId;
+        private EstadoTarea estado;
+
+        public Clave() {}
+
+        public Clave(Long proyectoId, EstadoTarea estado) {
+            this.proyectoId = proyectoId;
+            this.estado = estado;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Clave otra && Objects.equals(proyectoId, otra.proyectoId) && estado == otra.estado;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(proyectoId, estado);
+        }
+    }
+}
@@ -3,11 +3,19 @@ package com.example.crudusuario.model;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
+import org.hibernate.annotations.ColumnDefault;
+
 /**
  * Clase que representa la entidad Tarea en la base de datos.
  */
 @Entity
-@Table(name = "tareas")
+@Table(name = "tareas", indexes = {
+    // Páginas por cursor (WHERE ... AND id > ? ORDER BY id): el ID va explícito en el índice para que el
+    // rango y el orden salgan del índice también en motores que no lo añaden solos
+    @Index(name = "idx_tareas_estado_id", columnList = "estado, id"), // Listado general filtrado por estado
+    @Index(name = "idx_tareas_proyecto_id_id", columnList = "proyecto_id, id"), // Tareas de un proyecto
+    @Index(name = "idx_tareas_fecha_limite_estado", columnList = "fecha_limite, estado") // Calendario y avisos de vencimiento
+})
 public class Tarea {
 
     @Id
@@ -24,11 +32,16 @@ public class Tarea {
     @Enumerated(EnumType.STRING)
     private EstadoTarea estado; // Estado de la tarea: Pendiente, En Curso, Completada
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version; // Versión de la fila: se incrementa en cada actualización (ETag del API)
+
     /**
      * Relación N:1 con la entidad Proyecto.
      * Cada tarea está asociada a un único proyecto.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY) // Se carga solo cuando se necesita (ver TareaRepository)
     @JoinColumn(name = "proyecto_id", nullable = false) // Llave foránea en la BD
     private Proyecto proyecto;
 
@@ -51,6 +64,7 @@ public class Tarea {
     public LocalDate getFechaLimite() { return fechaLimite; }
     public EstadoTarea getEstado() { return estado; }
     public Proyecto getProyecto() { return proyecto; }
+    public long getVersion() { return version; }
 
     public void setTitulo(String titulo) { this.titulo = titulo; }
     public void setDescripcion(String descripcion) { this.descripcion = descripcion; }
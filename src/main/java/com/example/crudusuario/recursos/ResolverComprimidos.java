@@ -0,0 +1,184 @@
+package com.example.crudusuario.recursos;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Sirve comprimidos los recursos de texto (css, js, svg, json...) según la cabecera Accept-Encoding:
+ * - Si junto al recurso hay una variante precomprimida (bootstrap.min.css.br o .gz), se sirve esa; Brotli primero.
+ * - Si no, se comprime con gzip la primera vez que se pide. La caché de la cadena de recursos (CachingResourceResolver)
+ *   guarda una entrada por codificación, así que cada recurso se comprime una sola vez por proceso.
+ *
+ * Los recursos de menos de tamanioMinimo bytes se sirven sin comprimir. Debe ir antes que VersionResourceResolver
+ * para que el hash de la URL sea el del contenido original.
+ */
+public class ResolverComprimidos extends AbstractResourceResolver {
+
+    private static final Set<String> EXTENSIONES_TEXTO = Set.of("css", "js", "mjs", "map", "json", "svg", "txt", "html", "xml");
+
+    private final int tamanioMinimo;
+
+    public ResolverComprimidos(int tamanioMinimo) {
+        if (tamanioMinimo < 0) {
+            throw new IllegalArgumentException("El tamaño mínimo para comprimir no puede ser negativo.");
+        }
+        this.tamanioMinimo = tamanioMinimo;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource recurso = chain.resolveResource(request, requestPath, locations);
+        if (recurso == null || request == null || !esTexto(recurso)) {
+            return recurso;
+        }
+        String aceptadas = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        aceptadas = (aceptadas != null) ? aceptadas.toLowerCase(Locale.ROOT) : "";
+        try {
+            if (aceptadas.contains("br")) {
+                Resource br = recurso.createRelative(recurso.getFilename() + ".br");
+                if (br.isReadable()) {
+                    return new Variante(recurso, br, "br");
+                }
+            }
+            if (aceptadas.contains("gzip")) {
+                Resource gz = recurso.createRelative(recurso.getFilename() + ".gz");
+                if (gz.isReadable()) {
+                    return new Variante(recurso, gz, "gzip");
+                }
+                if (recurso.contentLength() >= tamanioMinimo) {
+                    return new Variante(recurso, comprimirGzip(recurso), "gzip");
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("No se pudo comprimir " + recurso.getDescription() + ", se sirve sin comprimir", e);
+        }
+        return new Variante(recurso, recurso, null); // Sin comprimir, pero con Vary para las cachés intermedias
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    private static boolean esTexto(Resource recurso) {
+        String extension = StringUtils.getFilenameExtension(recurso.getFilename());
+        return extension != null && EXTENSIONES_TEXTO.contains(extension.toLowerCase(Locale.ROOT));
+    }
+
+    private static Resource comprimirGzip(Resource recurso) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.min(recurso.contentLength() / 3, 1 << 20));
+        try (InputStream entrada = recurso.getInputStream(); OutputStream salida = new GzipMaximo(bytes)) {
+            entrada.transferTo(salida);
+        }
+        return new ByteArrayResource(bytes.toByteArray(), "gzip de " + recurso.getDescription());
+    }
+
+    /**
+     * Se comprime una vez y se sirve muchas: compensa el nivel máximo.
+     */
+    private static final class GzipMaximo extends GZIPOutputStream {
+
+        GzipMaximo(OutputStream salida) throws IOException {
+            super(salida);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+
+    /**
+     * El recurso original con el contenido de una de sus codificaciones. Conserva el nombre del original
+     * (de él sale el Content-Type) y sus cabeceras, como el ETag de la versión, al que se añade la codificación.
+     */
+    private static final class Variante extends AbstractResource implements HttpResource {
+
+        private final Resource original;
+        private final Resource contenido;
+        @Nullable
+        private final String codificacion;
+
+        Variante(Resource original, Resource contenido, @Nullable String codificacion) {
+            this.original = original;
+            this.contenido = contenido;
+            this.codificacion = codificacion;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return contenido.getInputStream();
+        }
+
+        @Override
+        public boolean exists() {
+            return contenido.exists();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return contenido.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return original.lastModified();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return original.createRelative(relativePath);
+        }
+
+        @Override
+        @Nullable
+        public String getFilename() {
+            return original.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return contenido.getDescription();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return contenido.getFile();
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders cabeceras = new HttpHeaders();
+            if (original instanceof HttpResource conCabeceras) {
+                cabeceras.putAll(conCabeceras.getResponseHeaders());
+            }
+            cabeceras.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (codificacion != null) {
+                cabeceras.set(HttpHeaders.CONTENT_ENCODING, codificacion);
+                String etag = cabeceras.getETag();
+                if (etag != null && etag.endsWith("\"")) { // Cada codificación es una representación distinta
+                    cabeceras.setETag(etag.substring(0, etag.length() - 1) + "-" + codificacion + "\"");
+                }
+            }
+            return cabeceras;
+        }
+    }
+}
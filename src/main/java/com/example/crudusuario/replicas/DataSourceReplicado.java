@@ -0,0 +1,81 @@
+package com.example.crudusuario.replicas;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * DataSource de la aplicación con un primario para escrituras y réplicas para lecturas.
+ *
+ * Las transacciones readOnly = true leen de las réplicas ({@link EnrutadorLecturas}); el resto, del primario.
+ * Es perezoso: la conexión física se pide en la primera sentencia, cuando ya se sabe si la transacción
+ * es de solo lectura (al empezarla, JPA pide la conexión antes de que Spring lo publique).
+ *
+ * Cada transacción de escritura queda marcada en {@link LecturaPropia} para que la petición, y la sesión
+ * durante la ventana configurada, sigan leyendo del primario y vean lo que acaban de escribir.
+ */
+public class DataSourceReplicado extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final List<DataSource> pools = new ArrayList<>();
+
+    public DataSourceReplicado(DataSource primario, Map<String, ? extends DataSource> replicas, MeterRegistry meterRegistry) {
+        pools.add(primario);
+        pools.addAll(replicas.values());
+        setTargetDataSource(new Escrituras(primario));
+        setReadOnlyDataSource(new EnrutadorLecturas(primario, replicas, meterRegistry));
+        afterPropertiesSet();
+    }
+
+    /**
+     * Cierra los pools del primario y de las réplicas.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : pools) {
+            if (pool instanceof AutoCloseable cerrable) {
+                cerrable.close();
+            }
+        }
+    }
+
+    /**
+     * Conexiones de lectura-escritura: las que se piden dentro de una transacción de escritura marcan la petición.
+     * Las lecturas sin transacción (carga perezosa de la vista) también van al primario, pero no marcan.
+     */
+    private static final class Escrituras extends DelegatingDataSource {
+
+        Escrituras(DataSource primario) {
+            super(primario);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            marcarSiEscritura();
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            marcarSiEscritura();
+            return super.getConnection(username, password);
+        }
+
+        private static void marcarSiEscritura() {
+            LecturaPropia lectura = LecturaPropia.actual();
+            if (lectura != null && TransactionSynchronizationManager.isActualTransactionActive()
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                lectura.marcarEscritura();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.crudusuario.replicas;
+
+import java.sql.SQLException;
+
+import org.hibernate.CacheMode;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Evita que las lecturas de una réplica entren en la caché de segundo nivel, que es compartida: una réplica
+ * con retraso dejaría en ella proyectos o usuarios antiguos para todos los usuarios (incluida la sesión que
+ * acaba de escribir) hasta que caducaran.
+ *
+ * Las transacciones de solo lectura que van a una réplica (mismo criterio que {@link EnrutadorLecturas})
+ * usan CacheMode.GET: leen de la caché pero no añaden entidades ni resultados de consultas. Al terminar
+ * la transacción se restaura el modo anterior de la sesión, que puede seguir abierta en la vista.
+ */
+public class DialectoReplicas extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws SQLException {
+        Object datos = super.beginTransaction(entityManager, definition);
+        LecturaPropia lectura = LecturaPropia.actual();
+        if (!definition.isReadOnly() || lectura == null || !lectura.puedeLeerDeReplica()) {
+            return datos;
+        }
+        SessionImplementor sesion = getSession(entityManager);
+        CacheMode anterior = sesion.getCacheMode();
+        sesion.setCacheMode(CacheMode.GET);
+        return new LecturaDeReplica(datos, sesion, anterior);
+    }
+
+    @Override
+    public void cleanupTransaction(Object datos) {
+        if (datos instanceof LecturaDeReplica lectura) {
+            lectura.sesion().setCacheMode(lectura.cacheModeAnterior());
+            datos = lectura.datos();
+        }
+        super.cleanupTransaction(datos);
+    }
+
+    private record LecturaDeReplica(Object datos, SessionImplementor sesion, CacheMode cacheModeAnterior) {
+    }
+}
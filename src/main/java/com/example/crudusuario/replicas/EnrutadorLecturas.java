@@ -0,0 +1,56 @@
+package com.example.crudusuario.replicas;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Destino de las conexiones de solo lectura: reparte entre las réplicas por turnos, salvo que la petición
+ * deba leer lo que acaba de escribir o no haya petición (ver {@link LecturaPropia}), que van al primario.
+ *
+ * Publica datasource.lecturas con la etiqueta destino (primario, replica-0...) por cada conexión entregada.
+ */
+class EnrutadorLecturas extends AbstractRoutingDataSource {
+
+    static final String PRIMARIO = "primario";
+
+    private final List<String> replicas;
+    private final AtomicInteger turno = new AtomicInteger();
+    private final Map<String, Counter> lecturas = new HashMap<>();
+
+    EnrutadorLecturas(DataSource primario, Map<String, ? extends DataSource> replicas, MeterRegistry meterRegistry) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Debe haber al menos una réplica.");
+        }
+        this.replicas = List.copyOf(replicas.keySet());
+
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.putAll(replicas);
+        destinos.put(PRIMARIO, primario);
+        destinos.keySet().forEach(destino -> lecturas.put((String) destino, Counter.builder("datasource.lecturas")
+                .tag("destino", (String) destino)
+                .description("Conexiones de solo lectura entregadas por destino").register(meterRegistry)));
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        LecturaPropia lectura = LecturaPropia.actual();
+        String destino = (lectura != null && lectura.puedeLeerDeReplica())
+                ? replicas.get(Math.floorMod(turno.getAndIncrement(), replicas.size()))
+                : PRIMARIO;
+        lecturas.get(destino).increment();
+        return destino;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.crudusuario.replicas;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Garantiza "leer lo propio" con réplicas: si la sesión escribió hace menos de la ventana, sus lecturas
+ * van al primario aunque sean de solo lectura, para no mostrar datos anteriores a su propio cambio
+ * (p. ej. el listado tras el redirect de un alta). La marca se guarda en la sesión al terminar
+ * cualquier petición que haya escrito.
+ *
+ * Los clientes sin sesión (API con httpBasic) solo tienen la garantía dentro de la misma petición.
+ * Las rutas excluidas (recursos estáticos) no leen la sesión: no hacen SQL y sus lecturas van al primario.
+ */
+public class FiltroLecturaPropia extends OncePerRequestFilter {
+
+    /** Atributo de la sesión con el instante (milisegundos) de su última escritura. */
+    public static final String ATRIBUTO_ULTIMA_ESCRITURA = FiltroLecturaPropia.class.getName() + ".ULTIMA_ESCRITURA";
+
+    private final long ventanaMillis;
+    private final List<PathPattern> excluidas;
+
+    public FiltroLecturaPropia(Duration ventana, String... rutasExcluidas) {
+        if (ventana.isNegative()) {
+            throw new IllegalArgumentException("La ventana de lectura propia no puede ser negativa.");
+        }
+        this.ventanaMillis = ventana.toMillis();
+        this.excluidas = Stream.of(rutasExcluidas).map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        RequestPath ruta = RequestPath.parse(request.getRequestURI(), request.getContextPath());
+        return excluidas.stream().anyMatch(patron -> patron.matches(ruta.pathWithinApplication()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LecturaPropia lectura = LecturaPropia.iniciar(escrituraReciente(request.getSession(false)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            LecturaPropia.terminar();
+            HttpSession sesion = request.getSession(false); // Puede ser nueva (login) o haberse invalidado (logout)
+            if (lectura.haEscrito() && sesion != null) {
+                sesion.setAttribute(ATRIBUTO_ULTIMA_ESCRITURA, System.currentTimeMillis());
+            }
+        }
+    }
+
+    private boolean escrituraReciente(HttpSession sesion) {
+        return sesion != null && sesion.getAttribute(ATRIBUTO_ULTIMA_ESCRITURA) instanceof Long ultima
+                && System.currentTimeMillis() - ultima < ventanaMillis;
+    }
+}
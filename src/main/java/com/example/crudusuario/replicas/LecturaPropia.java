@@ -0,0 +1,77 @@
+package com.example.crudusuario.replicas;
+
+import java.util.function.Supplier;
+
+/**
+ * Estado de "leer lo propio" de la petición HTTP en curso: decide si sus lecturas pueden ir a una réplica.
+ *
+ * Se asocia al hilo que atiende la petición ({@link #iniciar(boolean)} / {@link #terminar()}, ver
+ * FiltroLecturaPropia). Fuera de una petición (arranque, reindexado, vencimientos) no hay estado y todo
+ * se lee del primario: esos procesos mantienen datos derivados y no deben partir de una réplica con retraso.
+ */
+public final class LecturaPropia {
+
+    private static final ThreadLocal<LecturaPropia> ACTUAL = new ThreadLocal<>();
+
+    private final boolean escrituraReciente;
+    private boolean escritura;
+
+    private LecturaPropia(boolean escrituraReciente) {
+        this.escrituraReciente = escrituraReciente;
+    }
+
+    /**
+     * Empieza una petición en el hilo actual.
+     * @param escrituraReciente La sesión escribió hace menos de la ventana configurada: se lee del primario.
+     */
+    public static LecturaPropia iniciar(boolean escrituraReciente) {
+        LecturaPropia lectura = new LecturaPropia(escrituraReciente);
+        ACTUAL.set(lectura);
+        return lectura;
+    }
+
+    /**
+     * Termina la petición en el hilo actual.
+     */
+    public static void terminar() {
+        ACTUAL.remove();
+    }
+
+    /**
+     * Ejecuta una operación como si no hubiera petición: va al primario y no marca la petición como escritura.
+     * Para el SQL de infraestructura que se ejecuta dentro de la petición, como la lectura y el guardado de la sesión.
+     */
+    public static <T> T fueraDePeticion(Supplier<T> operacion) {
+        LecturaPropia lectura = ACTUAL.get();
+        ACTUAL.remove();
+        try {
+            return operacion.get();
+        } finally {
+            if (lectura != null) {
+                ACTUAL.set(lectura);
+            }
+        }
+    }
+
+    /**
+     * Estado de la petición en curso en este hilo, o null fuera de una petición.
+     */
+    static LecturaPropia actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Si la petición ha abierto alguna transacción de escritura.
+     */
+    public boolean haEscrito() {
+        return escritura;
+    }
+
+    boolean puedeLeerDeReplica() {
+        return !escrituraReciente && !escritura; // Tras escribir, el resto de la petición también lee del primario
+    }
+
+    void marcarEscritura() {
+        escritura = true;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.crudusuario.repository;
+
+/**
+ * Fragmentos JPQL compartidos por las consultas de TareaRepository y TareaRepositoryCursoresImpl,
+ * para que el listado, su variante con cursor y la del API filtren exactamente igual.
+ */
+final class ConsultasTareas {
+
+    /**
+     * SELECT del resumen de tareas con el nombre del proyecto (alias t para la tarea y p para el proyecto).
+     */
+    static final String SELECT_RESUMEN = """
+            SELECT new com.example.crudusuario.dto.TareaResumen(
+                t.id, t.titulo, t.descripcion, t.fechaLimite, t.estado, p.id, p.nombre, t.version)
+            FROM Tarea t JOIN t.proyecto p
+            """;
+
+    /**
+     * Cursor sobre el ID y filtros del listado de tareas (los parámetros a null se ignoran), ordenado por ID.
+     * Solo usa el alias t: el proyecto se compara por la clave foránea.
+     */
+    static final String FILTRO_PAGINA = """
+            WHERE t.id > :despuesDeId
+              AND (:estado IS NULL OR t.estado = :estado)
+              AND (:desde IS NULL OR t.fechaLimite >= :desde)
+              AND (:hasta IS NULL OR t.fechaLimite <= :hasta)
+              AND (:proyectoId IS NULL OR t.proyecto.id = :proyectoId)
+            ORDER BY t.id ASC
+            """;
+
+    private ConsultasTareas() {
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.crudusuario.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.example.crudusuario.model.EventoSalida;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+/**
+ * Repositorio de la bandeja de salida de eventos de dominio.
+ */
+public interface EventoSalidaRepository extends JpaRepository<EventoSalida, Long> {
+
+    /**
+     * Eventos listos para entregar: el primero pendiente de cada agregado, si ya le toca (los siguientes
+     * esperan a que se entregue, para respetar el orden). Se bloquean con FOR UPDATE SKIP LOCKED: si hay
+     * varios nodos, cada uno se lleva eventos distintos y nadie espera a los bloqueados por otro.
+     * Debe llamarse dentro de la transacción que los entrega y los borra.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2")) // -2 = SKIP LOCKED en Hibernate
+    @Query("""
+            SELECT e FROM EventoSalida e
+            WHERE e.siguienteIntento <= :ahora
+              AND NOT EXISTS (SELECT p.id FROM EventoSalida p
+                              WHERE p.agregado = e.agregado AND p.agregadoId = e.agregadoId AND p.id < e.id)
+            ORDER BY e.id ASC
+            """)
+    List<EventoSalida> bloquearSiguientes(@Param("ahora") long ahora, Limit limite);
+
+    /**
+     * Borra los eventos entregados.
+     */
+    @Modifying
+    @Query("DELETE FROM EventoSalida e WHERE e.id IN :ids")
+    int eliminar(@Param("ids") Collection<Long> ids);
+}
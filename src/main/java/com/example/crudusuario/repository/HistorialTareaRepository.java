@@ -0,0 +1,42 @@
+package com.example.crudusuario.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.crudusuario.model.HistorialTarea;
+
+/**
+ * Repositorio de solo lectura del historial de tareas (las filas se insertan por lotes con JDBC).
+ */
+public interface HistorialTareaRepository extends JpaRepository<HistorialTarea, Long> {
+
+    /**
+     * Cambios de una tarea posteriores al cursor, en orden (índice tarea_id, id).
+     */
+    @Query("""
+            SELECT h FROM HistorialTarea h
+            WHERE h.tareaId = :tareaId AND h.id > :despuesDeId
+            ORDER BY h.id ASC
+            """)
+    List<HistorialTarea> buscarPorTarea(@Param("tareaId") long tareaId, @Param("despuesDeId") long despuesDeId,
+                                        Limit limite);
+
+    /**
+     * Cambios de las tareas de un proyecto desde el cursor (momento, id) hasta antes de hasta,
+     * en orden de momento (índice proyecto_id, momento, id: rango sin ordenación adicional).
+     */
+    @Query("""
+            SELECT h FROM HistorialTarea h
+            WHERE h.proyectoId = :proyectoId AND h.momento < :hasta
+              AND (h.momento > :desde OR (h.momento = :desde AND h.id > :despuesDeId))
+            ORDER BY h.momento ASC, h.id ASC
+            """)
+    List<HistorialTarea> buscarPorProyecto(@Param("proyectoId") long proyectoId, @Param("desde") Instant desde,
+                                           @Param("despuesDeId") long despuesDeId, @Param("hasta") Instant hasta,
+                                           Limit limite);
+}
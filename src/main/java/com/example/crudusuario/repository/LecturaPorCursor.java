@@ -0,0 +1,36 @@
+package com.example.crudusuario.repository;
+
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Abre consultas como cursores de solo avance con el tamaño de lectura de app.jdbc.filas-por-lectura,
+ * que depende del driver y por eso no puede fijarse en una anotación:
+ * - MySQL (por defecto): Integer.MIN_VALUE, con el que Connector/J entrega las filas una a una según llegan,
+ *   sin cargar el resultado en memoria ni abrir cursores en el servidor.
+ * - H2 (perfil de carga y tests): no admite valores negativos; se configura uno positivo.
+ * Las filas se leen como solo lectura: no quedan entidades en el contexto de persistencia.
+ */
+@Component
+public class LecturaPorCursor {
+
+    private final int filasPorLectura;
+
+    public LecturaPorCursor(@Value("${app.jdbc.filas-por-lectura:" + Integer.MIN_VALUE + "}") int filasPorLectura) {
+        this.filasPorLectura = filasPorLectura;
+    }
+
+    /**
+     * Ejecuta la consulta como cursor. El Stream debe consumirse dentro de una transacción y cerrarse.
+     */
+    public <T> Stream<T> abrir(TypedQuery<T> consulta) {
+        return consulta.setHint(HibernateHints.HINT_FETCH_SIZE, filasPorLectura)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
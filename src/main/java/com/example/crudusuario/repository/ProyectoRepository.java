@@ -1,11 +1,73 @@
 package com.example.crudusuario.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.example.crudusuario.dto.ProyectoJson;
+import com.example.crudusuario.dto.ProyectoResumen;
 import com.example.crudusuario.model.Proyecto;
 
-public interface ProyectoRepository extends JpaRepository<Proyecto, Long> {
-    // 🔹 Método para buscar proyectos según el usuario
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface ProyectoRepository extends JpaRepository<Proyecto, Long>, ProyectoRepositoryCursores {
+    // 🔹 Método para buscar proyectos según el usuario (caché de consultas: se invalida al escribir en proyectos o usuarios)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "proyectos-por-usuario")
+    })
     List<Proyecto> findByUsuario_Username(String username);
-}
\ No newline at end of file
+
+    // 🔹 Todos los proyectos con su usuario propietario en un solo SELECT
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT p FROM Proyecto p")
+    List<Proyecto> findAllConUsuario();
+
+    // 🔹 Resumen de solo lectura para el listado de proyectos (sin usuario ni tareas)
+    @Query("""
+            SELECT new com.example.crudusuario.dto.ProyectoResumen(p.id, p.nombre, p.descripcion, p.fechaInicio, p.estado)
+            FROM Proyecto p
+            ORDER BY p.id ASC
+            """)
+    List<ProyectoResumen> buscarResumen();
+
+    // 🔹 Página de proyectos para el API REST, paginada por cursor sobre el ID (sin OFFSET)
+    @Query("""
+            SELECT new com.example.crudusuario.dto.ProyectoJson(p.id, p.nombre, p.descripcion, p.fechaInicio, p.estado, p.version)
+            FROM Proyecto p
+            WHERE p.id > :despuesDeId
+            ORDER BY p.id ASC
+            """)
+    List<ProyectoJson> buscarPaginaJson(@Param("despuesDeId") Long despuesDeId, Limit limite);
+
+    // 🔹 Un proyecto en su representación del API
+    @Query("""
+            SELECT new com.example.crudusuario.dto.ProyectoJson(p.id, p.nombre, p.descripcion, p.fechaInicio, p.estado, p.version)
+            FROM Proyecto p
+            WHERE p.id = :id
+            """)
+    Optional<ProyectoJson> buscarJsonPorId(@Param("id") Long id);
+
+    // 🔹 IDs de los proyectos de un usuario, según su username actual (ámbito de la búsqueda de tareas)
+    @Query("SELECT p.id FROM Proyecto p JOIN p.usuario u WHERE u.username = :username")
+    List<Long> buscarIdsPorPropietario(@Param("username") String username);
+
+    // 🔹 Proyecto con su fila bloqueada (SELECT ... FOR UPDATE) hasta el final de la transacción: nadie puede
+    //    añadirle tareas mientras tanto (la clave foránea espera al bloqueo). No pasa por la caché de segundo nivel
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Proyecto p WHERE p.id = :id")
+    Optional<Proyecto> bloquearPorId(@Param("id") Long id);
+
+    // 🔹 Si el proyecto tiene alguna tarea
+    @Query("SELECT CASE WHEN COUNT(t) > 0 THEN true ELSE false END FROM Tarea t WHERE t.proyecto.id = :id")
+    boolean tieneTareas(@Param("id") Long id);
+}
@@ -0,0 +1,19 @@
+package com.example.crudusuario.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import com.example.crudusuario.dto.ProyectoResumen;
+import com.example.crudusuario.model.EstadoProyecto;
+
+/**
+ * Consultas de proyectos recorridas con cursor (ver {@link LecturaPorCursor}). Deben consumirse dentro
+ * de una transacción y cerrarse.
+ */
+public interface ProyectoRepositoryCursores {
+
+    /**
+     * Recorre los proyectos filtrados en orden de ID, para exportaciones.
+     */
+    Stream<ProyectoResumen> streamResumen(EstadoProyecto estado, LocalDate desde, LocalDate hasta);
+}
@@ -0,0 +1,38 @@
+package com.example.crudusuario.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import com.example.crudusuario.dto.ProyectoResumen;
+import com.example.crudusuario.model.EstadoProyecto;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Implementación de {@link ProyectoRepositoryCursores} que Spring Data añade a ProyectoRepository.
+ */
+class ProyectoRepositoryCursoresImpl implements ProyectoRepositoryCursores {
+
+    private final EntityManager entityManager;
+    private final LecturaPorCursor lecturaPorCursor;
+
+    ProyectoRepositoryCursoresImpl(EntityManager entityManager, LecturaPorCursor lecturaPorCursor) {
+        this.entityManager = entityManager;
+        this.lecturaPorCursor = lecturaPorCursor;
+    }
+
+    @Override
+    public Stream<ProyectoResumen> streamResumen(EstadoProyecto estado, LocalDate desde, LocalDate hasta) {
+        return lecturaPorCursor.abrir(entityManager.createQuery("""
+                        SELECT new com.example.crudusuario.dto.ProyectoResumen(p.id, p.nombre, p.descripcion, p.fechaInicio, p.estado)
+                        FROM Proyecto p
+                        WHERE (:estado IS NULL OR p.estado = :estado)
+                          AND (:desde IS NULL OR p.fechaInicio >= :desde)
+                          AND (:hasta IS NULL OR p.fechaInicio <= :hasta)
+                        ORDER BY p.id ASC
+                        """, ProyectoResumen.class)
+                .setParameter("estado", estado)
+                .setParameter("desde", desde)
+                .setParameter("hasta", hasta));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.crudusuario.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.example.crudusuario.model.ResumenEstadoTarea;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * Repositorio de la tabla resumen de tareas por proyecto y estado.
+ * Las sentencias nativas declaran la tabla que modifican (HINT_NATIVE_SPACES); sin ello Hibernate
+ * vaciaría toda la caché de segundo nivel en cada cambio de una tarea.
+ */
+public interface ResumenEstadoTareaRepository extends JpaRepository<ResumenEstadoTarea, ResumenEstadoTarea.Clave> {
+
+    /**
+     * Suma (o resta) al contador de un proyecto y estado en una sola sentencia, creando la fila si no existe.
+     * La actualización usa el parámetro y no VALUES(total), obsoleto desde MySQL 8.0.20; el alias de fila
+     * que lo sustituye no lo admite H2 (perfil de carga).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_estados_tarea"))
+    @Modifying
+    @Query(value = """
+            INSERT INTO resumen_estados_tarea (proyecto_id, estado, total) VALUES (:proyectoId, :estado, :delta)
+            ON DUPLICATE KEY UPDATE total = total + :delta
+            """, nativeQuery = true)
+    void sumar(@Param("proyectoId") Long proyectoId, @Param("estado") String estado, @Param("delta") long delta);
+
+    /**
+     * Contadores de varios proyectos (paneles).
+     */
+    List<ResumenEstadoTarea> findByProyectoIdIn(Collection<Long> proyectoIds);
+
+    /**
+     * Pares [estado, total] de toda la aplicación, sumando la tabla resumen (una fila por proyecto y estado).
+     */
+    @Query("SELECT r.estado, SUM(r.total) FROM ResumenEstadoTarea r GROUP BY r.estado")
+    List<Object[]> totalesPorEstado();
+
+    /**
+     * Borra los contadores de un proyecto (al eliminar el proyecto).
+     */
+    @Modifying
+    @Query("DELETE FROM ResumenEstadoTarea r WHERE r.proyectoId = :proyectoId")
+    void eliminarPorProyecto(@Param("proyectoId") Long proyectoId);
+
+    /**
+     * Vacía la tabla resumen antes de recalcularla.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_estados_tarea"))
+    @Modifying
+    @Query(value = "DELETE FROM resumen_estados_tarea", nativeQuery = true)
+    void vaciar();
+
+    /**
+     * Recalcula la tabla resumen a partir de la tabla de tareas con un único INSERT ... SELECT.
+     * En READ COMMITTED la lectura de tareas es consistente y no bloquea filas.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_estados_tarea"))
+    @Modifying
+    @Query(value = """
+            INSERT INTO resumen_estados_tarea (proyecto_id, estado, total)
+            SELECT proyecto_id, estado, COUNT(*) FROM tareas WHERE estado IS NOT NULL GROUP BY proyecto_id, estado
+            """, nativeQuery = true)
+    int recalcular();
+}
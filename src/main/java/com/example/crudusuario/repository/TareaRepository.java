@@ -1,16 +1,31 @@
 package com.example.crudusuario.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.crudusuario.dto.TareaCabecera;
+import com.example.crudusuario.dto.TareaJson;
+import com.example.crudusuario.dto.TareaResumen;
+import com.example.crudusuario.model.EstadoTarea;
 import com.example.crudusuario.model.Tarea;
 
+
 /**
  * Repositorio JPA para la entidad Tarea.
  * Permite manejar las tareas asociadas a un proyecto.
+ * Las consultas recorridas con cursor están en {@link TareaRepositoryCursores}.
  */
-public interface TareaRepository extends JpaRepository<Tarea, Long> {
+public interface TareaRepository extends JpaRepository<Tarea, Long>, TareaRepositoryCursores {
     /**
      * Encuentra todas las tareas asociadas a un proyecto específico.
      * @param proyectoId ID del proyecto al que pertenecen las tareas.
@@ -19,4 +34,145 @@ public interface TareaRepository extends JpaRepository<Tarea, Long> {
     List<Tarea> findByProyectoId(Long proyectoId);
     List<Tarea> findAll();
 
+    /**
+     * Variante de {@link #findByProyectoId(Long)} que trae el proyecto en el mismo SELECT.
+     */
+    @EntityGraph(attributePaths = "proyecto")
+    List<Tarea> findWithProyectoByProyectoId(Long proyectoId);
+
+    /**
+     * Busca una tarea trayendo su proyecto y el usuario propietario en un solo SELECT.
+     */
+    @EntityGraph(attributePaths = {"proyecto", "proyecto.usuario"})
+    Optional<Tarea> findWithProyectoById(Long id);
+
+    /**
+     * Resumen de las tareas de un proyecto para el listado por proyecto (una sola consulta).
+     */
+    @Query(ConsultasTareas.SELECT_RESUMEN + """
+            WHERE p.id = :proyectoId
+            ORDER BY t.id ASC
+            """)
+    List<TareaResumen> buscarResumenPorProyecto(@Param("proyectoId") Long proyectoId);
+
+    /**
+     * Obtiene la siguiente página de tareas a partir de un cursor sobre el ID (paginación "keyset").
+     * No usa OFFSET: la base de datos salta directamente al ID indicado por el índice,
+     * por lo que el coste es el mismo en la primera página que en la página mil.
+     * Devuelve directamente el resumen con el nombre del proyecto (JOIN), sin cargar entidades.
+     * Los filtros a null se ignoran.
+     * @param despuesDeId Último ID de la página anterior (0 para la primera página).
+     * @param limite Número máximo de filas a devolver.
+     * @return Tareas con ID mayor que el cursor, ordenadas por ID.
+     */
+    @Query(ConsultasTareas.SELECT_RESUMEN + ConsultasTareas.FILTRO_PAGINA)
+    List<TareaResumen> buscarPagina(@Param("despuesDeId") Long despuesDeId,
+                                    @Param("estado") EstadoTarea estado,
+                                    @Param("desde") LocalDate desde,
+                                    @Param("hasta") LocalDate hasta,
+                                    @Param("proyectoId") Long proyectoId,
+                                    Limit limite);
+
+    /**
+     * Página de tareas para el API REST (mismo cursor y filtros que {@link #buscarPagina}).
+     * El ID del proyecto se lee de la clave foránea, sin JOIN.
+     */
+    @Query("""
+            SELECT new com.example.crudusuario.dto.TareaJson(
+                t.id, t.titulo, t.descripcion, t.fechaLimite, t.estado, t.proyecto.id, t.version)
+            FROM Tarea t
+            """ + ConsultasTareas.FILTRO_PAGINA)
+    List<TareaJson> buscarPaginaJson(@Param("despuesDeId") Long despuesDeId,
+                                     @Param("estado") EstadoTarea estado,
+                                     @Param("desde") LocalDate desde,
+                                     @Param("hasta") LocalDate hasta,
+                                     @Param("proyectoId") Long proyectoId,
+                                     Limit limite);
+
+    /**
+     * Una tarea en su representación del API.
+     */
+    @Query("""
+            SELECT new com.example.crudusuario.dto.TareaJson(
+                t.id, t.titulo, t.descripcion, t.fechaLimite, t.estado, t.proyecto.id, t.version)
+            FROM Tarea t
+            WHERE t.id = :id
+            """)
+    Optional<TareaJson> buscarJsonPorId(@Param("id") Long id);
+
+    /**
+     * Resumen de las tareas indicadas (resultados de la búsqueda de texto). El orden no está garantizado.
+     */
+    @Query(ConsultasTareas.SELECT_RESUMEN + """
+            WHERE t.id IN :ids
+            """)
+    List<TareaResumen> buscarResumenPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Tareas con fecha límite en el rango [desde, hasta], ordenadas por fecha (calendario y avisos de vencimiento).
+     * Se resuelve como un rango sobre el índice (fecha_limite, estado). Si excluido no es null
+     * se descartan las tareas en ese estado.
+     */
+    @Query(ConsultasTareas.SELECT_RESUMEN + """
+            WHERE t.fechaLimite BETWEEN :desde AND :hasta
+              AND (:excluido IS NULL OR t.estado <> :excluido)
+            ORDER BY t.fechaLimite ASC, t.id ASC
+            """)
+    List<TareaResumen> buscarPorFechaLimite(@Param("desde") LocalDate desde,
+                                            @Param("hasta") LocalDate hasta,
+                                            @Param("excluido") EstadoTarea excluido,
+                                            Limit limite);
+
+    /**
+     * Tareas vencidas (fecha límite anterior a hoy) que no están en el estado indicado, de la más antigua a la más reciente.
+     */
+    @Query(ConsultasTareas.SELECT_RESUMEN + """
+            WHERE t.fechaLimite < :hoy
+              AND t.estado <> :excluido
+            ORDER BY t.fechaLimite ASC, t.id ASC
+            """)
+    List<TareaResumen> buscarVencidas(@Param("hoy") LocalDate hoy,
+                                      @Param("excluido") EstadoTarea excluido,
+                                      Limit limite);
+
+    /**
+     * Proyecto, datos, estado y versión de una tarea (lectura previa a una escritura condicional).
+     */
+    @Query("""
+            SELECT new com.example.crudusuario.dto.TareaCabecera(t.id, t.proyecto.id, t.titulo, t.descripcion, t.estado,
+                                                                 t.fechaLimite, t.version)
+            FROM Tarea t
+            WHERE t.id = :id
+            """)
+    Optional<TareaCabecera> buscarCabecera(@Param("id") Long id);
+
+    /**
+     * Actualiza los datos de una tarea en un solo UPDATE si su versión no ha cambiado (bloqueo optimista).
+     * @return Filas actualizadas: 0 si la tarea no existe o la modificó otro usuario.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Tarea t
+            SET t.titulo = :titulo, t.descripcion = :descripcion, t.fechaLimite = :fechaLimite,
+                t.estado = :estado, t.version = t.version + 1
+            WHERE t.id = :id AND t.version = :version
+            """)
+    int actualizarSiVersion(@Param("id") Long id,
+                            @Param("version") long version,
+                            @Param("titulo") String titulo,
+                            @Param("descripcion") String descripcion,
+                            @Param("fechaLimite") LocalDate fechaLimite,
+                            @Param("estado") EstadoTarea estado);
+
+    /**
+     * Borra una tarea solo si sigue pendiente y no ha cambiado su versión (la regla se comprueba en el DELETE).
+     * @return Filas borradas: 0 si no existe, ya no está pendiente o la modificó otro usuario.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM Tarea t
+            WHERE t.id = :id AND t.version = :version
+              AND (t.estado IS NULL OR t.estado = com.example.crudusuario.model.EstadoTarea.PENDIENTE)
+            """)
+    int eliminarSiPendiente(@Param("id") Long id, @Param("version") long version);
 }
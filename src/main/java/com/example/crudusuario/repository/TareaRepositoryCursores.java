@@ -0,0 +1,29 @@
+package com.example.crudusuario.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+
+import com.example.crudusuario.dto.TareaResumen;
+import com.example.crudusuario.model.EstadoTarea;
+
+/**
+ * Consultas de tareas recorridas con cursor (ver {@link LecturaPorCursor}). Deben consumirse dentro
+ * de una transacción y cerrarse.
+ */
+public interface TareaRepositoryCursores {
+
+    /**
+     * Variante de {@link TareaRepository#buscarPagina} que entrega las filas según se leen, para renderizar
+     * la página por bloques.
+     */
+    Stream<TareaResumen> streamPagina(Long despuesDeId, EstadoTarea estado, LocalDate desde, LocalDate hasta,
+                                      Long proyectoId, Limit limite);
+
+    /**
+     * Recorre las tareas filtradas en orden de ID, para exportaciones y reindexados.
+     * Al ser una proyección, no se crean entidades en el contexto de persistencia.
+     */
+    Stream<TareaResumen> streamResumen(EstadoTarea estado, LocalDate desde, LocalDate hasta, Long proyectoId);
+}
@@ -0,0 +1,53 @@
+package com.example.crudusuario.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+
+import com.example.crudusuario.dto.TareaResumen;
+import com.example.crudusuario.model.EstadoTarea;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Implementación de {@link TareaRepositoryCursores} que Spring Data añade a TareaRepository.
+ */
+class TareaRepositoryCursoresImpl implements TareaRepositoryCursores {
+
+    private static final String FILTRADAS = ConsultasTareas.SELECT_RESUMEN + ConsultasTareas.FILTRO_PAGINA;
+
+    private final EntityManager entityManager;
+    private final LecturaPorCursor lecturaPorCursor;
+
+    TareaRepositoryCursoresImpl(EntityManager entityManager, LecturaPorCursor lecturaPorCursor) {
+        this.entityManager = entityManager;
+        this.lecturaPorCursor = lecturaPorCursor;
+    }
+
+    @Override
+    public Stream<TareaResumen> streamPagina(Long despuesDeId, EstadoTarea estado, LocalDate desde, LocalDate hasta,
+                                             Long proyectoId, Limit limite) {
+        TypedQuery<TareaResumen> consulta = filtradas(despuesDeId, estado, desde, hasta, proyectoId);
+        if (limite.isLimited()) {
+            consulta.setMaxResults(limite.max());
+        }
+        return lecturaPorCursor.abrir(consulta);
+    }
+
+    @Override
+    public Stream<TareaResumen> streamResumen(EstadoTarea estado, LocalDate desde, LocalDate hasta, Long proyectoId) {
+        return lecturaPorCursor.abrir(filtradas(0L, estado, desde, hasta, proyectoId));
+    }
+
+    private TypedQuery<TareaResumen> filtradas(Long despuesDeId, EstadoTarea estado, LocalDate desde,
+                                               LocalDate hasta, Long proyectoId) {
+        return entityManager.createQuery(FILTRADAS, TareaResumen.class)
+                .setParameter("despuesDeId", despuesDeId)
+                .setParameter("estado", estado)
+                .setParameter("desde", desde)
+                .setParameter("hasta", hasta)
+                .setParameter("proyectoId", proyectoId);
+    }
+}
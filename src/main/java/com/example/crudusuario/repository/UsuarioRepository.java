@@ -2,11 +2,25 @@ package com.example.crudusuario.repository;
 
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.example.crudusuario.model.Usuario;
-;
 
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+import jakarta.persistence.QueryHint;
+
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioRepositoryCursores {
+    // Caché de consultas: guarda el ID y la entidad sale de la región "usuarios" (se invalida al escribir en usuarios)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "usuarios-por-username")
+    })
     Optional<Usuario> findByUsername(String username);
+
+    // Solo el username, para invalidar la caché de autenticación sin cargar la entidad
+    @Query("SELECT u.username FROM Usuario u WHERE u.id = :id")
+    Optional<String> findUsernameById(@Param("id") Long id);
 }
@@ -0,0 +1,17 @@
+package com.example.crudusuario.repository;
+
+import java.util.stream.Stream;
+
+import com.example.crudusuario.dto.UsuarioResumen;
+
+/**
+ * Consultas de usuarios recorridas con cursor (ver {@link LecturaPorCursor}). Deben consumirse dentro
+ * de una transacción y cerrarse.
+ */
+public interface UsuarioRepositoryCursores {
+
+    /**
+     * Recorre los usuarios sin la contraseña en orden de ID (listado por bloques).
+     */
+    Stream<UsuarioResumen> streamResumen();
+}
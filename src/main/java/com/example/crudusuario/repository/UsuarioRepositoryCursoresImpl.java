@@ -0,0 +1,28 @@
+package com.example.crudusuario.repository;
+
+import java.util.stream.Stream;
+
+import com.example.crudusuario.dto.UsuarioResumen;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Implementación de {@link UsuarioRepositoryCursores} que Spring Data añade a UsuarioRepository.
+ */
+class UsuarioRepositoryCursoresImpl implements UsuarioRepositoryCursores {
+
+    private final EntityManager entityManager;
+    private final LecturaPorCursor lecturaPorCursor;
+
+    UsuarioRepositoryCursoresImpl(EntityManager entityManager, LecturaPorCursor lecturaPorCursor) {
+        this.entityManager = entityManager;
+        this.lecturaPorCursor = lecturaPorCursor;
+    }
+
+    @Override
+    public Stream<UsuarioResumen> streamResumen() {
+        return lecturaPorCursor.abrir(entityManager.createQuery(
+                "SELECT new com.example.crudusuario.dto.UsuarioResumen(u.id, u.username, u.role) FROM Usuario u ORDER BY u.id ASC",
+                UsuarioResumen.class));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.crudusuario.security;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché en memoria de las credenciales usadas para autenticar, indexada por username.
+ * Está acotada por tamaño y por tiempo de vida, y publica aciertos, fallos y expulsiones
+ * en el actuator (métricas cache.* con la etiqueta cache=usuarios).
+ *
+ * Se guardan los datos inmutables del usuario y no el UserDetails, porque Spring Security
+ * borra la contraseña del UserDetails después de autenticar.
+ */
+@Component
+public class CacheUsuarios {
+
+    /**
+     * Datos mínimos para reconstruir el UserDetails de un usuario.
+     */
+    public record Credenciales(String username, String password, String role) {
+
+        public UserDetails toUserDetails() {
+            return User.builder()
+                    .username(username)
+                    .password(password) // La contraseña ya debe estar encriptada
+                    .authorities(role)  // Define los roles del usuario
+                    .build();
+        }
+    }
+
+    private final Cache<String, Credenciales> cache;
+
+    public CacheUsuarios(@Value("${app.seguridad.cache-usuarios.tamanio-maximo:10000}") long tamanioMaximo,
+                         @Value("${app.seguridad.cache-usuarios.ttl:10m}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanioMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "usuarios");
+    }
+
+    /**
+     * Devuelve las credenciales cacheadas o las carga con la función indicada.
+     * Si la función no encuentra el usuario, no se guarda nada en la caché y se devuelve null.
+     * La carga es atómica por username: un invalidar() concurrente espera a que termine y borra lo cargado,
+     * en vez de que una lectura anterior al cambio vuelva a guardar las credenciales antiguas.
+     */
+    public Credenciales obtener(String username, Function<String, Optional<Credenciales>> cargador) {
+        return cache.get(username, nombre -> cargador.apply(nombre).orElse(null));
+    }
+
+    /**
+     * Elimina de la caché la entrada de un usuario (tras crear, modificar o borrar).
+     */
+    public void invalidar(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.crudusuario.security;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * PasswordEncoder BCrypt que ejecuta el hash en un pool de hilos propio y acotado,
+ * para que una ráfaga de logins no ocupe los hilos de Tomcat con trabajo de CPU.
+ *
+ * - El pool tiene un número fijo de hilos y una cola limitada: si la cola está llena
+ *   la petición se rechaza al momento (contrapresión) en lugar de acumularse.
+ * - Publica el tiempo de espera en cola y el tiempo de hash (seguridad.hash.*).
+ * - El coste de BCrypt puede calibrarse al arrancar para un tiempo objetivo por hash;
+ *   upgradeEncoding() indica qué hashes guardados tienen un coste inferior y deben rehacerse.
+ */
+public class CodificadorContrasenas implements PasswordEncoder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CodificadorContrasenas.class);
+
+    public static final int COSTE_MINIMO = 10;
+    public static final int COSTE_MAXIMO = 16;
+
+    private final BCryptPasswordEncoder delegado;
+    private final ThreadPoolExecutor pool;
+    private final Duration esperaMaxima;
+
+    private final Timer tiempoEsperaEncode;
+    private final Timer tiempoEsperaMatches;
+    private final Timer tiempoHashEncode;
+    private final Timer tiempoHashMatches;
+    private final Counter rechazos;
+
+    /**
+     * @param coste Factor de trabajo de BCrypt (log2 de las rondas).
+     * @param hilos Número de hilos dedicados al hash.
+     * @param capacidadCola Máximo de operaciones esperando un hilo libre.
+     * @param esperaMaxima Tiempo máximo que un hilo de petición espera el resultado.
+     */
+    public CodificadorContrasenas(int coste, int hilos, int capacidadCola, Duration esperaMaxima,
+                                  MeterRegistry meterRegistry) {
+        this.delegado = new BCryptPasswordEncoder(coste);
+        this.esperaMaxima = esperaMaxima;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "hash-contrasenas-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(pool, "hash-contrasenas", List.of()).bindTo(meterRegistry);
+        this.tiempoEsperaEncode = timer(meterRegistry, "seguridad.hash.espera", "encode");
+        this.tiempoEsperaMatches = timer(meterRegistry, "seguridad.hash.espera", "matches");
+        this.tiempoHashEncode = timer(meterRegistry, "seguridad.hash.duracion", "encode");
+        this.tiempoHashMatches = timer(meterRegistry, "seguridad.hash.duracion", "matches");
+        this.rechazos = Counter.builder("seguridad.hash.rechazos")
+                .description("Operaciones de hash rechazadas por pool saturado o tiempo de espera agotado")
+                .register(meterRegistry);
+
+        log.info("BCrypt con coste {} en un pool de {} hilos (cola {})", coste, hilos, capacidadCola);
+    }
+
+    private static Timer timer(MeterRegistry registry, String nombre, String operacion) {
+        return Timer.builder(nombre).tag("operacion", operacion).publishPercentileHistogram().register(registry);
+    }
+
+    /**
+     * Busca el menor coste de BCrypt cuyo hash tarda al menos el tiempo objetivo en esta máquina.
+     * Se mide varias veces por coste y se toma el mejor tiempo para reducir el ruido del arranque.
+     */
+    public static int calibrarCoste(Duration tiempoObjetivo) {
+        long objetivoNanos = tiempoObjetivo.toNanos();
+        for (int coste = COSTE_MINIMO; coste < COSTE_MAXIMO; coste++) {
+            BCryptPasswordEncoder prueba = new BCryptPasswordEncoder(coste);
+            long mejor = Long.MAX_VALUE;
+            for (int i = 0; i < 3; i++) {
+                long inicio = System.nanoTime();
+                prueba.encode("calibracion-coste-bcrypt");
+                mejor = Math.min(mejor, System.nanoTime() - inicio);
+            }
+            if (mejor >= objetivoNanos) {
+                return coste;
+            }
+        }
+        return COSTE_MAXIMO;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> delegado.encode(rawPassword), tiempoEsperaEncode, tiempoHashEncode);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false; // No hay nada que verificar, no merece la pena ocupar el pool
+        }
+        return ejecutar(() -> delegado.matches(rawPassword, encodedPassword), tiempoEsperaMatches, tiempoHashMatches);
+    }
+
+    /**
+     * Indica si un hash guardado tiene un coste inferior al configurado y debe regenerarse (BCrypt no
+     * rebaja los hashes de coste superior: bajar el coste solo afecta a los hashes nuevos).
+     * Spring Security lo consulta tras un login correcto (ver UsuarioService.updatePassword).
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T ejecutar(Callable<T> operacion, Timer tiempoEspera, Timer tiempoHash) {
+        long encolado = System.nanoTime();
+        Future<T> futuro;
+        try {
+            futuro = pool.submit(() -> {
+                long inicio = System.nanoTime();
+                tiempoEspera.record(inicio - encolado, TimeUnit.NANOSECONDS);
+                try {
+                    return operacion.call();
+                } finally {
+                    tiempoHash.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            throw new AuthenticationServiceException("Servicio de autenticación saturado, inténtelo de nuevo.", e);
+        }
+
+        try {
+            return futuro.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            rechazos.increment();
+            throw new AuthenticationServiceException("Tiempo de espera agotado verificando la contraseña.", e);
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Verificación de contraseña interrumpida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.crudusuario.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limita la tasa de intentos de login y de escrituras antes de que lleguen a la autenticación, para que una
+ * ráfaga de credenciales no consuma BCrypt ni consultas a costa de los demás usuarios.
+ *
+ * - POST /login: una cubeta por IP, de la que gasta cada intento, y otra por username (sin distinguir
+ *   mayúsculas), de la que solo gastan los intentos fallidos (AuthenticationFailureBadCredentialsEvent,
+ *   también de httpBasic): un login correcto no consume nada. Al rechazar se redirige a /login?limite.
+ *   Las peticiones con cabecera Authorization Basic también se rechazan si el usuario ha agotado su cubeta.
+ *   Contrapartida: quien conozca un username puede agotar su cubeta fallando a propósito desde varias IPs
+ *   y bloquear sus logins hasta que se recargue (una ficha por periodo/peticiones). Es el precio de frenar
+ *   los ataques repartidos entre muchas IPs contra una cuenta; el bloqueo es breve y no afecta a las sesiones
+ *   ya abiertas. Como la cubeta se comprueba antes de autenticar y se carga después, varios intentos simultáneos
+ *   pueden superar el límite en tantos como peticiones concurrentes.
+ * - POST, PUT, PATCH y DELETE del resto de rutas (salvo /logout): una cubeta por usuario autenticado en sesión,
+ *   o por IP si no lo hay (registro y clientes del API con httpBasic, que se autentican después de este filtro).
+ *   Al rechazar se responde 429, igual que a los clientes httpBasic con la cubeta de su usuario agotada.
+ * En ambos casos se envía Retry-After con los segundos hasta la siguiente ficha.
+ *
+ * La IP es la de request.getRemoteAddr(): detrás de un proxy hay que activar server.forward-headers-strategy.
+ * Los límites son por nodo.
+ *
+ * Métricas: seguridad.limite.rechazos (contador) y seguridad.limite.claves (gauge), con la etiqueta limite
+ * (login-ip, login-usuario o escritura).
+ */
+public class FiltroLimiteTasa extends OncePerRequestFilter
+        implements ApplicationListener<AuthenticationFailureBadCredentialsEvent> {
+
+    private static final int LONGITUD_MAXIMA_USUARIO = 100; // Acota la memoria de las claves
+
+    private final LimitadorTasa loginIp;
+    private final LimitadorTasa loginUsuario;
+    private final LimitadorTasa escrituras;
+    private final Counter rechazosLoginIp;
+    private final Counter rechazosLoginUsuario;
+    private final Counter rechazosEscritura;
+
+    public FiltroLimiteTasa(LimitadorTasa loginIp, LimitadorTasa loginUsuario, LimitadorTasa escrituras,
+                            MeterRegistry meterRegistry) {
+        this.loginIp = loginIp;
+        this.loginUsuario = loginUsuario;
+        this.escrituras = escrituras;
+        this.rechazosLoginIp = contador(meterRegistry, "login-ip", loginIp);
+        this.rechazosLoginUsuario = contador(meterRegistry, "login-usuario", loginUsuario);
+        this.rechazosEscritura = contador(meterRegistry, "escritura", escrituras);
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String limite, LimitadorTasa limitador) {
+        Gauge.builder("seguridad.limite.claves", limitador, LimitadorTasa::claves)
+                .description("Claves (IP o usuario) con cubeta en memoria").tag("limite", limite)
+                .register(meterRegistry);
+        return Counter.builder("seguridad.limite.rechazos")
+                .description("Peticiones rechazadas por superar el límite de tasa").tag("limite", limite)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String ruta = request.getServletPath();
+        String metodo = request.getMethod();
+        if ("POST".equals(metodo) && "/login".equals(ruta)) {
+            long espera = consumirLogin(request);
+            if (espera > 0) {
+                response.setHeader("Retry-After", segundos(espera));
+                response.sendRedirect(request.getContextPath() + "/login?limite");
+                return;
+            }
+        } else if (usuarioBasicBloqueado(request, response)) {
+            return;
+        }
+        if (esEscritura(metodo) && !"/login".equals(ruta) && !"/logout".equals(ruta)) {
+            long espera = escrituras.consumir(clienteEscritura(request));
+            if (espera > 0) {
+                rechazosEscritura.increment();
+                demasiadasPeticiones(response, espera);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Gasta una ficha de la IP y comprueba, sin gastarla, la cubeta del username.
+     */
+    private long consumirLogin(HttpServletRequest request) {
+        long espera = loginIp.consumir(request.getRemoteAddr());
+        if (espera > 0) {
+            rechazosLoginIp.increment();
+            return espera;
+        }
+        String username = request.getParameter("username");
+        espera = (username != null) ? loginUsuario.espera(claveUsuario(username)) : 0;
+        if (espera > 0) {
+            rechazosLoginUsuario.increment();
+        }
+        return espera;
+    }
+
+    /**
+     * Rechaza con 429 las peticiones httpBasic de un usuario que ha agotado su cubeta de intentos fallidos.
+     */
+    private boolean usuarioBasicBloqueado(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String username = usuarioBasic(request.getHeader(HttpHeaders.AUTHORIZATION));
+        long espera = (username != null) ? loginUsuario.espera(claveUsuario(username)) : 0;
+        if (espera <= 0) {
+            return false;
+        }
+        rechazosLoginUsuario.increment();
+        demasiadasPeticiones(response, espera);
+        return true;
+    }
+
+    private static void demasiadasPeticiones(HttpServletResponse response, long espera) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", segundos(espera));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Demasiadas peticiones. Inténtelo de nuevo más tarde.");
+    }
+
+    /**
+     * Username de una cabecera Authorization Basic, o null si no lo es o está mal formada
+     * (la autenticación ya la rechazará).
+     */
+    private static String usuarioBasic(String cabecera) {
+        if (cabecera == null || !cabecera.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return null;
+        }
+        try {
+            String credenciales = new String(Base64.getDecoder().decode(cabecera.substring(6).trim()), StandardCharsets.UTF_8);
+            int separador = credenciales.indexOf(':');
+            return (separador >= 0) ? credenciales.substring(0, separador) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Cada intento con credenciales incorrectas (formulario o httpBasic) gasta una ficha del username.
+     */
+    @Override
+    public void onApplicationEvent(AuthenticationFailureBadCredentialsEvent evento) {
+        String username = evento.getAuthentication().getName();
+        if (username != null && !username.isEmpty()) {
+            loginUsuario.consumir(claveUsuario(username));
+        }
+    }
+
+    private static String claveUsuario(String username) {
+        String clave = username.strip().toLowerCase(Locale.ROOT);
+        return (clave.length() > LONGITUD_MAXIMA_USUARIO) ? clave.substring(0, LONGITUD_MAXIMA_USUARIO) : clave;
+    }
+
+    private static boolean esEscritura(String metodo) {
+        return switch (metodo) {
+            case "POST", "PUT", "PATCH", "DELETE" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Usuario autenticado en la sesión, o la IP si la petición aún no está autenticada.
+     */
+    private static String clienteEscritura(HttpServletRequest request) {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion != null && autenticacion.isAuthenticated()
+                && !(autenticacion instanceof AnonymousAuthenticationToken)) {
+            return "usuario:" + autenticacion.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static String segundos(long nanos) {
+        return Long.toString(Math.max(TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1), 1));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.crudusuario.security;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Cubetas de fichas por clave (usuario, IP...): cada clave admite ráfagas de hasta {@code peticiones}
+ * y se recarga a razón de {@code peticiones} por {@code periodo}.
+ *
+ * Cada cubeta es un solo AtomicLong con el instante teórico (nanoTime) en que volvería a estar vacía,
+ * que se avanza con compareAndSet (algoritmo GCRA): consumir una ficha no toma ningún cerrojo, y las
+ * claves se reparten entre los segmentos del mapa concurrente de la caché.
+ *
+ * La memoria está acotada: las claves sin uso caducan cuando su cubeta ya se habría llenado, así que
+ * caducar no cambia el resultado. Si se supera el máximo de claves, se expulsan las menos usadas; una
+ * clave expulsada vuelve con la cubeta llena.
+ */
+public class LimitadorTasa {
+
+    private final long intervaloNanos; // Tiempo en recuperar una ficha
+    private final long toleranciaNanos; // Adelanto máximo sobre el ritmo sostenido (la ráfaga)
+    private final LongSupplier reloj;
+    private final Cache<String, AtomicLong> cubetas;
+
+    public LimitadorTasa(int peticiones, Duration periodo, long maximoClaves) {
+        this(peticiones, periodo, maximoClaves, System::nanoTime);
+    }
+
+    LimitadorTasa(int peticiones, Duration periodo, long maximoClaves, LongSupplier reloj) {
+        if (peticiones < 1) {
+            throw new IllegalArgumentException("El número de peticiones del límite debe ser mayor que cero.");
+        }
+        if (periodo.isNegative() || periodo.isZero()) {
+            throw new IllegalArgumentException("El periodo del límite debe ser mayor que cero.");
+        }
+        this.intervaloNanos = Math.max(periodo.toNanos() / peticiones, 1);
+        this.toleranciaNanos = intervaloNanos * (peticiones - 1);
+        this.reloj = reloj;
+        this.cubetas = Caffeine.newBuilder()
+                .maximumSize(maximoClaves)
+                .expireAfterAccess(toleranciaNanos + intervaloNanos, TimeUnit.NANOSECONDS)
+                .ticker(reloj::getAsLong)
+                .build();
+    }
+
+    /**
+     * Consume una ficha de la cubeta de la clave.
+     * @return 0 si la petición se admite; si no, los nanosegundos que faltan para la siguiente ficha.
+     */
+    public long consumir(String clave) {
+        long ahora = reloj.getAsLong();
+        AtomicLong cubeta = cubetas.get(clave, c -> new AtomicLong(ahora));
+        while (true) {
+            long vacia = cubeta.get();
+            long desde = vacia - ahora < 0 ? ahora : vacia; // Cubeta llena: el tiempo perdido no se acumula
+            long espera = desde - toleranciaNanos - ahora;
+            if (espera > 0) {
+                return espera;
+            }
+            if (cubeta.compareAndSet(vacia, desde + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Comprueba la cubeta de la clave sin consumir ninguna ficha.
+     * @return 0 si quedan fichas; si no, los nanosegundos que faltan para la siguiente.
+     */
+    public long espera(String clave) {
+        AtomicLong cubeta = cubetas.getIfPresent(clave);
+        if (cubeta == null) {
+            return 0; // Sin uso reciente: cubeta llena
+        }
+        long ahora = reloj.getAsLong();
+        long vacia = cubeta.get();
+        long desde = vacia - ahora < 0 ? ahora : vacia;
+        return Math.max(desde - toleranciaNanos - ahora, 0);
+    }
+
+    /**
+     * Número aproximado de claves en memoria.
+     */
+    public long claves() {
+        return cubetas.estimatedSize();
+    }
+}
@@ -1,19 +1,32 @@
 package com.example.crudusuario.security;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Set;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.core.authority.AuthorityUtils;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.example.crudusuario.config.RecursosEstaticosConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -21,12 +34,38 @@ import jakarta.servlet.http.HttpServletResponse;
 @Configuration
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    /**
+     * Recursos estáticos (ver RecursosEstaticosConfig): públicos y sin estado. Esta cadena no tiene filtros de
+     * autenticación ni de autorización y no carga el contexto de seguridad, así que no lee ni crea la sesión.
+     * Se mantienen las cabeceras de seguridad salvo las de caché, que pone el manejador de recursos.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityFilterChain recursosEstaticosFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(RecursosEstaticosConfig.RUTAS)
+            .csrf(csrf -> csrf.disable())
+            .securityContext(contexto -> contexto.disable())
+            .sessionManagement(sesion -> sesion.disable())
+            .requestCache(cache -> cache.disable())
+            .anonymous(anonimo -> anonimo.disable())
+            .logout(logout -> logout.disable())
+            .headers(cabeceras -> cabeceras.cacheControl(cache -> cache.disable()));
+
+        return http.build();
+    }
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   ObjectProvider<FiltroLimiteTasa> filtroLimiteTasa) throws Exception {
+        // Antes de autenticar: los intentos rechazados no llegan a BCrypt ni a la base de datos
+        filtroLimiteTasa.ifAvailable(filtro -> http.addFilterBefore(filtro, UsernamePasswordAuthenticationFilter.class));
         http
             .csrf(csrf -> csrf.disable()) // Deshabilita CSRF para pruebas (activarlo en producción)
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/login", "/registro", "/css/**", "/js/**", "/images/**", "/webjars/**").permitAll() // Recursos públicos
+                .requestMatchers("/login", "/registro").permitAll() // Páginas públicas
                 .requestMatchers("/admin/**").hasAuthority("ADMIN") // Acceso solo para ADMIN
                 .requestMatchers("/user/**").hasAnyAuthority("USER", "ADMIN") // Acceso para USER y ADMIN
                 .requestMatchers("/proyectos/**", "/tareas/**").authenticated() // Acceso autenticado
@@ -37,6 +76,7 @@ public class SecurityConfig {
                 .successHandler(customAuthenticationSuccessHandler()) // Manejador de redirección
                 .permitAll()
             )
+            .httpBasic(Customizer.withDefaults()) // Autenticación básica para clientes del API REST (/api/**)
             .logout(logout -> logout
                 .logoutUrl("/logout")
                 .logoutSuccessUrl("/login?logout")
@@ -45,14 +85,59 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Límites de tasa de login y escrituras (ver FiltroLimiteTasa): cada límite admite ráfagas de hasta
+     * peticiones y se recarga a razón de peticiones por periodo.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.seguridad.limite.habilitado", havingValue = "true", matchIfMissing = true)
+    public FiltroLimiteTasa filtroLimiteTasa(@Value("${app.seguridad.limite.login-ip.peticiones:20}") int loginIp,
+                                             @Value("${app.seguridad.limite.login-ip.periodo:1m}") Duration periodoLoginIp,
+                                             @Value("${app.seguridad.limite.login-usuario.peticiones:5}") int loginUsuario,
+                                             @Value("${app.seguridad.limite.login-usuario.periodo:1m}") Duration periodoLoginUsuario,
+                                             @Value("${app.seguridad.limite.escritura.peticiones:120}") int escrituras,
+                                             @Value("${app.seguridad.limite.escritura.periodo:1m}") Duration periodoEscrituras,
+                                             @Value("${app.seguridad.limite.claves-maximas:100000}") long clavesMaximas,
+                                             MeterRegistry meterRegistry) {
+        return new FiltroLimiteTasa(new LimitadorTasa(loginIp, periodoLoginIp, clavesMaximas),
+                new LimitadorTasa(loginUsuario, periodoLoginUsuario, clavesMaximas),
+                new LimitadorTasa(escrituras, periodoEscrituras, clavesMaximas),
+                meterRegistry);
+    }
+
+    /**
+     * El filtro solo debe ejecutarse dentro de la cadena de seguridad, no también como filtro del servlet.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.seguridad.limite.habilitado", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<FiltroLimiteTasa> registroFiltroLimiteTasa(FiltroLimiteTasa filtroLimiteTasa) {
+        FilterRegistrationBean<FiltroLimiteTasa> registro = new FilterRegistrationBean<>(filtroLimiteTasa);
+        registro.setEnabled(false);
+        return registro;
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
         return authConfig.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt ejecutado en un pool dedicado (ver CodificadorContrasenas).
+     * Si se indica un tiempo objetivo, el coste se calibra al arrancar y los hashes
+     * con un coste inferior se regeneran en el siguiente login correcto.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.seguridad.hash.coste:10}") int coste,
+                                           @Value("${app.seguridad.hash.tiempo-objetivo:0ms}") Duration tiempoObjetivo,
+                                           @Value("${app.seguridad.hash.hilos:2}") int hilos,
+                                           @Value("${app.seguridad.hash.cola:200}") int capacidadCola,
+                                           @Value("${app.seguridad.hash.espera-maxima:5s}") Duration esperaMaxima,
+                                           MeterRegistry meterRegistry) {
+        if (!tiempoObjetivo.isZero()) {
+            coste = CodificadorContrasenas.calibrarCoste(tiempoObjetivo);
+            log.info("Coste de BCrypt calibrado a {} para un objetivo de {} ms", coste, tiempoObjetivo.toMillis());
+        }
+        return new CodificadorContrasenas(coste, hilos, capacidadCola, esperaMaxima, meterRegistry);
     }
 
     @Bean
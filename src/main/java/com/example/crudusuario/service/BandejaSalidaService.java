@@ -0,0 +1,301 @@
+package com.example.crudusuario.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.crudusuario.eventos.EventoDominio;
+import com.example.crudusuario.eventos.EventoDominio.Agregado;
+import com.example.crudusuario.eventos.EventoDominio.Tipo;
+import com.example.crudusuario.eventos.SuscriptorEventos;
+import com.example.crudusuario.model.EventoSalida;
+import com.example.crudusuario.repository.EventoSalidaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bandeja de salida (outbox) de eventos de dominio de tareas, proyectos y usuarios.
+ *
+ * Los servicios registran cada cambio en la tabla eventos_salida dentro de la misma transacción que el cambio,
+ * así que un evento existe si y solo si el cambio se confirmó. Un hilo en segundo plano los entrega por lotes
+ * a los {@link SuscriptorEventos} y los borra; nada de eso se ejecuta en la petición.
+ * - Al menos una vez: el lote se borra en la transacción que lo entrega; si el nodo cae antes, se repite.
+ * - Por lotes: cada suscriptor recibe el lote completo de una vez; si falla, se repite evento a evento.
+ * - Orden por agregado: solo se entrega el primer evento pendiente de cada agregado (ver EventoSalidaRepository).
+ *   Los eventos de un agregado se registran después de modificar su fila, que queda bloqueada hasta el commit,
+ *   así que el orden de los ID es el de los cambios.
+ * - Reintentos: un evento que falla se aplaza reintento-inicial, el doble en cada fallo hasta reintento-maximo,
+ *   y bloquea a los siguientes de su agregado mientras tanto. No se descarta nunca.
+ * El hilo revisa la tabla cada intervalo y además justo después de cada commit que registra eventos.
+ *
+ * Métricas: eventos.salida.registrados, eventos.salida.entregados y eventos.salida.fallos (contadores),
+ * eventos.salida.retraso (timer desde el registro hasta la entrega) y eventos.salida.pendientes (gauge).
+ */
+@Service
+public class BandejaSalidaService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BandejaSalidaService.class);
+    private static final String SQL_INSERT = """
+            INSERT INTO eventos_salida (agregado, agregado_id, tipo, datos, usuario, creado, siguiente_intento, intentos)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventoSalidaRepository eventoSalidaRepository;
+    private final ObjectProvider<SuscriptorEventos> suscriptores;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaccionLote;
+    private final TransactionTemplate transaccionEntrega;
+    private final int tamanioLote;
+    private final Duration intervalo;
+    private final long reintentoInicialMillis;
+    private final long reintentoMaximoMillis;
+    private final Counter registrados;
+    private final Counter entregados;
+    private final Counter fallos;
+    private final Timer retraso;
+    private final AtomicLong pendientes = new AtomicLong();
+    private final AtomicBoolean despertado = new AtomicBoolean();
+    private final ScheduledExecutorService planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "eventos-salida");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public BandejaSalidaService(JdbcTemplate jdbcTemplate, EventoSalidaRepository eventoSalidaRepository,
+                                ObjectProvider<SuscriptorEventos> suscriptores, ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                @Value("${app.eventos.tamanio-lote:100}") int tamanioLote,
+                                @Value("${app.eventos.intervalo:1s}") Duration intervalo,
+                                @Value("${app.eventos.reintento-inicial:1s}") Duration reintentoInicial,
+                                @Value("${app.eventos.reintento-maximo:5m}") Duration reintentoMaximo) {
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("app.eventos.tamanio-lote debe ser mayor que cero.");
+        }
+        if (reintentoInicial.isNegative() || reintentoMaximo.compareTo(reintentoInicial) < 0) {
+            throw new IllegalArgumentException("app.eventos.reintento-maximo no puede ser menor que app.eventos.reintento-inicial.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventoSalidaRepository = eventoSalidaRepository;
+        this.suscriptores = suscriptores;
+        this.objectMapper = objectMapper;
+        this.transaccionLote = new TransactionTemplate(transactionManager);
+        this.transaccionEntrega = new TransactionTemplate(transactionManager);
+        this.transaccionEntrega.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tamanioLote = tamanioLote;
+        this.intervalo = intervalo;
+        this.reintentoInicialMillis = reintentoInicial.toMillis();
+        this.reintentoMaximoMillis = reintentoMaximo.toMillis();
+        this.registrados = Counter.builder("eventos.salida.registrados")
+                .description("Eventos de dominio registrados en la bandeja de salida").register(meterRegistry);
+        this.entregados = Counter.builder("eventos.salida.entregados")
+                .description("Eventos de dominio entregados a los suscriptores").register(meterRegistry);
+        this.fallos = Counter.builder("eventos.salida.fallos")
+                .description("Entregas de eventos de dominio fallidas (se reintentan)").register(meterRegistry);
+        this.retraso = Timer.builder("eventos.salida.retraso")
+                .description("Tiempo desde que se registra un evento hasta que se entrega").register(meterRegistry);
+        Gauge.builder("eventos.salida.pendientes", pendientes, AtomicLong::get)
+                .description("Eventos pendientes de entregar en la última revisión").register(meterRegistry);
+    }
+
+    /**
+     * Registra un evento. Debe llamarse dentro de la transacción del cambio, después de modificar la fila.
+     * @param datos Objeto que se guarda como JSON (null = sin datos).
+     */
+    public void registrar(Agregado agregado, Long agregadoId, Tipo tipo, Object datos) {
+        registrar(List.of(new Nuevo(agregado, agregadoId, tipo, datos)));
+    }
+
+    /**
+     * Registra varios eventos con un único INSERT por lotes (cambios masivos).
+     * Debe llamarse dentro de la transacción del cambio.
+     */
+    public void registrar(List<Nuevo> eventos) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Los eventos de dominio deben registrarse en la transacción del cambio.");
+        }
+        if (eventos.isEmpty()) {
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        String usuario = usuarioActual();
+        List<Object[]> filas = new ArrayList<>(eventos.size());
+        for (Nuevo evento : eventos) {
+            filas.add(new Object[] { evento.agregado().name(), evento.agregadoId(), evento.tipo().name(),
+                    aJson(evento.datos()), usuario, ahora, ahora });
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERT, filas);
+        TrasConfirmar.ejecutar(() -> {
+            registrados.increment(eventos.size());
+            despertar();
+        });
+    }
+
+    /**
+     * Revisa la bandeja al arrancar (eventos que quedaron de una ejecución anterior) y después cada intervalo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        planificador.scheduleWithFixedDelay(this::drenar, 0, intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Pide una revisión inmediata; varias peticiones seguidas se agrupan en una.
+     */
+    private void despertar() {
+        if (despertado.compareAndSet(false, true)) {
+            try {
+                planificador.execute(this::drenar);
+            } catch (RejectedExecutionException e) {
+                log.debug("Bandeja de salida detenida: el evento se entregará al volver a arrancar");
+            }
+        }
+    }
+
+    /**
+     * Entrega todos los eventos que estén listos. Visible en el paquete para las pruebas.
+     */
+    void drenar() {
+        despertado.set(false);
+        try {
+            while (entregarLote() > 0) {
+                // Se sigue mientras haya eventos listos; los que fallan quedan aplazados y no se vuelven a leer
+            }
+            pendientes.set(eventoSalidaRepository.count());
+        } catch (RuntimeException e) {
+            log.error("Error al revisar la bandeja de salida de eventos", e); // Se reintenta en la siguiente revisión
+        }
+    }
+
+    /**
+     * Entrega un lote en una transacción que bloquea sus eventos, borra los entregados y aplaza los fallidos.
+     * El lote se entrega entero de una vez; si falla, se repite evento a evento para aplazar solo los que fallan.
+     * @return Eventos leídos (entregados o aplazados).
+     */
+    private int entregarLote() {
+        return transaccionLote.execute(estado -> {
+            long ahora = System.currentTimeMillis();
+            List<EventoSalida> lote = eventoSalidaRepository.bloquearSiguientes(ahora, Limit.of(tamanioLote));
+            if (lote.isEmpty()) {
+                return 0;
+            }
+            List<Long> entregadosLote = new ArrayList<>(lote.size());
+            if (lote.size() > 1 && entregarCompleto(lote)) {
+                lote.forEach(evento -> entregado(evento, entregadosLote));
+            } else {
+                for (EventoSalida evento : lote) {
+                    try {
+                        entregar(List.of(evento.toEventoDominio()));
+                        entregado(evento, entregadosLote);
+                    } catch (RuntimeException e) {
+                        long espera = esperaTrasFallo(evento.getIntentos() + 1);
+                        evento.registrarFallo(System.currentTimeMillis() + espera, e.toString());
+                        fallos.increment();
+                        log.warn("Fallo al entregar el evento {} ({} {} {}, intento {}); se reintenta en {} ms",
+                                evento.getId(), evento.getAgregado(), evento.getAgregadoId(), evento.getTipo(),
+                                evento.getIntentos(), espera, e);
+                    }
+                }
+            }
+            if (!entregadosLote.isEmpty()) {
+                eventoSalidaRepository.eliminar(entregadosLote);
+                entregados.increment(entregadosLote.size());
+            }
+            return lote.size();
+        });
+    }
+
+    /**
+     * Intenta entregar el lote completo.
+     * @return false si algún suscriptor falla (no se ha entregado ninguno).
+     */
+    private boolean entregarCompleto(List<EventoSalida> lote) {
+        try {
+            entregar(lote.stream().map(EventoSalida::toEventoDominio).toList());
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("Fallo al entregar un lote de {} eventos; se entregan de uno en uno", lote.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Entrega los eventos a todos los suscriptores en una transacción propia: si uno falla, se deshace
+     * lo que hayan escrito los demás y los eventos se reintentan para todos.
+     */
+    private void entregar(Collection<EventoDominio> eventos) {
+        transaccionEntrega.executeWithoutResult(estado ->
+                suscriptores.orderedStream().forEach(suscriptor -> suscriptor.recibir(eventos)));
+    }
+
+    private void entregado(EventoSalida evento, List<Long> entregadosLote) {
+        entregadosLote.add(evento.getId());
+        retraso.record(System.currentTimeMillis() - evento.getCreado(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Usuario autenticado en el hilo que registra el cambio.
+     */
+    private static String usuarioActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return (autenticacion != null && autenticacion.isAuthenticated()
+                && !(autenticacion instanceof AnonymousAuthenticationToken)) ? autenticacion.getName() : null;
+    }
+
+    private long esperaTrasFallo(int fallosSeguidos) {
+        int exponente = Math.min(fallosSeguidos - 1, 30);
+        return Math.min(reintentoInicialMillis << exponente, reintentoMaximoMillis);
+    }
+
+    private String aJson(Object datos) {
+        if (datos == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("No se pudieron serializar los datos del evento: " + datos.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        planificador.shutdownNow();
+    }
+
+    /**
+     * Evento por registrar.
+     */
+    public record Nuevo(Agregado agregado, Long agregadoId, Tipo tipo, Object datos) {
+    }
+}
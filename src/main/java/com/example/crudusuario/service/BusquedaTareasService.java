@@ -0,0 +1,189 @@
+package com.example.crudusuario.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.crudusuario.busqueda.IndiceInvertido;
+import com.example.crudusuario.dto.Paginacion;
+import com.example.crudusuario.dto.ResultadoBusqueda;
+import com.example.crudusuario.dto.TareaResumen;
+import com.example.crudusuario.repository.ProyectoRepository;
+import com.example.crudusuario.repository.TareaRepository;
+
+/**
+ * Búsqueda de texto sobre el título y la descripción de las tareas.
+ *
+ * Las consultas se resuelven con un índice invertido en memoria (sin LIKE '%x%' sobre la tabla):
+ * el índice devuelve los IDs de la página ya ordenados por relevancia y solo esas filas se leen
+ * de la base de datos por clave primaria.
+ *
+ * - Las altas, modificaciones y bajas de TareaService y las tareas importadas actualizan el índice cuando su
+ *   transacción confirma.
+ * - Al arrancar el índice se reconstruye en segundo plano desde la base
+ *   de datos. Mientras tanto se sigue buscando en el índice anterior, y los cambios que llegan durante
+ *   la reconstrucción se aplican también al nuevo índice antes de sustituir al anterior.
+ * - El índice solo guarda el proyecto de cada tarea. Los proyectos de un usuario se consultan en cada búsqueda
+ *   (por el índice de usuario_id), así que renombrar un usuario o cambiar el dueño de un proyecto no deja
+ *   nada desfasado en memoria.
+ */
+@Service
+public class BusquedaTareasService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BusquedaTareasService.class);
+    private static final int MAXIMO_RESULTADOS = 10_000; // Profundidad máxima de paginación
+
+    private final TareaRepository tareaRepository;
+    private final ProyectoRepository proyectoRepository;
+    private final TransactionTemplate transaccionLectura;
+    private final ExecutorService reconstrucciones = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "indice-busqueda");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private volatile IndiceInvertido indice = new IndiceInvertido();
+    private List<Consumer<IndiceInvertido>> pendientes; // No null mientras se reconstruye; protegido por this
+
+    public BusquedaTareasService(TareaRepository tareaRepository, ProyectoRepository proyectoRepository,
+                                 TransactionTemplate transactionTemplate) {
+        this.tareaRepository = tareaRepository;
+        this.proyectoRepository = proyectoRepository;
+        this.transaccionLectura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transaccionLectura.setReadOnly(true);
+    }
+
+    /**
+     * Busca tareas por texto (todas las palabras deben aparecer; sin distinguir mayúsculas ni tildes).
+     * @param proyectoId Limita a un proyecto (opcional).
+     * @param propietario Limita a los proyectos de este usuario (null = todos, para administradores).
+     * @param pagina Número de página empezando en 0.
+     */
+    public ResultadoBusqueda buscar(String consulta, Long proyectoId, String propietario, int pagina, int tamanio) {
+        int tamanioEfectivo = Paginacion.tamanioEfectivo(tamanio);
+        int paginaEfectiva = Math.max(0, Math.min(pagina, MAXIMO_RESULTADOS / tamanioEfectivo));
+        if (consulta == null || consulta.isBlank()) {
+            return new ResultadoBusqueda(List.of(), 0, paginaEfectiva, tamanioEfectivo);
+        }
+
+        Set<Long> proyectos = null;
+        if (propietario != null) {
+            proyectos = new HashSet<>(proyectoRepository.buscarIdsPorPropietario(propietario));
+            if (proyectoId != null) {
+                proyectos.retainAll(Set.of(proyectoId));
+            }
+        } else if (proyectoId != null) {
+            proyectos = Set.of(proyectoId);
+        }
+        IndiceInvertido.Aciertos aciertos = indice.buscar(consulta, proyectos,
+                paginaEfectiva * tamanioEfectivo, tamanioEfectivo);
+        if (aciertos.ids().isEmpty()) {
+            return new ResultadoBusqueda(List.of(), aciertos.total(), paginaEfectiva, tamanioEfectivo);
+        }
+
+        // Las filas llegan en cualquier orden: se reordenan según la relevancia calculada por el índice
+        Map<Long, TareaResumen> porId = tareaRepository.buscarResumenPorIds(aciertos.ids()).stream()
+                .collect(Collectors.toMap(TareaResumen::id, Function.identity()));
+        List<TareaResumen> tareas = new ArrayList<>(aciertos.ids().size());
+        for (Long id : aciertos.ids()) {
+            TareaResumen tarea = porId.get(id);
+            if (tarea != null) { // Puede haberse borrado entre la búsqueda y la lectura
+                tareas.add(tarea);
+            }
+        }
+        return new ResultadoBusqueda(tareas, aciertos.total(), paginaEfectiva, tamanioEfectivo);
+    }
+
+    /**
+     * Añade o actualiza una tarea en el índice cuando confirme la transacción actual.
+     * Debe llamarse dentro de la transacción que guarda la tarea.
+     */
+    public void indexar(Long id, Long proyectoId, String titulo, String descripcion) {
+        String texto = texto(titulo, descripcion);
+        TrasConfirmar.ejecutar(() -> aplicar(i -> i.indexar(id, proyectoId, texto)));
+    }
+
+    /**
+     * Quita una tarea del índice cuando confirme la transacción actual.
+     */
+    public void eliminar(Long id) {
+        TrasConfirmar.ejecutar(() -> aplicar(i -> i.eliminar(id)));
+    }
+
+    /**
+     * Reconstruye el índice completo en segundo plano al arrancar la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        reconstrucciones.execute(this::reconstruirAhora);
+    }
+
+    private void reconstruirAhora() {
+        long inicio = System.nanoTime();
+        synchronized (this) {
+            pendientes = new ArrayList<>();
+        }
+        IndiceInvertido nuevo = new IndiceInvertido();
+        try {
+            transaccionLectura.executeWithoutResult(estado -> {
+                try (Stream<TareaResumen> filas = tareaRepository.streamResumen(null, null, null, null)) {
+                    filas.forEach(t -> nuevo.indexar(t.id(), t.proyectoId(), texto(t.titulo(), t.descripcion())));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendientes = null;
+            }
+            log.error("No se pudo reconstruir el índice de búsqueda; se mantiene el anterior", e);
+            return;
+        }
+
+        synchronized (this) {
+            pendientes.forEach(cambio -> cambio.accept(nuevo));
+            pendientes = null;
+            indice = nuevo;
+        }
+        log.info("Índice de búsqueda reconstruido con {} tareas en {} ms", nuevo.tamanio(),
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Aplica un cambio al índice en uso y, si hay una reconstrucción en marcha, lo guarda
+     * para repetirlo sobre el índice nuevo.
+     */
+    private void aplicar(Consumer<IndiceInvertido> cambio) {
+        IndiceInvertido actual;
+        synchronized (this) {
+            actual = indice;
+            if (pendientes != null) {
+                pendientes.add(cambio);
+            }
+        }
+        cambio.accept(actual);
+    }
+
+    private static String texto(String titulo, String descripcion) {
+        return (descripcion != null) ? titulo + " " + descripcion : titulo;
+    }
+
+    @Override
+    public void destroy() {
+        reconstrucciones.shutdownNow();
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.crudusuario.service;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.model.ResumenEstadoTarea;
+import com.example.crudusuario.repository.ResumenEstadoTareaRepository;
+
+/**
+ * Contadores de tareas por proyecto y estado para los paneles de administración y de usuario.
+ *
+ * Cada cambio se suma en la tabla resumen_estados_tarea dentro de la misma transacción que el cambio de la tarea,
+ * y los paneles leen de esa tabla: cuesta O(proyectos) sin contar tareas y, al estar en la base de datos, todos
+ * los nodos ven los cambios de todos.
+ *
+ * La tabla no se recalcula en cada arranque (es compartida y se mantiene en la transacción del cambio). Solo se
+ * rellena desde la tabla de tareas si está vacía, la primera vez que arranca una versión que la usa, o si se
+ * arranca con app.contadores.recalcular-al-arrancar=true. Recalcular mientras otros nodos escriben tareas puede
+ * contar dos veces o perder los cambios que se crucen, así que se hace con la aplicación sin tráfico.
+ */
+@Service
+public class ContadoresTareasService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadoresTareasService.class);
+
+    private final ResumenEstadoTareaRepository resumenRepository;
+    private final TransactionTemplate transaccionRecalculo;
+    private final TransactionTemplate transaccionLectura;
+    private final boolean recalcularAlArrancar;
+
+    public ContadoresTareasService(ResumenEstadoTareaRepository resumenRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${app.contadores.recalcular-al-arrancar:false}") boolean recalcularAlArrancar) {
+        this.resumenRepository = resumenRepository;
+        this.transaccionRecalculo = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transaccionRecalculo.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.transaccionLectura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transaccionLectura.setReadOnly(true);
+        this.recalcularAlArrancar = recalcularAlArrancar;
+    }
+
+    /**
+     * Registra el cambio de estado de una tarea: alta (anterior null), baja (nuevo null) o modificación.
+     * Debe llamarse dentro de la transacción que modifica la tarea.
+     */
+    public void registrarCambio(Long proyectoId, EstadoTarea anterior, EstadoTarea nuevo) {
+        if (anterior == nuevo) {
+            return;
+        }
+        if (anterior != null) {
+            resumenRepository.sumar(proyectoId, anterior.name(), -1);
+        }
+        if (nuevo != null) {
+            resumenRepository.sumar(proyectoId, nuevo.name(), 1);
+        }
+    }
+
+    /**
+     * Registra un lote de altas de un mismo proyecto (importación masiva).
+     * Debe llamarse dentro de la transacción que inserta el lote.
+     */
+    public void registrarAltas(Long proyectoId, Map<EstadoTarea, Long> altasPorEstado) {
+        registrarVariaciones(proyectoId, altasPorEstado);
+    }
+
+    /**
+     * Registra la variación por estado de un lote de tareas de un mismo proyecto (cambio de estado masivo):
+     * positiva en los estados que ganan tareas y negativa en los que las pierden.
+     * Debe llamarse dentro de la transacción que modifica el lote.
+     */
+    public void registrarVariaciones(Long proyectoId, Map<EstadoTarea, Long> variacionPorEstado) {
+        variacionPorEstado.forEach((estado, cantidad) -> {
+            if (cantidad != 0) {
+                resumenRepository.sumar(proyectoId, estado.name(), cantidad);
+            }
+        });
+    }
+
+    /**
+     * Elimina los contadores de un proyecto borrado.
+     */
+    public void eliminarProyecto(Long proyectoId) {
+        resumenRepository.eliminarPorProyecto(proyectoId);
+    }
+
+    /**
+     * Número de tareas por estado de varios proyectos, en una sola consulta.
+     * @return Un mapa por cada ID pedido (con ceros si el proyecto no tiene tareas).
+     */
+    public Map<Long, Map<EstadoTarea, Long>> resumenProyectos(Collection<Long> proyectoIds) {
+        Map<Long, Map<EstadoTarea, Long>> resumen = new HashMap<>();
+        for (Long proyectoId : proyectoIds) {
+            resumen.put(proyectoId, vacio());
+        }
+        if (!proyectoIds.isEmpty()) {
+            transaccionLectura.executeWithoutResult(estado -> {
+                for (ResumenEstadoTarea fila : resumenRepository.findByProyectoIdIn(proyectoIds)) {
+                    resumen.get(fila.getProyectoId()).put(fila.getEstado(), fila.getTotal());
+                }
+            });
+        }
+        return resumen;
+    }
+
+    /**
+     * Número de tareas por estado de todos los proyectos que tienen alguna, leyendo la tabla resumen entera
+     * (panel de administración; una lista IN con todos los IDs sería peor).
+     */
+    public Map<Long, Map<EstadoTarea, Long>> resumenTodosLosProyectos() {
+        Map<Long, Map<EstadoTarea, Long>> resumen = new HashMap<>();
+        transaccionLectura.executeWithoutResult(estado -> {
+            for (ResumenEstadoTarea fila : resumenRepository.findAll()) {
+                resumen.computeIfAbsent(fila.getProyectoId(), id -> vacio()).put(fila.getEstado(), fila.getTotal());
+            }
+        });
+        return resumen;
+    }
+
+    /**
+     * Número de tareas por estado en toda la aplicación.
+     */
+    public Map<EstadoTarea, Long> resumenGlobal() {
+        Map<EstadoTarea, Long> resumen = vacio();
+        transaccionLectura.executeWithoutResult(estado -> {
+            for (Object[] fila : resumenRepository.totalesPorEstado()) {
+                resumen.put((EstadoTarea) fila[0], ((Number) fila[1]).longValue());
+            }
+        });
+        return resumen;
+    }
+
+    /**
+     * Rellena la tabla resumen desde la tabla de tareas si está vacía (o si se pide con
+     * app.contadores.recalcular-al-arrancar). Se ejecuta al arrancar la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        if (!recalcularAlArrancar && resumenRepository.count() > 0) {
+            return;
+        }
+        try {
+            int filas = transaccionRecalculo.execute(estado -> {
+                resumenRepository.vaciar();
+                return resumenRepository.recalcular();
+            });
+            log.info("Tabla resumen de tareas recalculada: {} filas (proyecto, estado)", filas);
+        } catch (DataAccessException e) {
+            // Otro nodo que arrancaba a la vez ya la ha rellenado (clave duplicada)
+            log.warn("No se pudo recalcular la tabla resumen de tareas", e);
+        }
+    }
+
+    /**
+     * Contadores a cero, para los proyectos sin tareas.
+     */
+    public static Map<EstadoTarea, Long> vacio() {
+        Map<EstadoTarea, Long> mapa = new EnumMap<>(EstadoTarea.class);
+        for (EstadoTarea estado : EstadoTarea.values()) {
+            mapa.put(estado, 0L);
+        }
+        return mapa;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.crudusuario.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.crudusuario.dto.FiltroTareas;
+import com.example.crudusuario.dto.FormatoFichero;
+import com.example.crudusuario.dto.ProyectoResumen;
+import com.example.crudusuario.dto.TareaResumen;
+import com.example.crudusuario.model.EstadoProyecto;
+import com.example.crudusuario.repository.ProyectoRepository;
+import com.example.crudusuario.repository.TareaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Servicio de exportación de tareas y proyectos a CSV o NDJSON con memoria constante.
+ *
+ * Las filas se leen de un cursor de solo avance (métodos streamResumen de los repositorios)
+ * y se escriben directamente en la salida de la respuesta. Se leen proyecciones y no entidades,
+ * de modo que el contexto de persistencia no crece con el tamaño de la tabla.
+ */
+@Service
+public class ExportacionService {
+
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+    private static final int FILAS_POR_VOLCADO = 1000; // Cada cuántas filas se envía lo escrito al cliente
+
+    private static final List<String> COLUMNAS_TAREAS =
+            List.of("id", "titulo", "descripcion", "fechaLimite", "estado", "proyectoId", "proyectoNombre");
+    private static final List<String> COLUMNAS_PROYECTOS =
+            List.of("id", "nombre", "descripcion", "fechaInicio", "estado");
+
+    private final TareaRepository tareaRepository;
+    private final ProyectoRepository proyectoRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportacionService(TareaRepository tareaRepository, ProyectoRepository proyectoRepository,
+                              ObjectMapper objectMapper) {
+        this.tareaRepository = tareaRepository;
+        this.proyectoRepository = proyectoRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Exporta las tareas que cumplen el filtro.
+     * @return Número de filas exportadas.
+     */
+    @Transactional(readOnly = true)
+    public long exportarTareas(FiltroTareas filtro, FormatoFichero formato, OutputStream salida) throws IOException {
+        try (Stream<TareaResumen> filas = tareaRepository.streamResumen(filtro.estado(), filtro.desde(),
+                filtro.hasta(), filtro.proyectoId())) {
+            return escribir(filas, formato, salida, COLUMNAS_TAREAS, t -> new Object[] {
+                    t.id(), t.titulo(), t.descripcion(), t.fechaLimite(), t.estado(), t.proyectoId(), t.proyectoNombre() });
+        }
+    }
+
+    /**
+     * Exporta los proyectos filtrados por estado y rango de fecha de inicio (filtros opcionales).
+     * @return Número de filas exportadas.
+     */
+    @Transactional(readOnly = true)
+    public long exportarProyectos(EstadoProyecto estado, LocalDate desde, LocalDate hasta, FormatoFichero formato,
+                                  OutputStream salida) throws IOException {
+        try (Stream<ProyectoResumen> filas = proyectoRepository.streamResumen(estado, desde, hasta)) {
+            return escribir(filas, formato, salida, COLUMNAS_PROYECTOS, p -> new Object[] {
+                    p.id(), p.nombre(), p.descripcion(), p.fechaInicio(), p.estado() });
+        }
+    }
+
+    private <T> long escribir(Stream<T> filas, FormatoFichero formato, OutputStream salida, List<String> columnas,
+                              Function<T, Object[]> valores) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANIO_BUFFER);
+        if (formato == FormatoFichero.CSV) {
+            escritor.write(String.join(",", columnas));
+            escritor.write('\n');
+        }
+
+        long total = 0;
+        Iterator<T> iterador = filas.iterator();
+        while (iterador.hasNext()) {
+            T fila = iterador.next();
+            if (formato == FormatoFichero.CSV) {
+                escribirCsv(escritor, valores.apply(fila));
+            } else {
+                escritor.write(objectMapper.writeValueAsString(fila));
+                escritor.write('\n');
+            }
+            if (++total % FILAS_POR_VOLCADO == 0) {
+                escritor.flush();
+            }
+        }
+        escritor.flush();
+        return total;
+    }
+
+    private static void escribirCsv(Writer escritor, Object[] valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                escritor.write(',');
+            }
+            if (valores[i] != null) {
+                escritor.write(escaparCsv(valores[i].toString()));
+            }
+        }
+        escritor.write('\n');
+    }
+
+    /**
+     * Entrecomilla el valor si contiene comas, comillas o saltos de línea (las comillas se duplican).
+     */
+    static String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,366 @@
+package com.example.crudusuario.service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.crudusuario.dto.CambioHistorial;
+import com.example.crudusuario.dto.PaginaHistorial;
+import com.example.crudusuario.dto.Paginacion;
+import com.example.crudusuario.dto.TareaCabecera;
+import com.example.crudusuario.dto.TareaJson;
+import com.example.crudusuario.eventos.EventoDominio;
+import com.example.crudusuario.eventos.EventoDominio.Agregado;
+import com.example.crudusuario.eventos.EventoDominio.CambioEstadoTarea;
+import com.example.crudusuario.eventos.EventoDominio.CambioTarea;
+import com.example.crudusuario.eventos.SuscriptorEventos;
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.model.HistorialTarea;
+import com.example.crudusuario.model.HistorialTarea.Campo;
+import com.example.crudusuario.model.HistorialTarea.Tipo;
+import com.example.crudusuario.repository.HistorialTareaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Historial de cambios de las tareas: solo se añaden filas, con los campos que cambiaron, quién y cuándo.
+ *
+ * Se alimenta de los eventos de dominio de tareas ({@link SuscriptorEventos}), así que no escribe nada en la
+ * petición: la bandeja de salida entrega los eventos por lotes y cada lote se inserta con un único INSERT
+ * por lotes. El ID de cada fila es el del evento, de modo que una entrega repetida no la duplica.
+ * Las tareas importadas también tienen su fila de alta: la importación registra un evento por tarea.
+ *
+ * Consultas: historial de una tarea (índice tarea_id, id) y cambios de un proyecto entre dos instantes
+ * (índice proyecto_id, momento, id), ambas paginadas por cursor.
+ *
+ * Poda: un hilo revisa la tabla cada día y borra los meses anteriores a app.historial.meses-retencion (0 = nunca).
+ * Si en MySQL la tabla está particionada por mes, se eliminan particiones enteras en lugar de borrar filas,
+ * y se crea por adelantado la del mes siguiente. Para particionarla (una vez, con la tabla ya creada):
+ * <pre>
+ * ALTER TABLE historial_tareas DROP PRIMARY KEY, ADD PRIMARY KEY (id, mes)
+ *   PARTITION BY RANGE (mes) (PARTITION p202610 VALUES LESS THAN (202611), PARTITION pmax VALUES LESS THAN MAXVALUE);
+ * </pre>
+ * Las particiones se llaman pAAAAMM y la última debe ser pmax, de la que se van separando los meses nuevos.
+ */
+@Service
+public class HistorialTareasService implements SuscriptorEventos, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(HistorialTareasService.class);
+    private static final String TABLA = "historial_tareas";
+    private static final String SQL_INSERT = """
+            INSERT INTO historial_tareas (id, tarea_id, proyecto_id, momento, mes, usuario, tipo, campos,
+                                          estado_anterior, estado, titulo, descripcion, fecha_limite)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String SQL_EXISTENTES = "SELECT id FROM historial_tareas WHERE id IN (:ids)";
+    private static final String SQL_PARTICIONES = """
+            SELECT partition_name FROM information_schema.partitions
+            WHERE table_schema = DATABASE() AND table_name = :tabla AND partition_name IS NOT NULL
+            """;
+    private static final String PARTICION_MAXIMA = "pmax";
+    private static final Pattern PARTICION_MES = Pattern.compile("p(\\d{6})");
+    private static final int LOTE_PODA = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final HistorialTareaRepository historialTareaRepository;
+    private final ObjectMapper objectMapper;
+    private final int mesesRetencion;
+    private volatile Boolean mySql; // Se averigua en la primera revisión
+    private final ScheduledExecutorService planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "historial-tareas");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public HistorialTareasService(NamedParameterJdbcTemplate jdbcTemplate,
+                                  HistorialTareaRepository historialTareaRepository, ObjectMapper objectMapper,
+                                  @Value("${app.historial.meses-retencion:0}") int mesesRetencion) {
+        if (mesesRetencion < 0) {
+            throw new IllegalArgumentException("app.historial.meses-retencion no puede ser negativo.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.historialTareaRepository = historialTareaRepository;
+        this.objectMapper = objectMapper;
+        this.mesesRetencion = mesesRetencion;
+    }
+
+    @Override
+    public void recibir(EventoDominio evento) {
+        recibir(List.of(evento));
+    }
+
+    /**
+     * Inserta los cambios de tareas del lote con un único INSERT por lotes, saltando los ya registrados.
+     */
+    @Override
+    public void recibir(Collection<EventoDominio> eventos) {
+        List<Object[]> filas = new ArrayList<>(eventos.size());
+        for (EventoDominio evento : eventos) {
+            if (evento.agregado() == Agregado.TAREA) {
+                Object[] fila = fila(evento);
+                if (fila != null) {
+                    filas.add(fila);
+                }
+            }
+        }
+        if (filas.isEmpty()) {
+            return;
+        }
+        Set<Long> existentes = new HashSet<>(jdbcTemplate.queryForList(SQL_EXISTENTES,
+                new MapSqlParameterSource("ids", filas.stream().map(fila -> fila[0]).toList()), Long.class));
+        if (!existentes.isEmpty()) {
+            filas.removeIf(fila -> existentes.contains(fila[0]));
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(SQL_INSERT, filas);
+    }
+
+    /**
+     * Historial de una tarea, del cambio más antiguo al más reciente.
+     * @param despuesDeId Último ID de la página anterior (null para la primera).
+     */
+    @Transactional(readOnly = true)
+    public PaginaHistorial historialTarea(Long tareaId, Long despuesDeId, int tamanio) {
+        int tamanioEfectivo = Paginacion.tamanioEfectivo(tamanio);
+        return pagina(historialTareaRepository.buscarPorTarea(tareaId, (despuesDeId != null) ? despuesDeId : 0L,
+                Limit.of(tamanioEfectivo + 1)), tamanioEfectivo, false);
+    }
+
+    /**
+     * Cambios de las tareas de un proyecto entre dos instantes, en el orden en que se hicieron.
+     * @param desde Primer instante incluido (null = desde el principio); en las páginas siguientes, el siguienteDesde
+     *              de la anterior.
+     * @param despuesDeId Junto con desde, último ID de la página anterior (null para la primera).
+     * @param hasta Instante no incluido (null = ahora).
+     */
+    @Transactional(readOnly = true)
+    public PaginaHistorial historialProyecto(Long proyectoId, Instant desde, Long despuesDeId, Instant hasta,
+                                             int tamanio) {
+        Instant inicio = (desde != null) ? desde : Instant.EPOCH;
+        Instant fin = (hasta != null) ? hasta : Instant.now();
+        if (!inicio.isBefore(fin)) {
+            throw new IllegalArgumentException("La fecha de inicio debe ser anterior a la de fin.");
+        }
+        int tamanioEfectivo = Paginacion.tamanioEfectivo(tamanio);
+        return pagina(historialTareaRepository.buscarPorProyecto(proyectoId, inicio,
+                (despuesDeId != null) ? despuesDeId : 0L, fin, Limit.of(tamanioEfectivo + 1)), tamanioEfectivo, true);
+    }
+
+    /**
+     * Revisa las particiones y la retención al arrancar y después una vez al día.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        planificador.scheduleWithFixedDelay(this::mantener, 0, 1, TimeUnit.DAYS);
+    }
+
+    /**
+     * Borra el historial de los meses anteriores al indicado: elimina sus particiones si la tabla está particionada
+     * y, si no, borra las filas en lotes de LOTE_PODA (cada DELETE en su propia transacción).
+     * @return Filas borradas, o -1 si se han eliminado particiones.
+     */
+    public long podar(YearMonth antesDe) {
+        int mesLimite = codigoMes(antesDe);
+        List<String> particiones = particiones();
+        if (!particiones.isEmpty()) {
+            List<String> antiguas = particiones.stream().filter(nombre -> {
+                Matcher mes = PARTICION_MES.matcher(nombre);
+                return mes.matches() && Integer.parseInt(mes.group(1)) < mesLimite;
+            }).toList();
+            if (!antiguas.isEmpty()) {
+                jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE " + TABLA + " DROP PARTITION " + String.join(", ", antiguas));
+                log.info("Historial de tareas: eliminadas las particiones {}", antiguas);
+            }
+            return -1;
+        }
+
+        long borradas = 0;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList("SELECT id FROM historial_tareas WHERE mes < :mes LIMIT :limite",
+                    Map.of("mes", mesLimite, "limite", LOTE_PODA), Long.class);
+            if (!ids.isEmpty()) {
+                borradas += jdbcTemplate.update("DELETE FROM historial_tareas WHERE id IN (:ids)", Map.of("ids", ids));
+            }
+        } while (ids.size() == LOTE_PODA);
+        if (borradas > 0) {
+            log.info("Historial de tareas: borrados {} cambios anteriores a {}", borradas, antesDe);
+        }
+        return borradas;
+    }
+
+    private void mantener() {
+        try {
+            YearMonth actual = YearMonth.now(ZoneOffset.UTC);
+            List<String> particiones = particiones();
+            if (!particiones.isEmpty()) {
+                crearParticiones(particiones, actual, actual.plusMonths(1));
+            }
+            if (mesesRetencion > 0) {
+                podar(actual.minusMonths(mesesRetencion));
+            }
+        } catch (RuntimeException e) {
+            log.error("Error al mantener el historial de tareas", e); // Se reintenta al día siguiente
+        }
+    }
+
+    /**
+     * Separa de pmax las particiones que falten entre los dos meses (incluidos).
+     */
+    private void crearParticiones(List<String> particiones, YearMonth desde, YearMonth hasta) {
+        if (!particiones.contains(PARTICION_MAXIMA)) {
+            log.warn("La tabla {} está particionada sin partición {}: no se crean particiones nuevas", TABLA, PARTICION_MAXIMA);
+            return;
+        }
+        for (YearMonth mes = desde; !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+            String nombre = "p" + codigoMes(mes);
+            if (!particiones.contains(nombre)) {
+                jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE " + TABLA + " REORGANIZE PARTITION " + PARTICION_MAXIMA
+                        + " INTO (PARTITION " + nombre + " VALUES LESS THAN (" + codigoMes(mes.plusMonths(1)) + "), "
+                        + "PARTITION " + PARTICION_MAXIMA + " VALUES LESS THAN MAXVALUE)");
+                log.info("Historial de tareas: creada la partición {}", nombre);
+            }
+        }
+    }
+
+    /**
+     * Particiones de la tabla en MySQL; vacía si no está particionada o la base de datos no es MySQL.
+     */
+    private List<String> particiones() {
+        if (mySql == null) {
+            mySql = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) conexion ->
+                    conexion.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql"));
+        }
+        if (!mySql) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(SQL_PARTICIONES, Map.of("tabla", TABLA), String.class).stream()
+                .map(nombre -> nombre.toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    /**
+     * Parámetros del INSERT para un evento de tarea, o null si no cambia ningún campo registrado.
+     */
+    private Object[] fila(EventoDominio evento) {
+        try {
+            return switch (evento.tipo()) {
+                case CREADO, MODIFICADO -> {
+                    CambioTarea cambio = objectMapper.readValue(evento.datos(), CambioTarea.class);
+                    yield diferencias(evento, cambio.anterior(), cambio.tarea());
+                }
+                case ESTADO_CAMBIADO -> {
+                    CambioEstadoTarea cambio = objectMapper.readValue(evento.datos(), CambioEstadoTarea.class);
+                    yield fila(evento, cambio.proyectoId(), Tipo.MODIFICADA, Campo.ESTADO.bit(),
+                            cambio.estadoAnterior(), cambio.estado(), null, null, null);
+                }
+                case ELIMINADO -> fila(evento, objectMapper.readTree(evento.datos()).get("proyectoId").asLong(),
+                        Tipo.ELIMINADA, 0, null, null, null, null, null);
+                default -> null;
+            };
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Reintentarlo no lo arreglaría y bloquearía los siguientes eventos de la tarea
+            log.error("Evento {} de la tarea {} no válido; no se registra en el historial", evento.id(),
+                    evento.agregadoId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Compara la tarea con su versión anterior (null al crearla: cuentan los campos con valor).
+     */
+    private static Object[] diferencias(EventoDominio evento, TareaCabecera anterior, TareaJson tarea) {
+        int campos = 0;
+        String titulo = null;
+        String descripcion = null;
+        LocalDate fechaLimite = null;
+        EstadoTarea estadoAnterior = null;
+        EstadoTarea estado = null;
+        if (!Objects.equals((anterior != null) ? anterior.titulo() : null, tarea.titulo())) {
+            campos |= Campo.TITULO.bit();
+            titulo = tarea.titulo();
+        }
+        if (!Objects.equals((anterior != null) ? anterior.descripcion() : null, tarea.descripcion())) {
+            campos |= Campo.DESCRIPCION.bit();
+            descripcion = tarea.descripcion();
+        }
+        if (!Objects.equals((anterior != null) ? anterior.fechaLimite() : null, tarea.fechaLimite())) {
+            campos |= Campo.FECHA_LIMITE.bit();
+            fechaLimite = tarea.fechaLimite();
+        }
+        if (!Objects.equals((anterior != null) ? anterior.estado() : null, tarea.estado())) {
+            campos |= Campo.ESTADO.bit();
+            estadoAnterior = (anterior != null) ? anterior.estado() : null;
+            estado = tarea.estado();
+        }
+        boolean alta = evento.tipo() == EventoDominio.Tipo.CREADO;
+        if (campos == 0 && !alta) {
+            return null; // Guardada sin cambios
+        }
+        return fila(evento, tarea.proyectoId(), alta ? Tipo.CREADA : Tipo.MODIFICADA, campos,
+                estadoAnterior, estado, titulo, descripcion, fechaLimite);
+    }
+
+    private static Object[] fila(EventoDominio evento, long proyectoId, Tipo tipo, int campos,
+                                 EstadoTarea estadoAnterior, EstadoTarea estado, String titulo, String descripcion,
+                                 LocalDate fechaLimite) {
+        return new Object[] { evento.id(), evento.agregadoId(), proyectoId, Timestamp.from(evento.creado()),
+                codigoMes(YearMonth.from(evento.creado().atZone(ZoneOffset.UTC))), evento.usuario(), tipo.codigo(),
+                (byte) campos, codigo(estadoAnterior), codigo(estado), titulo, descripcion,
+                (fechaLimite != null) ? Date.valueOf(fechaLimite) : null };
+    }
+
+    private static Byte codigo(EstadoTarea estado) {
+        return (estado != null) ? estado.codigo() : null;
+    }
+
+    private static int codigoMes(YearMonth mes) {
+        return mes.getYear() * 100 + mes.getMonthValue();
+    }
+
+    private static PaginaHistorial pagina(List<HistorialTarea> filas, int tamanio, boolean porMomento) {
+        if (filas.size() > tamanio) {
+            HistorialTarea ultima = filas.get(tamanio - 1);
+            return new PaginaHistorial(cambios(filas.subList(0, tamanio)), porMomento ? ultima.getMomento() : null,
+                    ultima.getId());
+        }
+        return new PaginaHistorial(cambios(filas), null, null);
+    }
+
+    private static List<CambioHistorial> cambios(List<HistorialTarea> filas) {
+        return filas.stream().map(HistorialTarea::toCambioHistorial).toList();
+    }
+
+    @Override
+    public void destroy() {
+        planificador.shutdownNow();
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.crudusuario.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.crudusuario.dto.FilaImportacion;
+import com.example.crudusuario.dto.FormatoFichero;
+import com.example.crudusuario.dto.ResultadoImportacion;
+import com.example.crudusuario.dto.ResultadoImportacion.ErrorFila;
+import com.example.crudusuario.dto.TareaJson;
+import com.example.crudusuario.eventos.EventoDominio.Agregado;
+import com.example.crudusuario.eventos.EventoDominio.CambioTarea;
+import com.example.crudusuario.eventos.EventoDominio.Tipo;
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.repository.ProyectoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Servicio de importación masiva de tareas desde un fichero CSV o NDJSON.
+ *
+ * El fichero se lee línea a línea y las filas válidas se insertan en lotes con JDBC
+ * (cada lote en su propia transacción), por lo que la memoria usada depende del tamaño
+ * del lote y no del tamaño del fichero. Se usa JDBC directo porque Hibernate no agrupa
+ * INSERTs de entidades con ID IDENTITY; con rewriteBatchedStatements=true el driver de
+ * MySQL envía cada lote como un único INSERT multi-fila y devuelve los ID generados de todas
+ * las filas, con los que se indexa cada tarea y se registra su evento de alta.
+ */
+@Service
+public class ImportacionTareasService {
+
+    private static final String SQL_INSERT =
+            "INSERT INTO tareas (titulo, descripcion, fecha_limite, estado, proyecto_id) VALUES (?, ?, ?, ?, ?)";
+    private static final String[] COLUMNAS_GENERADAS = { "id" };
+    // Posición de cada columna en los parámetros del INSERT
+    private static final int INDICE_TITULO = 0;
+    private static final int INDICE_DESCRIPCION = 1;
+    private static final int INDICE_FECHA_LIMITE = 2;
+    private static final int INDICE_ESTADO = 3;
+    private static final int LONGITUD_MAXIMA_TEXTO = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProyectoRepository proyectoRepository;
+    private final ContadoresTareasService contadoresTareasService;
+    private final BusquedaTareasService busquedaTareasService;
+    private final VencimientosService vencimientosService;
+    private final BandejaSalidaService bandejaSalidaService;
+    private final ObjectReader lectorJson;
+    private final int tamanioLote;
+    private final int maximoErroresDetallados;
+
+    public ImportacionTareasService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                    ProyectoRepository proyectoRepository,
+                                    ContadoresTareasService contadoresTareasService,
+                                    BusquedaTareasService busquedaTareasService,
+                                    VencimientosService vencimientosService,
+                                    BandejaSalidaService bandejaSalidaService, ObjectMapper objectMapper,
+                                    @Value("${app.importacion.tamanio-lote:1000}") int tamanioLote,
+                                    @Value("${app.importacion.maximo-errores:1000}") int maximoErroresDetallados) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.proyectoRepository = proyectoRepository;
+        this.contadoresTareasService = contadoresTareasService;
+        this.busquedaTareasService = busquedaTareasService;
+        this.vencimientosService = vencimientosService;
+        this.bandejaSalidaService = bandejaSalidaService;
+        this.lectorJson = objectMapper.readerFor(FilaImportacion.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.tamanioLote = tamanioLote;
+        this.maximoErroresDetallados = maximoErroresDetallados;
+    }
+
+    /**
+     * Importa las tareas del fichero en el proyecto indicado.
+     * El proyecto se comprueba una sola vez; cada fila se valida igual que en TareaService.guardarTarea.
+     * @param proyectoId Proyecto al que se asignan todas las tareas importadas.
+     * @param entrada Contenido del fichero (no se cierra aquí).
+     * @param formato Formato del fichero.
+     * @return Resumen con el número de filas importadas y los errores por fila.
+     */
+    public ResultadoImportacion importar(Long proyectoId, InputStream entrada, FormatoFichero formato) throws IOException {
+        if (proyectoId == null || !proyectoRepository.existsById(proyectoId)) {
+            throw new EntityNotFoundException("Proyecto no encontrado con ID: " + proyectoId);
+        }
+
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        List<Object[]> lote = new ArrayList<>(tamanioLote);
+        List<ErrorFila> errores = new ArrayList<>();
+        long filasLeidas = 0;
+        long importadas = 0;
+        long conErrores = 0;
+
+        Map<String, Integer> columnas = (formato == FormatoFichero.CSV) ? leerCabeceraCsv(lector) : null;
+        long numeroLinea = (formato == FormatoFichero.CSV) ? 1 : 0;
+
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            numeroLinea++;
+            if (linea.isBlank()) {
+                continue;
+            }
+            filasLeidas++;
+            try {
+                FilaImportacion fila = (formato == FormatoFichero.CSV) ? parsearCsv(linea, columnas) : parsearJson(linea);
+                lote.add(validar(fila, proyectoId));
+            } catch (IllegalArgumentException e) {
+                conErrores++;
+                if (errores.size() < maximoErroresDetallados) {
+                    errores.add(new ErrorFila(numeroLinea, e.getMessage()));
+                }
+            }
+
+            if (lote.size() >= tamanioLote) {
+                importadas += insertarLote(proyectoId, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            importadas += insertarLote(proyectoId, lote);
+        }
+        if (importadas > 0) {
+            vencimientosService.recargar();
+        }
+
+        return new ResultadoImportacion(filasLeidas, importadas, conErrores, errores);
+    }
+
+    /**
+     * Inserta el lote y, en la misma transacción, actualiza los contadores por estado, registra un evento
+     * TAREA/CREADO por fila (un único INSERT por lotes en la bandeja) e indexa las tareas para la búsqueda.
+     */
+    private int insertarLote(Long proyectoId, List<Object[]> lote) {
+        Map<EstadoTarea, Long> altasPorEstado = new EnumMap<>(EstadoTarea.class);
+        for (Object[] fila : lote) {
+            altasPorEstado.merge(EstadoTarea.valueOf((String) fila[INDICE_ESTADO]), 1L, Long::sum);
+        }
+        return transactionTemplate.execute(estado -> {
+            List<Long> ids = insertarConClaves(lote);
+            contadoresTareasService.registrarAltas(proyectoId, altasPorEstado);
+            List<BandejaSalidaService.Nuevo> eventos = new ArrayList<>(lote.size());
+            for (int i = 0; i < lote.size(); i++) {
+                TareaJson tarea = tareaImportada(ids.get(i), lote.get(i), proyectoId);
+                busquedaTareasService.indexar(tarea.id(), proyectoId, tarea.titulo(), tarea.descripcion());
+                eventos.add(new BandejaSalidaService.Nuevo(Agregado.TAREA, tarea.id(), Tipo.CREADO,
+                        new CambioTarea(null, tarea)));
+            }
+            bandejaSalidaService.registrar(eventos);
+            return lote.size();
+        });
+    }
+
+    /**
+     * Ejecuta el INSERT por lotes y devuelve los ID generados, en el orden de las filas.
+     */
+    private List<Long> insertarConClaves(List<Object[]> lote) {
+        KeyHolder claves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(conexion -> conexion.prepareStatement(SQL_INSERT, COLUMNAS_GENERADAS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement sentencia, int i) throws SQLException {
+                        new ArgumentPreparedStatementSetter(lote.get(i)).setValues(sentencia);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return lote.size();
+                    }
+                }, claves);
+        List<Map<String, Object>> filas = claves.getKeyList();
+        if (filas.size() != lote.size()) {
+            throw new IllegalStateException("El INSERT por lotes devolvió " + filas.size() + " ID para "
+                    + lote.size() + " filas.");
+        }
+        List<Long> ids = new ArrayList<>(filas.size());
+        for (Map<String, Object> fila : filas) {
+            ids.add(((Number) fila.values().iterator().next()).longValue()); // MySQL la llama GENERATED_KEY
+        }
+        return ids;
+    }
+
+    /**
+     * Tarea recién importada tal como la ven los suscriptores (versión 0, la inicial de la columna).
+     */
+    private static TareaJson tareaImportada(Long id, Object[] fila, Long proyectoId) {
+        Date fechaLimite = (Date) fila[INDICE_FECHA_LIMITE];
+        return new TareaJson(id, (String) fila[INDICE_TITULO], (String) fila[INDICE_DESCRIPCION],
+                (fechaLimite != null) ? fechaLimite.toLocalDate() : null,
+                EstadoTarea.valueOf((String) fila[INDICE_ESTADO]), proyectoId, 0);
+    }
+
+    /**
+     * Aplica las mismas reglas que el alta individual y devuelve los parámetros del INSERT.
+     */
+    private Object[] validar(FilaImportacion fila, Long proyectoId) {
+        TareaService.validarTitulo(fila.titulo());
+        String titulo = fila.titulo().trim();
+        if (titulo.length() > LONGITUD_MAXIMA_TEXTO) {
+            throw new IllegalArgumentException("El título supera los " + LONGITUD_MAXIMA_TEXTO + " caracteres.");
+        }
+
+        String descripcion = vacioANull(fila.descripcion());
+        if (descripcion != null && descripcion.length() > LONGITUD_MAXIMA_TEXTO) {
+            throw new IllegalArgumentException("La descripción supera los " + LONGITUD_MAXIMA_TEXTO + " caracteres.");
+        }
+
+        LocalDate fechaLimite = null;
+        String fecha = vacioANull(fila.fechaLimite());
+        if (fecha != null) {
+            try {
+                fechaLimite = LocalDate.parse(fecha);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Fecha límite no válida (formato AAAA-MM-DD): " + fecha);
+            }
+        }
+
+        EstadoTarea estado = EstadoTarea.PENDIENTE;
+        String textoEstado = vacioANull(fila.estado());
+        if (textoEstado != null) {
+            try {
+                estado = EstadoTarea.valueOf(textoEstado.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Estado no válido: " + textoEstado);
+            }
+        }
+
+        return new Object[] { titulo, descripcion, (fechaLimite != null) ? Date.valueOf(fechaLimite) : null,
+                estado.name(), proyectoId };
+    }
+
+    private FilaImportacion parsearJson(String linea) {
+        try {
+            return lectorJson.readValue(linea);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON no válido: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudo leer la fila: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lee la cabecera CSV y devuelve la posición de cada columna conocida.
+     * La columna "titulo" es obligatoria; el resto son opcionales.
+     */
+    private Map<String, Integer> leerCabeceraCsv(BufferedReader lector) throws IOException {
+        String cabecera = lector.readLine();
+        if (cabecera == null) {
+            throw new IllegalArgumentException("El fichero CSV está vacío.");
+        }
+        if (cabecera.startsWith("\uFEFF")) {
+            cabecera = cabecera.substring(1); // BOM de Excel
+        }
+        Map<String, Integer> columnas = new HashMap<>();
+        List<String> nombres = separarCsv(cabecera);
+        for (int i = 0; i < nombres.size(); i++) {
+            columnas.put(nombres.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columnas.containsKey("titulo")) {
+            throw new IllegalArgumentException("La cabecera CSV debe incluir la columna 'titulo'.");
+        }
+        return columnas;
+    }
+
+    private FilaImportacion parsearCsv(String linea, Map<String, Integer> columnas) {
+        List<String> valores = separarCsv(linea);
+        return new FilaImportacion(
+                columna(valores, columnas, "titulo"),
+                columna(valores, columnas, "descripcion"),
+                columna(valores, columnas, "fechalimite"),
+                columna(valores, columnas, "estado"));
+    }
+
+    private static String columna(List<String> valores, Map<String, Integer> columnas, String nombre) {
+        Integer indice = columnas.get(nombre);
+        return (indice != null && indice < valores.size()) ? valores.get(indice) : null;
+    }
+
+    /**
+     * Separa una línea CSV por comas respetando los campos entre comillas ("" = comilla literal).
+     */
+    static List<String> separarCsv(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar en la fila CSV.");
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    private static String vacioANull(String valor) {
+        return (valor == null || valor.isBlank()) ? null : valor.trim();
+    }
+}
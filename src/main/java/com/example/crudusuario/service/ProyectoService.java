@@ -2,34 +2,82 @@ package com.example.crudusuario.service;
 
 import java.util.List;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.crudusuario.dto.PaginaJson;
+import com.example.crudusuario.dto.Paginacion;
+import com.example.crudusuario.dto.ProyectoJson;
+import com.example.crudusuario.dto.ProyectoResumen;
+import com.example.crudusuario.eventos.EventoDominio.Agregado;
+import com.example.crudusuario.eventos.EventoDominio.Tipo;
 import com.example.crudusuario.model.Proyecto;
 import com.example.crudusuario.repository.ProyectoRepository;
 
+import jakarta.persistence.EntityNotFoundException;
+
 /**
  * Servicio para la gestión de proyectos con validaciones.
  */
 @Service
 public class ProyectoService {
     private final ProyectoRepository proyectoRepository;
+    private final ContadoresTareasService contadoresTareasService;
+    private final BandejaSalidaService bandejaSalidaService;
 
     /**
-     * Inyección de dependencia del repositorio.
+     * Inyección de dependencia del repositorio, de los contadores de tareas y de la bandeja de eventos.
      */
-    public ProyectoService(ProyectoRepository proyectoRepository) {
+    public ProyectoService(ProyectoRepository proyectoRepository, ContadoresTareasService contadoresTareasService,
+                           BandejaSalidaService bandejaSalidaService) {
         this.proyectoRepository = proyectoRepository;
+        this.contadoresTareasService = contadoresTareasService;
+        this.bandejaSalidaService = bandejaSalidaService;
     }
 
     /**
      * Listar todos los proyectos.
      * @return Lista de proyectos.
      */
+    @Transactional(readOnly = true)
     public List<Proyecto> listarProyectos() {
         return proyectoRepository.findAll();
     }
 
+    /**
+     * Listar el resumen de todos los proyectos (solo las columnas que muestra la vista).
+     * @return Lista de proyectos en forma de proyección de solo lectura.
+     */
+    @Transactional(readOnly = true)
+    public List<ProyectoResumen> listarResumenProyectos() {
+        return proyectoRepository.buscarResumen();
+    }
+
+    /**
+     * Listar una página de proyectos en su representación del API, paginada por cursor sobre el ID.
+     * @param despuesDeId Último ID de la página anterior (null para la primera).
+     * @param tamanio Número de proyectos por página.
+     */
+    public PaginaJson<ProyectoJson> listarProyectosJson(Long despuesDeId, int tamanio) {
+        int tamanioEfectivo = Paginacion.tamanioEfectivo(tamanio);
+        long cursor = (despuesDeId != null) ? despuesDeId : 0L;
+        return PaginaJson.desdeFilas(proyectoRepository.buscarPaginaJson(cursor, Limit.of(tamanioEfectivo + 1)),
+                tamanioEfectivo);
+    }
+
+    /**
+     * Obtener un proyecto en su representación del API.
+     * @param id Identificador del proyecto.
+     */
+    public ProyectoJson obtenerProyectoJson(Long id) {
+        return proyectoRepository.buscarJsonPorId(id)
+                .orElseThrow(() -> new EntityNotFoundException("Proyecto no encontrado con ID: " + id));
+    }
+
     //  MÉTODO PARA OBTENER PROYECTOS POR USUARIO
+    @Transactional(readOnly = true)
     public List<Proyecto> obtenerProyectosPorUsuario(String username) {
         return proyectoRepository.findByUsuario_Username(username);
     }
@@ -41,21 +89,27 @@ public class ProyectoService {
      */
     public Proyecto obtenerProyectoPorId(Long id) {
         return proyectoRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Proyecto no encontrado con ID: " + id));
+                .orElseThrow(() -> new EntityNotFoundException("Proyecto no encontrado con ID: " + id));
     }
 
     /**
      * Guardar un nuevo proyecto o actualizar uno existente con validaciones.
      * @param proyecto Proyecto a guardar.
+     * @return Proyecto guardado (con su ID asignado).
      */
-    public void guardarProyecto(Proyecto proyecto) {
+    @Transactional
+    public Proyecto guardarProyecto(Proyecto proyecto) {
         if (proyecto.getNombre() == null || proyecto.getNombre().trim().isEmpty()) {
             throw new IllegalArgumentException("El nombre del proyecto no puede estar vacío.");
         }
         if (proyecto.getFechaInicio() == null) {
             throw new IllegalArgumentException("La fecha de inicio es obligatoria.");
         }
-        proyectoRepository.save(proyecto);
+        boolean nuevo = proyecto.getId() == null;
+        Proyecto guardado = proyectoRepository.saveAndFlush(proyecto); // El evento va detrás del cambio (orden por ID)
+        bandejaSalidaService.registrar(Agregado.PROYECTO, guardado.getId(), nuevo ? Tipo.CREADO : Tipo.MODIFICADO,
+                ProyectoJson.desde(guardado));
+        return guardado;
     }
 
     /**
@@ -63,27 +117,75 @@ public class ProyectoService {
      * @param id Identificador del proyecto.
      * @param proyectoActualizado Datos actualizados del proyecto.
      */
+    @Transactional
     public void actualizarProyecto(Long id, Proyecto proyectoActualizado) {
-        Proyecto proyecto = obtenerProyectoPorId(id);
+        actualizarProyecto(id, proyectoActualizado, null);
+    }
+
+    /**
+     * Actualizar un proyecto existente a través de la entidad gestionada: se lee (normalmente de la caché
+     * de segundo nivel, sin SQL) y se escribe con un único UPDATE ... WHERE id = ? AND version = ?.
+     * Un UPDATE masivo de JPQL vaciaría la región proyectos entera; así solo se actualiza su entrada.
+     * @param id Identificador del proyecto.
+     * @param proyectoActualizado Datos actualizados del proyecto.
+     * @param versionEsperada Versión que vio el usuario; si no es null, solo se aplica si nadie ha
+     *                        modificado el proyecto desde entonces.
+     * @return El proyecto tal como ha quedado, con su nueva versión.
+     * @throws OptimisticLockingFailureException Si otro usuario ha modificado el proyecto.
+     */
+    @Transactional
+    public ProyectoJson actualizarProyecto(Long id, Proyecto proyectoActualizado, Long versionEsperada) {
         if (proyectoActualizado.getNombre() == null || proyectoActualizado.getNombre().trim().isEmpty()) {
             throw new IllegalArgumentException("El nombre del proyecto no puede estar vacío.");
         }
+        Proyecto proyecto = obtenerProyectoPorId(id); // 404 si no existe
+        if (versionEsperada != null && versionEsperada != proyecto.getVersion()) {
+            throw modificadoPorOtro(id);
+        }
         proyecto.setNombre(proyectoActualizado.getNombre());
         proyecto.setDescripcion(proyectoActualizado.getDescripcion());
         proyecto.setFechaInicio(proyectoActualizado.getFechaInicio());
         proyecto.setEstado(proyectoActualizado.getEstado());
-        proyectoRepository.save(proyecto);
+        proyectoRepository.flush(); // El evento va detrás del cambio; un cambio concurrente falla aquí (versión)
+        ProyectoJson actualizado = ProyectoJson.desde(proyecto);
+        bandejaSalidaService.registrar(Agregado.PROYECTO, id, Tipo.MODIFICADO, actualizado);
+        return actualizado;
     }
 
     /**
      * Eliminar un proyecto por su ID solo si no tiene tareas asociadas.
      * @param id Identificador del proyecto a eliminar.
      */
+    @Transactional
     public void eliminarProyecto(Long id) {
-        Proyecto proyecto = obtenerProyectoPorId(id);
-        if (proyecto.getTareas() != null && !proyecto.getTareas().isEmpty()) {
-            throw new RuntimeException("No se puede eliminar un proyecto con tareas asignadas.");
+        eliminarProyecto(id, null);
+    }
+
+    /**
+     * Eliminar un proyecto por su ID solo si no tiene tareas asociadas.
+     * Se bloquea la fila del proyecto antes de comprobar las tareas, así que no se le pueden añadir otras
+     * hasta que se borre; el borrado es el de la entidad, que solo quita su entrada de la caché de segundo nivel.
+     * @param id Identificador del proyecto a eliminar.
+     * @param versionEsperada Versión que vio el usuario (null = no se comprueba).
+     */
+    @Transactional
+    public void eliminarProyecto(Long id, Long versionEsperada) {
+        Proyecto proyecto = proyectoRepository.bloquearPorId(id)
+                .orElseThrow(() -> new EntityNotFoundException("Proyecto no encontrado con ID: " + id));
+        if (versionEsperada != null && versionEsperada != proyecto.getVersion()) {
+            throw modificadoPorOtro(id);
         }
-        proyectoRepository.deleteById(id);
+        if (proyectoRepository.tieneTareas(id)) {
+            throw new IllegalStateException("No se puede eliminar un proyecto con tareas asignadas.");
+        }
+        proyectoRepository.delete(proyecto);
+        proyectoRepository.flush(); // El evento va detrás del cambio
+        contadoresTareasService.eliminarProyecto(id);
+        bandejaSalidaService.registrar(Agregado.PROYECTO, id, Tipo.ELIMINADO, null);
+    }
+
+    private static OptimisticLockingFailureException modificadoPorOtro(Long id) {
+        return new OptimisticLockingFailureException(
+                "El proyecto con ID " + id + " ha sido modificado por otro usuario. Vuelva a cargarlo.");
     }
 }
@@ -0,0 +1,180 @@
+package com.example.crudusuario.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.crudusuario.eventos.EventoDominio;
+import com.example.crudusuario.eventos.EventoDominio.CambioEstadoTarea;
+import com.example.crudusuario.eventos.EventoDominio.CambioTarea;
+import com.example.crudusuario.eventos.SuscriptorEventos;
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.tablero.TableroTareas;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Tablero en vivo de las tareas de un proyecto por Server-Sent Events (GET /tareas/proyecto/{id}/eventos).
+ *
+ * Los cambios llegan como eventos de dominio tras confirmarse ({@link SuscriptorEventos}) y se envían a los
+ * navegadores como deltas compactos, sin volver a consultar la base de datos:
+ * - tarea: la tarea creada o editada (TareaJson).
+ * - estado: {"id", "estado", "version"} en los cambios de estado masivos.
+ * - eliminada: {"id"}.
+ * - recargar: {} cuando el cambio no cabe en un delta (importación o proyecto eliminado).
+ * Cada evento SSE lleva como id el del evento de dominio, con el prefijo del nodo; la entrega puede repetirse,
+ * así que el navegador descarta las versiones que ya tiene. Si al reconectar se ha perdido algún cambio, se le envía recargar;
+ * lo mismo en la primera conexión, comparando con el id que se leyó al generar la página.
+ *
+ * El reparto, el buffer acotado por cliente y los latidos están en {@link TableroTareas}. Las escrituras
+ * a los navegadores se hacen en hilos virtuales: un cliente lento solo bloquea el suyo.
+ * Con varios nodos, cada nodo difunde los eventos que entrega su bandeja de salida, por lo que un navegador
+ * conectado a otro nodo no recibe esos cambios hasta que recarga; como los ids de otro nodo no se comparan,
+ * cambiar de nodo al reconectar tampoco provoca recargas en cadena (ver TableroTareas).
+ *
+ * Métricas: tablero.clientes y tablero.proyectos (gauges), tablero.mensajes y tablero.descartados (contadores).
+ */
+@Service
+public class TableroTareasService implements SuscriptorEventos, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TableroTareasService.class);
+
+    private final TableroTareas tablero;
+    private final ObjectMapper objectMapper;
+    private final Duration latido;
+    private final Counter mensajes;
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "tablero-latidos");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public TableroTareasService(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                @Value("${app.tablero.buffer:64}") int buffer,
+                                @Value("${app.tablero.latido:15s}") Duration latido,
+                                @Value("${app.tablero.duracion:30m}") Duration duracion,
+                                @Value("${app.tablero.reconexion:5s}") Duration reconexion) {
+        if (latido.isNegative() || latido.isZero()) {
+            throw new IllegalArgumentException("app.tablero.latido debe ser mayor que cero.");
+        }
+        this.tablero = new TableroTareas(buffer, envios, duracion, reconexion);
+        this.objectMapper = objectMapper;
+        this.latido = latido;
+        this.mensajes = Counter.builder("tablero.mensajes")
+                .description("Cambios de tareas difundidos a los tableros en vivo").register(meterRegistry);
+        Gauge.builder("tablero.clientes", tablero, TableroTareas::clientes)
+                .description("Navegadores conectados a un tablero en vivo").register(meterRegistry);
+        Gauge.builder("tablero.proyectos", tablero, TableroTareas::proyectos)
+                .description("Proyectos con algún tablero en vivo abierto").register(meterRegistry);
+        FunctionCounter.builder("tablero.descartados", tablero, TableroTareas::descartados)
+                .description("Navegadores desconectados por no leer a tiempo (buffer lleno)").register(meterRegistry);
+    }
+
+    /**
+     * Id del último cambio difundido para el proyecto. La página lo lee antes que las tareas y lo devuelve
+     * al suscribirse, de modo que los cambios publicados entre medias provocan una recarga.
+     */
+    public String ultimoPublicado(Long proyectoId) {
+        return tablero.ultimo(proyectoId);
+    }
+
+    /**
+     * Suscribe un navegador al tablero del proyecto.
+     * @param ultimoVisto Cabecera Last-Event-ID de la reconexión, o el id con el que se generó la página
+     *                    en la primera conexión.
+     */
+    public SseEmitter suscribir(Long proyectoId, String ultimoVisto) {
+        return tablero.suscribir(proyectoId, ultimoVisto);
+    }
+
+    /**
+     * Revisa los latidos cada medio intervalo: un cliente sin datos recibe un latido como mucho cada 1,5 intervalos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        long periodo = Math.max(latido.toMillis() / 2, 1);
+        planificador.scheduleAtFixedRate(() -> tablero.latir(latido), periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recibir(EventoDominio evento) {
+        Mensaje mensaje = mensaje(evento);
+        if (mensaje != null) {
+            TrasConfirmar.ejecutar(() -> { // La entrega del evento puede revertirse y repetirse
+                tablero.publicar(mensaje.proyectoId(), evento.id(), mensaje.texto());
+                mensajes.increment();
+            });
+        }
+    }
+
+    /**
+     * Delta que corresponde al evento, o null si no afecta a ningún tablero.
+     */
+    private Mensaje mensaje(EventoDominio evento) {
+        try {
+            return switch (evento.agregado()) {
+                case TAREA -> switch (evento.tipo()) {
+                    case CREADO, MODIFICADO -> {
+                        CambioTarea cambio = objectMapper.readValue(evento.datos(), CambioTarea.class);
+                        yield mensaje(evento, cambio.tarea().proyectoId(), "tarea", cambio.tarea());
+                    }
+                    case ESTADO_CAMBIADO -> {
+                        CambioEstadoTarea cambio = objectMapper.readValue(evento.datos(), CambioEstadoTarea.class);
+                        yield mensaje(evento, cambio.proyectoId(), "estado",
+                                new DeltaEstado(evento.agregadoId(), cambio.estado(), cambio.version()));
+                    }
+                    case ELIMINADO -> mensaje(evento, objectMapper.readTree(evento.datos()).get("proyectoId").asLong(),
+                            "eliminada", Map.of("id", evento.agregadoId()));
+                    default -> null;
+                };
+                case PROYECTO -> switch (evento.tipo()) {
+                    case TAREAS_IMPORTADAS, ELIMINADO -> mensaje(evento, evento.agregadoId(), "recargar", Map.of());
+                    default -> null;
+                };
+                default -> null;
+            };
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Evento {} no válido; no se envía a los tableros", evento.id(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Formatea el evento SSE una sola vez para todos los clientes.
+     */
+    private Mensaje mensaje(EventoDominio evento, Long proyectoId, String nombre, Object datos)
+            throws JsonProcessingException {
+        return new Mensaje(proyectoId, "event:" + nombre + "\ndata:" + objectMapper.writeValueAsString(datos) + "\n\n");
+    }
+
+    @Override
+    public void destroy() {
+        planificador.shutdownNow();
+        tablero.cerrar();
+        envios.shutdownNow();
+    }
+
+    private record Mensaje(Long proyectoId, String texto) {
+    }
+
+    private record DeltaEstado(Long id, EstadoTarea estado, long version) {
+    }
+}
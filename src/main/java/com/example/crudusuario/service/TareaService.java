@@ -1,11 +1,29 @@
 package com.example.crudusuario.service;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.crudusuario.dto.FiltroTareas;
+import com.example.crudusuario.dto.PaginaJson;
+import com.example.crudusuario.dto.PaginaTareas;
+import com.example.crudusuario.dto.Paginacion;
+import com.example.crudusuario.dto.TareaCabecera;
+import com.example.crudusuario.dto.TareaJson;
+import com.example.crudusuario.dto.TareaResumen;
+import com.example.crudusuario.eventos.EventoDominio.Agregado;
+import com.example.crudusuario.eventos.EventoDominio.CambioTarea;
+import com.example.crudusuario.eventos.EventoDominio.Tipo;
 import com.example.crudusuario.model.EstadoTarea;
-import com.example.crudusuario.model.Proyecto;
 import com.example.crudusuario.model.Tarea;
 import com.example.crudusuario.repository.ProyectoRepository;
 import com.example.crudusuario.repository.TareaRepository;
@@ -19,27 +37,127 @@ import jakarta.persistence.EntityNotFoundException;
 public class TareaService {
     private final TareaRepository tareaRepository;
     private final ProyectoRepository proyectoRepository;
+    private final ContadoresTareasService contadoresTareasService;
+    private final BusquedaTareasService busquedaTareasService;
+    private final VencimientosService vencimientosService;
+    private final BandejaSalidaService bandejaSalidaService;
 
-    public TareaService(TareaRepository tareaRepository, ProyectoRepository proyectoRepository) {
+    public TareaService(TareaRepository tareaRepository, ProyectoRepository proyectoRepository,
+                        ContadoresTareasService contadoresTareasService,
+                        BusquedaTareasService busquedaTareasService, VencimientosService vencimientosService,
+                        BandejaSalidaService bandejaSalidaService) {
         this.tareaRepository = tareaRepository;
         this.proyectoRepository = proyectoRepository;
+        this.contadoresTareasService = contadoresTareasService;
+        this.busquedaTareasService = busquedaTareasService;
+        this.vencimientosService = vencimientosService;
+        this.bandejaSalidaService = bandejaSalidaService;
     }
 
     /**
      * Listar todas las tareas en la base de datos.
      */
+    @Transactional(readOnly = true)
     public List<Tarea> listarTodasLasTareas() {
         return tareaRepository.findAll();
     }
 
+    /**
+     * Listar una página de tareas usando el ID como cursor, aplicando filtros opcionales.
+     * Se pide una fila de más para saber si existe una página siguiente sin hacer un COUNT.
+     * @param filtro Filtros por estado, rango de fecha límite y proyecto.
+     * @param despuesDeId Último ID mostrado en la página anterior (null para la primera).
+     * @param tamanio Número de tareas por página (se limita a {@link Paginacion#TAMANIO_MAXIMO}).
+     */
+    @Transactional(readOnly = true)
+    public PaginaTareas listarTareasPaginadas(FiltroTareas filtro, Long despuesDeId, int tamanio) {
+        int tamanioEfectivo = Paginacion.tamanioEfectivo(tamanio);
+        long cursor = (despuesDeId != null) ? despuesDeId : 0L;
+
+        List<TareaResumen> tareas = tareaRepository.buscarPagina(cursor, filtro.estado(), filtro.desde(), filtro.hasta(),
+                filtro.proyectoId(), Limit.of(tamanioEfectivo + 1));
+
+        if (tareas.size() > tamanioEfectivo) {
+            List<TareaResumen> pagina = tareas.subList(0, tamanioEfectivo);
+            return new PaginaTareas(pagina, pagina.get(tamanioEfectivo - 1).id());
+        }
+        return new PaginaTareas(tareas, null);
+    }
+
+    /**
+     * Recorre una página del listado general entregando cada tarea según se lee del cursor,
+     * para renderizarla por bloques sin retener la página en memoria. Mismo cursor y filtros que
+     * {@link #listarTareasPaginadas}, con páginas de hasta {@link Paginacion#TAMANIO_MAXIMO_POR_BLOQUES}.
+     * @param consumidor Recibe las tareas en orden de ID, dentro de la transacción de lectura.
+     * @return ID de la última tarea entregada si existe una página siguiente, o null.
+     */
+    @Transactional(readOnly = true)
+    public Long recorrerTareasPaginadas(FiltroTareas filtro, Long despuesDeId, int tamanio,
+                                       Consumer<TareaResumen> consumidor) {
+        int tamanioEfectivo = Paginacion.tamanioEfectivoPorBloques(tamanio);
+        long cursor = (despuesDeId != null) ? despuesDeId : 0L;
+
+        try (Stream<TareaResumen> filas = tareaRepository.streamPagina(cursor, filtro.estado(), filtro.desde(),
+                filtro.hasta(), filtro.proyectoId(), Limit.of(tamanioEfectivo + 1))) {
+            Iterator<TareaResumen> iterador = filas.iterator();
+            Long ultimoId = null;
+            for (int entregadas = 0; iterador.hasNext(); entregadas++) {
+                TareaResumen tarea = iterador.next();
+                if (entregadas == tamanioEfectivo) {
+                    return ultimoId; // La fila de más solo indica que hay página siguiente
+                }
+                consumidor.accept(tarea);
+                ultimoId = tarea.id();
+            }
+            return null;
+        }
+    }
+
     /**
      * Listar tareas por proyecto.
      */
+    @Transactional(readOnly = true)
     public List<Tarea> listarTareasPorProyecto(Long proyectoId) {
         List<Tarea> tareas = tareaRepository.findByProyectoId(proyectoId);
         return (tareas != null) ? tareas : List.of(); // Retorna una lista vacía en caso de null
     }
 
+    /**
+     * Listar una página de tareas en su representación del API (mismo cursor y filtros que el listado general).
+     */
+    public PaginaJson<TareaJson> listarTareasJson(FiltroTareas filtro, Long despuesDeId, int tamanio) {
+        int tamanioEfectivo = Paginacion.tamanioEfectivo(tamanio);
+        long cursor = (despuesDeId != null) ? despuesDeId : 0L;
+        return PaginaJson.desdeFilas(tareaRepository.buscarPaginaJson(cursor, filtro.estado(), filtro.desde(),
+                filtro.hasta(), filtro.proyectoId(), Limit.of(tamanioEfectivo + 1)), tamanioEfectivo);
+    }
+
+    /**
+     * Obtener una tarea en su representación del API.
+     */
+    public TareaJson obtenerTareaJson(Long id) {
+        return tareaRepository.buscarJsonPorId(id)
+                .orElseThrow(() -> new EntityNotFoundException("Tarea no encontrada con ID: " + id));
+    }
+
+    /**
+     * Listar el resumen de las tareas de un proyecto (solo las columnas que muestra la vista).
+     */
+    @Transactional(readOnly = true)
+    public List<TareaResumen> listarResumenTareasPorProyecto(Long proyectoId) {
+        return tareaRepository.buscarResumenPorProyecto(proyectoId);
+    }
+
+    /**
+     * Recorre el resumen de las tareas de un proyecto con un cursor, sin cargar la lista (renderizado por bloques).
+     */
+    @Transactional(readOnly = true)
+    public void recorrerResumenTareasPorProyecto(Long proyectoId, Consumer<TareaResumen> consumidor) {
+        try (Stream<TareaResumen> filas = tareaRepository.streamResumen(null, null, null, proyectoId)) {
+            filas.forEach(consumidor);
+        }
+    }
+
     /**
      * Obtener una tarea por su ID.
      */
@@ -49,55 +167,137 @@ public class TareaService {
     }
 
     /**
-     * Guardar una nueva tarea con validaciones.
+     * Guardar una nueva tarea con validaciones en el proyecto que trae asignado.
+     * @return Tarea guardada (con su ID asignado).
      */
-    public void guardarTarea(Tarea tarea) {
-        if (tarea.getTitulo() == null || tarea.getTitulo().trim().isEmpty()) {
-            throw new IllegalArgumentException("El título de la tarea no puede estar vacío.");
+    @Transactional
+    public Tarea guardarTarea(Tarea tarea) {
+        if (tarea.getProyecto() == null || tarea.getProyecto().getId() == null) {
+            throw new IllegalArgumentException("La tarea debe estar asociada a un proyecto válido.");
         }
+        return guardarTarea(tarea.getProyecto().getId(), tarea);
+    }
 
-        if (tarea.getProyecto() == null || tarea.getProyecto().getId() == null) {
+    /**
+     * Guardar una nueva tarea con validaciones en el proyecto indicado.
+     * El proyecto no se lee: se asigna por referencia y la clave foránea comprueba que existe
+     * al hacer el INSERT, que es la única consulta de la operación.
+     * @return Tarea guardada (con su ID y versión asignados).
+     */
+    @Transactional
+    public Tarea guardarTarea(Long proyectoId, Tarea tarea) {
+        validarTitulo(tarea.getTitulo());
+        if (proyectoId == null) {
             throw new IllegalArgumentException("La tarea debe estar asociada a un proyecto válido.");
         }
 
-        Long proyectoId = tarea.getProyecto().getId();
-        Proyecto proyecto = proyectoRepository.findById(proyectoId)
-                .orElseThrow(() -> new EntityNotFoundException("Proyecto no encontrado con ID: " + proyectoId));
+        tarea.setProyecto(proyectoRepository.getReferenceById(proyectoId));
+        Tarea guardada;
+        try {
+            guardada = tareaRepository.save(tarea);
+        } catch (DataIntegrityViolationException e) {
+            if (!proyectoRepository.existsById(proyectoId)) { // Solo en caso de error se consulta el proyecto
+                throw new EntityNotFoundException("Proyecto no encontrado con ID: " + proyectoId);
+            }
+            throw e;
+        }
+        contadoresTareasService.registrarCambio(proyectoId, null, guardada.getEstado());
+        busquedaTareasService.indexar(guardada.getId(), proyectoId, guardada.getTitulo(), guardada.getDescripcion());
+        vencimientosService.programar(guardada.getId(), proyectoId, guardada.getTitulo(), guardada.getFechaLimite(),
+                guardada.getEstado(), true);
+        bandejaSalidaService.registrar(Agregado.TAREA, guardada.getId(), Tipo.CREADO,
+                new CambioTarea(null, TareaJson.desde(guardada)));
+        return guardada;
+    }
 
-        tarea.setProyecto(proyecto);
-        tareaRepository.save(tarea);
+    /**
+     * Valida el título de una tarea (obligatorio). Se comparte con la importación masiva.
+     */
+    public static void validarTitulo(String titulo) {
+        if (titulo == null || titulo.trim().isEmpty()) {
+            throw new IllegalArgumentException("El título de la tarea no puede estar vacío.");
+        }
     }
 
     /**
-     * Actualizar una tarea existente con validaciones.
+     * Actualizar una tarea existente con validaciones (el proyecto no cambia).
+     * Cuesta dos consultas: la lectura de la cabecera (estado y fecha anteriores para contadores y avisos)
+     * y un UPDATE condicionado a la versión, que detecta las modificaciones concurrentes.
+     * @param versionEsperada Versión que vio el usuario al editar (null = la leída ahora).
+     * @return La tarea tal como ha quedado, con su nueva versión.
+     * @throws OptimisticLockingFailureException Si otro usuario ha modificado la tarea.
      */
-    public void actualizarTarea(Long id, Tarea tareaActualizada) {
-        Tarea tareaExistente = obtenerTareaPorId(id);
+    @Transactional
+    public TareaJson actualizarTarea(Long id, Tarea tareaActualizada, Long versionEsperada) {
+        validarTitulo(tareaActualizada.getTitulo());
 
-        if (tareaActualizada.getTitulo() == null || tareaActualizada.getTitulo().trim().isEmpty()) {
-            throw new IllegalArgumentException("El título de la tarea no puede estar vacío.");
+        TareaCabecera actual = obtenerCabecera(id);
+        long version = (versionEsperada != null) ? versionEsperada : actual.version();
+        if (version != actual.version()
+                || tareaRepository.actualizarSiVersion(id, version, tareaActualizada.getTitulo(),
+                        tareaActualizada.getDescripcion(), tareaActualizada.getFechaLimite(),
+                        tareaActualizada.getEstado()) == 0) {
+            throw modificadaPorOtro(id);
         }
 
-        tareaActualizada.setProyecto(tareaExistente.getProyecto()); // Mantener el mismo proyecto
+        EstadoTarea estado = tareaActualizada.getEstado();
+        contadoresTareasService.registrarCambio(actual.proyectoId(), actual.estado(), estado);
+        busquedaTareasService.indexar(id, actual.proyectoId(), tareaActualizada.getTitulo(),
+                tareaActualizada.getDescripcion());
+        boolean plazoCambiado = !Objects.equals(actual.fechaLimite(), tareaActualizada.getFechaLimite())
+                || (actual.estado() == EstadoTarea.COMPLETADA && estado != EstadoTarea.COMPLETADA);
+        vencimientosService.programar(id, actual.proyectoId(), tareaActualizada.getTitulo(),
+                tareaActualizada.getFechaLimite(), estado, plazoCambiado);
 
-        tareaExistente.setTitulo(tareaActualizada.getTitulo());
-        tareaExistente.setDescripcion(tareaActualizada.getDescripcion());
-        tareaExistente.setFechaLimite(tareaActualizada.getFechaLimite());
-        tareaExistente.setEstado(tareaActualizada.getEstado());
+        TareaJson actualizada = new TareaJson(id, tareaActualizada.getTitulo(), tareaActualizada.getDescripcion(),
+                tareaActualizada.getFechaLimite(), estado, actual.proyectoId(), version + 1);
+        bandejaSalidaService.registrar(Agregado.TAREA, id, Tipo.MODIFICADO, new CambioTarea(actual, actualizada));
+        return actualizada;
+    }
 
-        tareaRepository.save(tareaExistente);
+    /**
+     * Eliminar una tarea si está en estado "Pendiente".
+     * @return ID del proyecto al que pertenecía la tarea.
+     */
+    @Transactional
+    public Long eliminarTarea(Long id) {
+        return eliminarTarea(id, null);
     }
 
     /**
      * Eliminar una tarea si está en estado "Pendiente".
+     * El DELETE lleva la regla y la versión en su condición, de modo que una tarea que otro usuario
+     * haya pasado a "En curso" entre la lectura y el borrado no llega a borrarse.
+     * @param versionEsperada Versión que vio el usuario (null = la leída ahora).
+     * @return ID del proyecto al que pertenecía la tarea.
+     * @throws OptimisticLockingFailureException Si otro usuario ha modificado la tarea.
      */
-    public void eliminarTarea(Long id) {
-        Tarea tarea = obtenerTareaPorId(id);
+    @Transactional
+    public Long eliminarTarea(Long id, Long versionEsperada) {
+        TareaCabecera actual = obtenerCabecera(id);
 
-        if (tarea.getEstado() == EstadoTarea.EN_CURSO || tarea.getEstado() == EstadoTarea.COMPLETADA) {
+        if (actual.estado() == EstadoTarea.EN_CURSO || actual.estado() == EstadoTarea.COMPLETADA) {
             throw new IllegalStateException("No se puede eliminar una tarea en curso o completada.");
         }
+        if ((versionEsperada != null && versionEsperada != actual.version())
+                || tareaRepository.eliminarSiPendiente(id, actual.version()) == 0) {
+            throw modificadaPorOtro(id);
+        }
+
+        contadoresTareasService.registrarCambio(actual.proyectoId(), actual.estado(), null);
+        busquedaTareasService.eliminar(id);
+        vencimientosService.cancelar(id);
+        bandejaSalidaService.registrar(Agregado.TAREA, id, Tipo.ELIMINADO, Map.of("proyectoId", actual.proyectoId()));
+        return actual.proyectoId();
+    }
+
+    private TareaCabecera obtenerCabecera(Long id) {
+        return tareaRepository.buscarCabecera(id)
+                .orElseThrow(() -> new EntityNotFoundException("Tarea no encontrada con ID: " + id));
+    }
 
-        tareaRepository.deleteById(id);
+    private static OptimisticLockingFailureException modificadaPorOtro(Long id) {
+        return new OptimisticLockingFailureException(
+                "La tarea con ID " + id + " ha sido modificada por otro usuario. Vuelva a cargarla.");
     }
 }
@@ -0,0 +1,272 @@
+package com.example.crudusuario.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.crudusuario.dto.ResultadoTransicion;
+import com.example.crudusuario.dto.ResultadoTransicion.Resultado;
+import com.example.crudusuario.dto.ResultadoTransicion.ResultadoTarea;
+import com.example.crudusuario.dto.TransicionPeticion;
+import com.example.crudusuario.eventos.EventoDominio.Agregado;
+import com.example.crudusuario.eventos.EventoDominio.CambioEstadoTarea;
+import com.example.crudusuario.eventos.EventoDominio.Tipo;
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.repository.ProyectoRepository;
+import com.example.crudusuario.service.BandejaSalidaService.Nuevo;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Cambio de estado de muchas tareas a la vez (p. ej. pasar a COMPLETADA las tareas de un sprint).
+ *
+ * Las tareas se procesan en lotes de tamanioLote, cada uno en su propia transacción y con dos sentencias:
+ * un SELECT ... FOR UPDATE que lee y bloquea las filas del lote y un único UPDATE con todas las que cambian.
+ * El bloqueo evita que una edición concurrente se cuele entre la lectura y el UPDATE, así que el resultado
+ * de cada tarea es exacto sin comprobar versiones fila a fila. Las versiones se incrementan igual que en
+ * TareaService.actualizarTarea, de modo que los formularios y ETags abiertos detectan el cambio.
+ *
+ * Contadores, avisos de vencimiento y eventos de dominio (ESTADO_CAMBIADO, uno por tarea) se registran como en
+ * la edición individual, agrupados por lote.
+ * El índice de búsqueda no guarda el estado y no se toca. Se usa JDBC directo como en ImportacionTareasService.
+ */
+@Service
+public class TransicionesTareasService {
+
+    private static final String SQL_COLUMNAS = "SELECT id, proyecto_id, titulo, estado, fecha_limite, version FROM tareas ";
+    private static final String SQL_POR_IDS = SQL_COLUMNAS + "WHERE id IN (:ids) FOR UPDATE";
+    private static final String SQL_POR_PROYECTO = SQL_COLUMNAS
+            + "WHERE proyecto_id = :proyectoId AND estado = :estado AND id > :despuesDeId ORDER BY id LIMIT :limite FOR UPDATE";
+    private static final String SQL_UPDATE = "UPDATE tareas SET estado = :estado, version = version + 1 WHERE id IN (:ids)";
+
+    private static final RowMapper<Fila> MAPEO_FILA = (rs, n) -> {
+        String estado = rs.getString("estado");
+        return new Fila(rs.getLong("id"), rs.getLong("proyecto_id"), rs.getString("titulo"),
+                (estado != null) ? EstadoTarea.valueOf(estado) : null, rs.getObject("fecha_limite", LocalDate.class),
+                rs.getLong("version"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProyectoRepository proyectoRepository;
+    private final ContadoresTareasService contadoresTareasService;
+    private final VencimientosService vencimientosService;
+    private final BandejaSalidaService bandejaSalidaService;
+    private final int tamanioLote;
+    private final int maximoIds;
+
+    public TransicionesTareasService(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                     ProyectoRepository proyectoRepository,
+                                     ContadoresTareasService contadoresTareasService,
+                                     VencimientosService vencimientosService,
+                                     BandejaSalidaService bandejaSalidaService,
+                                     @Value("${app.transiciones.tamanio-lote:1000}") int tamanioLote,
+                                     @Value("${app.transiciones.maximo-ids:10000}") int maximoIds) {
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("app.transiciones.tamanio-lote debe ser mayor que cero.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.proyectoRepository = proyectoRepository;
+        this.contadoresTareasService = contadoresTareasService;
+        this.vencimientosService = vencimientosService;
+        this.bandejaSalidaService = bandejaSalidaService;
+        this.tamanioLote = tamanioLote;
+        this.maximoIds = maximoIds;
+    }
+
+    /**
+     * Aplica una petición del API o del formulario: por filtro (proyecto y estado actual) si indica
+     * el estado actual, por IDs si no.
+     */
+    public ResultadoTransicion cambiarEstado(TransicionPeticion peticion) {
+        return (peticion.estadoActual() != null)
+                ? cambiarEstado(peticion.proyectoId(), peticion.estadoActual(), peticion.estado())
+                : cambiarEstado(peticion.ids(), peticion.estado());
+    }
+
+    /**
+     * Pasa las tareas indicadas al estado nuevo.
+     * Los IDs repetidos se procesan una vez; los que no existen se devuelven como NO_ENCONTRADA.
+     * @param ids Hasta app.transiciones.maximo-ids tareas.
+     */
+    public ResultadoTransicion cambiarEstado(Collection<Long> ids, EstadoTarea nuevo) {
+        validarEstado(nuevo);
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos una tarea.");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Los IDs de tarea no pueden ser nulos.");
+        }
+        Set<Long> pendientes = new LinkedHashSet<>(ids);
+        if (pendientes.size() > maximoIds) {
+            throw new IllegalArgumentException("No se pueden cambiar más de " + maximoIds + " tareas a la vez.");
+        }
+
+        Acumulado acumulado = new Acumulado(pendientes.size());
+        List<Long> lote = new ArrayList<>(Math.min(tamanioLote, pendientes.size()));
+        for (Long id : pendientes) {
+            lote.add(id);
+            if (lote.size() == tamanioLote) {
+                procesarLotePorIds(lote, nuevo, acumulado);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            procesarLotePorIds(lote, nuevo, acumulado);
+        }
+        return acumulado.resultado(nuevo);
+    }
+
+    /**
+     * Pasa al estado nuevo todas las tareas de un proyecto que están en el estado actual.
+     * Las tareas se recorren por ID, de modo que las que cambian a ese estado mientras dura la operación
+     * en un lote ya procesado no se incluyen.
+     */
+    public ResultadoTransicion cambiarEstado(Long proyectoId, EstadoTarea actual, EstadoTarea nuevo) {
+        validarEstado(nuevo);
+        if (actual == null) {
+            throw new IllegalArgumentException("Debe indicar el estado actual de las tareas.");
+        }
+        if (actual == nuevo) {
+            throw new IllegalArgumentException("El estado nuevo debe ser distinto del actual.");
+        }
+        if (proyectoId == null || !proyectoRepository.existsById(proyectoId)) {
+            throw new EntityNotFoundException("Proyecto no encontrado con ID: " + proyectoId);
+        }
+
+        Acumulado acumulado = new Acumulado(tamanioLote);
+        long despuesDeId = 0;
+        int leidas;
+        do {
+            MapSqlParameterSource parametros = new MapSqlParameterSource("proyectoId", proyectoId)
+                    .addValue("estado", actual.name())
+                    .addValue("despuesDeId", despuesDeId)
+                    .addValue("limite", tamanioLote);
+            List<Fila> filas = transactionTemplate.execute(estado -> {
+                List<Fila> bloqueadas = jdbcTemplate.query(SQL_POR_PROYECTO, parametros, MAPEO_FILA);
+                aplicar(bloqueadas, nuevo);
+                return bloqueadas;
+            });
+            filas.forEach(fila -> acumulado.cambiada(fila.id(), fila.version() + 1));
+            leidas = filas.size();
+            if (leidas > 0) {
+                despuesDeId = filas.get(leidas - 1).id();
+            }
+        } while (leidas == tamanioLote);
+        return acumulado.resultado(nuevo);
+    }
+
+    private void procesarLotePorIds(List<Long> ids, EstadoTarea nuevo, Acumulado acumulado) {
+        Map<Long, Fila> porId = transactionTemplate.execute(estado -> {
+            Map<Long, Fila> bloqueadas = new HashMap<>();
+            jdbcTemplate.query(SQL_POR_IDS, new MapSqlParameterSource("ids", ids), MAPEO_FILA)
+                    .forEach(fila -> bloqueadas.put(fila.id(), fila));
+            aplicar(bloqueadas.values().stream().filter(fila -> fila.estado() != nuevo).toList(), nuevo);
+            return bloqueadas;
+        });
+
+        for (Long id : ids) {
+            Fila fila = porId.get(id);
+            if (fila == null) {
+                acumulado.noEncontrada(id);
+            } else if (fila.estado() == nuevo) {
+                acumulado.sinCambios(id, fila.version());
+            } else {
+                acumulado.cambiada(id, fila.version() + 1);
+            }
+        }
+    }
+
+    /**
+     * Cambia de estado las filas (ya bloqueadas) en un solo UPDATE y registra contadores, avisos y eventos.
+     * Debe llamarse dentro de la transacción del lote.
+     */
+    private void aplicar(List<Fila> cambian, EstadoTarea nuevo) {
+        if (cambian.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(SQL_UPDATE, new MapSqlParameterSource("estado", nuevo.name())
+                .addValue("ids", cambian.stream().map(Fila::id).toList()));
+
+        Map<Long, Map<EstadoTarea, Long>> variaciones = new HashMap<>();
+        List<Nuevo> eventos = new ArrayList<>(cambian.size());
+        for (Fila fila : cambian) {
+            Map<EstadoTarea, Long> delProyecto = variaciones.computeIfAbsent(fila.proyectoId(),
+                    p -> new EnumMap<>(EstadoTarea.class));
+            if (fila.estado() != null) {
+                delProyecto.merge(fila.estado(), -1L, Long::sum);
+            }
+            delProyecto.merge(nuevo, 1L, Long::sum);
+
+            // Igual que en la edición: entrar o salir de COMPLETADA quita o vuelve a poner los avisos
+            if (nuevo == EstadoTarea.COMPLETADA || fila.estado() == EstadoTarea.COMPLETADA) {
+                vencimientosService.programar(fila.id(), fila.proyectoId(), fila.titulo(), fila.fechaLimite(), nuevo,
+                        fila.estado() == EstadoTarea.COMPLETADA);
+            }
+            eventos.add(new Nuevo(Agregado.TAREA, fila.id(), Tipo.ESTADO_CAMBIADO,
+                    new CambioEstadoTarea(fila.proyectoId(), fila.estado(), nuevo, fila.version() + 1)));
+        }
+        variaciones.forEach(contadoresTareasService::registrarVariaciones);
+        bandejaSalidaService.registrar(eventos);
+    }
+
+    private static void validarEstado(EstadoTarea nuevo) {
+        if (nuevo == null) {
+            throw new IllegalArgumentException("Debe indicar el estado nuevo de las tareas.");
+        }
+    }
+
+    /**
+     * Columnas de una tarea que necesita el cambio de estado.
+     */
+    private record Fila(long id, long proyectoId, String titulo, EstadoTarea estado, LocalDate fechaLimite, long version) {
+    }
+
+    /**
+     * Resultados por tarea y totales de la operación completa.
+     */
+    private static final class Acumulado {
+
+        private final List<ResultadoTarea> tareas;
+        private long cambiadas;
+        private long sinCambios;
+        private long noEncontradas;
+
+        Acumulado(int capacidad) {
+            this.tareas = new ArrayList<>(capacidad);
+        }
+
+        void cambiada(long id, long version) {
+            tareas.add(new ResultadoTarea(id, Resultado.CAMBIADA, version));
+            cambiadas++;
+        }
+
+        void sinCambios(long id, long version) {
+            tareas.add(new ResultadoTarea(id, Resultado.SIN_CAMBIOS, version));
+            sinCambios++;
+        }
+
+        void noEncontrada(long id) {
+            tareas.add(new ResultadoTarea(id, Resultado.NO_ENCONTRADA, null));
+            noEncontradas++;
+        }
+
+        ResultadoTransicion resultado(EstadoTarea estado) {
+            return new ResultadoTransicion(estado, cambiadas, sinCambios, noEncontradas, tareas);
+        }
+    }
+}
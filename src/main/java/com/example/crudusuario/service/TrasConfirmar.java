@@ -0,0 +1,29 @@
+package com.example.crudusuario.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidad para aplicar efectos en memoria (contadores, índices) solo cuando la transacción
+ * actual confirma, de modo que una transacción revertida no los deje desfasados.
+ */
+final class TrasConfirmar {
+
+    private TrasConfirmar() {}
+
+    /**
+     * Ejecuta la acción tras el commit de la transacción actual, o al momento si no hay transacción.
+     */
+    static void ejecutar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
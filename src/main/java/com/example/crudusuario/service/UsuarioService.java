@@ -2,46 +2,75 @@ package com.example.crudusuario.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.crudusuario.dto.UsuarioResumen;
+import com.example.crudusuario.eventos.EventoDominio.Agregado;
+import com.example.crudusuario.eventos.EventoDominio.Tipo;
 import com.example.crudusuario.model.Usuario;
 import com.example.crudusuario.repository.UsuarioRepository;
+import com.example.crudusuario.security.CacheUsuarios;
 
 @Service
-public class UsuarioService implements UserDetailsService {
+public class UsuarioService implements UserDetailsService, UserDetailsPasswordService {
     
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheUsuarios cacheUsuarios;
+    private final BandejaSalidaService bandejaSalidaService;
 
     /**
-     * Constructor con inyección de dependencias para manejar el repositorio de usuarios
-     * y la encriptación de contraseñas.
+     * Constructor con inyección de dependencias para manejar el repositorio de usuarios,
+     * la encriptación de contraseñas, la caché de autenticación y la bandeja de eventos.
      */
-    public UsuarioService(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder) {
+    public UsuarioService(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder,
+                          CacheUsuarios cacheUsuarios, BandejaSalidaService bandejaSalidaService) {
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
+        this.cacheUsuarios = cacheUsuarios;
+        this.bandejaSalidaService = bandejaSalidaService;
     }
 
     /**
      * Método de Spring Security para cargar un usuario por su username.
-     * Se utiliza en la autenticación del sistema.
+     * Se utiliza en la autenticación del sistema. Consulta primero la caché de usuarios
+     * y solo va a la base de datos en caso de fallo.
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Usuario usuario = usuarioRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + username));
-        
-        return User.builder()
-                .username(usuario.getUsername())
-                .password(usuario.getPassword()) // La contraseña ya debe estar encriptada
-                .authorities(usuario.getRole())  // Define los roles del usuario
-                .build();
+        CacheUsuarios.Credenciales credenciales = cacheUsuarios.obtener(username, nombre ->
+                usuarioRepository.findByUsername(nombre)
+                        .map(u -> new CacheUsuarios.Credenciales(u.getUsername(), u.getPassword(), u.getRole())));
+        if (credenciales == null) {
+            throw new UsernameNotFoundException("Usuario no encontrado: " + username);
+        }
+        return credenciales.toUserDetails(); // Se construye una copia nueva en cada autenticación
+    }
+
+    /**
+     * Método de Spring Security para regenerar el hash de un usuario tras un login correcto
+     * cuando su coste de BCrypt es inferior al configurado. No publica evento: los datos visibles no cambian.
+     * @param user Usuario autenticado.
+     * @param newPassword Nuevo hash, ya calculado por el PasswordEncoder.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        usuarioRepository.findByUsername(user.getUsername()).ifPresent(usuario -> {
+            usuario.setPassword(newPassword);
+            usuarioRepository.save(usuario);
+        });
+        cacheUsuarios.invalidar(user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
     }
 
     /**
@@ -50,9 +79,13 @@ public class UsuarioService implements UserDetailsService {
      * @param usuario Datos del usuario a registrar.
      * @return Usuario registrado.
      */
+    @Transactional
     public Usuario registrarUsuario(Usuario usuario) {
         usuario.setPassword(passwordEncoder.encode(usuario.getPassword())); // Encriptar la contraseña
-        return usuarioRepository.save(usuario);
+        Usuario guardado = usuarioRepository.saveAndFlush(usuario);
+        invalidarTrasConfirmar(guardado.getUsername());
+        bandejaSalidaService.registrar(Agregado.USUARIO, guardado.getId(), Tipo.CREADO, resumen(guardado));
+        return guardado;
     }
 
     /**
@@ -69,10 +102,22 @@ public class UsuarioService implements UserDetailsService {
      * Lista todos los usuarios registrados en el sistema.
      * @return Lista de usuarios.
      */
+    @Transactional(readOnly = true)
     public List<Usuario> listarUsuarios() {
         return usuarioRepository.findAll();
     }
 
+    /**
+     * Recorre todos los usuarios (sin la contraseña) con un cursor, para el listado renderizado por bloques.
+     * @param consumidor Recibe los usuarios en orden de ID, dentro de la transacción de lectura.
+     */
+    @Transactional(readOnly = true)
+    public void recorrerUsuarios(Consumer<UsuarioResumen> consumidor) {
+        try (Stream<UsuarioResumen> usuarios = usuarioRepository.streamResumen()) {
+            usuarios.forEach(consumidor);
+        }
+    }
+
     /**
      * Obtiene un usuario por su ID.
      * @param id ID del usuario a buscar.
@@ -87,14 +132,19 @@ public class UsuarioService implements UserDetailsService {
      * @param id ID del usuario a actualizar.
      * @param usuarioActualizado Datos nuevos del usuario.
      */
+    @Transactional
     public void actualizarUsuario(Long id, Usuario usuarioActualizado) {
         Optional<Usuario> usuarioOpt = usuarioRepository.findById(id);
         if (usuarioOpt.isPresent()) {
             Usuario usuario = usuarioOpt.get();
+            String usernameAnterior = usuario.getUsername();
             usuario.setUsername(usuarioActualizado.getUsername()); // Actualiza el nombre de usuario
             usuario.setPassword(passwordEncoder.encode(usuarioActualizado.getPassword())); // Actualiza la contraseña encriptada
             usuario.setRole(usuarioActualizado.getRole()); // Actualiza el rol del usuario
-            usuarioRepository.save(usuario);
+            usuarioRepository.saveAndFlush(usuario); // El evento va detrás del cambio (orden por ID)
+            invalidarTrasConfirmar(usernameAnterior); // El username puede haber cambiado
+            invalidarTrasConfirmar(usuario.getUsername());
+            bandejaSalidaService.registrar(Agregado.USUARIO, id, Tipo.MODIFICADO, resumen(usuario));
         } else {
             throw new UsernameNotFoundException("No se encontró el usuario con ID: " + id);
         }
@@ -104,7 +154,29 @@ public class UsuarioService implements UserDetailsService {
      * Elimina un usuario del sistema por su ID.
      * @param id ID del usuario a eliminar.
      */
+    @Transactional
     public void eliminarUsuario(Long id) {
+        Optional<String> username = usuarioRepository.findUsernameById(id);
         usuarioRepository.deleteById(id);
+        usuarioRepository.flush();
+        username.ifPresent(nombre -> {
+            invalidarTrasConfirmar(nombre);
+            bandejaSalidaService.registrar(Agregado.USUARIO, id, Tipo.ELIMINADO, null);
+        });
+    }
+
+    /**
+     * Invalida la caché de autenticación cuando la transacción confirma: si se invalidara antes, un login
+     * intermedio volvería a cachear la fila anterior (contraseña, rol o usuario borrado) hasta su caducidad.
+     */
+    private void invalidarTrasConfirmar(String username) {
+        TrasConfirmar.ejecutar(() -> cacheUsuarios.invalidar(username));
+    }
+
+    /**
+     * Datos del usuario que viajan en sus eventos (nunca la contraseña).
+     */
+    private static UsuarioResumen resumen(Usuario usuario) {
+        return new UsuarioResumen(usuario.getId(), usuario.getUsername(), usuario.getRole());
     }
 }
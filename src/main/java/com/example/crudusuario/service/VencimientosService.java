@@ -0,0 +1,366 @@
+package com.example.crudusuario.service;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.example.crudusuario.dto.CalendarioMes;
+import com.example.crudusuario.dto.TareaResumen;
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.repository.TareaRepository;
+import com.example.crudusuario.vencimientos.AvisoVencimiento;
+import com.example.crudusuario.vencimientos.RuedaVencimientos;
+import com.example.crudusuario.vencimientos.RuedaVencimientos.Entrada;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Consultas por fecha límite (calendario, vencidas, próximas) y avisos de vencimiento.
+ *
+ * Los avisos se generan con una rueda temporal ({@link RuedaVencimientos}) que solo contiene las tareas
+ * no completadas cuya fecha límite cae en una ventana de días a partir de ayer. Cada día que entra en la
+ * ventana se carga con una consulta de rango sobre el índice (fecha_limite, estado); nunca se recorre
+ * la tabla completa. Las altas, ediciones y bajas de TareaService reprograman la tarea al confirmar.
+ *
+ * Se publican eventos {@link AvisoVencimiento}:
+ * - PROXIMA cuando faltan como mucho antelacion-dias para la fecha límite.
+ * - VENCIDA el día siguiente a la fecha límite (o al editar una tarea con una fecha ya pasada). Si una revisión
+ *   se retrasa varios días, se avisa de todos los días que la ventana deja atrás; al arrancar, de los últimos
+ *   dias-recuperacion días, que pudieron pasar con la aplicación parada.
+ * Los avisos enviados se recuerdan en memoria, por lo que tras un reinicio pueden repetirse una vez.
+ */
+@Service
+public class VencimientosService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(VencimientosService.class);
+    private static final int MAXIMO_TAREAS_LISTADO = 2000; // Calendario y listados de la vista
+
+    private final TareaRepository tareaRepository;
+    private final ApplicationEventPublisher publicador;
+    private final Clock reloj;
+    private final int antelacionDias;
+    private final int diasRecuperacion;
+    private final RuedaVencimientos rueda; // Protegida por this
+    private Set<Long> tocadasDuranteCarga; // Protegido por this; null si no se está cargando
+    private boolean recargaPendiente; // Protegido por this; la última carga falló
+    private final Counter avisosProximas;
+    private final Counter avisosVencidas;
+    private final ScheduledExecutorService planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "vencimientos");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    @Autowired
+    public VencimientosService(TareaRepository tareaRepository, ApplicationEventPublisher publicador,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.vencimientos.ventana-dias:14}") int ventanaDias,
+                               @Value("${app.vencimientos.antelacion-dias:2}") int antelacionDias,
+                               @Value("${app.vencimientos.dias-recuperacion:7}") int diasRecuperacion) {
+        this(tareaRepository, publicador, meterRegistry, ventanaDias, antelacionDias, diasRecuperacion,
+                Clock.systemDefaultZone());
+    }
+
+    VencimientosService(TareaRepository tareaRepository, ApplicationEventPublisher publicador,
+                        MeterRegistry meterRegistry, int ventanaDias, int antelacionDias, int diasRecuperacion,
+                        Clock reloj) {
+        if (antelacionDias < 0 || ventanaDias <= antelacionDias) {
+            throw new IllegalArgumentException("app.vencimientos.ventana-dias debe ser mayor que app.vencimientos.antelacion-dias.");
+        }
+        this.tareaRepository = tareaRepository;
+        this.publicador = publicador;
+        this.reloj = reloj;
+        this.antelacionDias = antelacionDias;
+        this.diasRecuperacion = Math.max(diasRecuperacion, 0);
+        this.rueda = new RuedaVencimientos(ventanaDias + 1); // Desde ayer (avisos de vencida) hasta hoy + ventana
+        this.avisosProximas = Counter.builder("tareas.vencimientos.avisos").tag("tipo", "proxima")
+                .description("Avisos de tareas a punto de vencer").register(meterRegistry);
+        this.avisosVencidas = Counter.builder("tareas.vencimientos.avisos").tag("tipo", "vencida")
+                .description("Avisos de tareas vencidas").register(meterRegistry);
+    }
+
+    /**
+     * Tareas de un mes agrupadas por día de fecha límite (incluidas las completadas).
+     */
+    public CalendarioMes calendario(YearMonth mes) {
+        LocalDate primerDia = mes.atDay(1);
+        LocalDate ultimoDia = mes.atEndOfMonth();
+        List<TareaResumen> tareas = tareaRepository.buscarPorFechaLimite(primerDia, ultimoDia, null,
+                Limit.of(MAXIMO_TAREAS_LISTADO + 1));
+        boolean truncado = tareas.size() > MAXIMO_TAREAS_LISTADO;
+
+        Map<LocalDate, List<TareaResumen>> porDia = new LinkedHashMap<>();
+        for (TareaResumen tarea : truncado ? tareas.subList(0, MAXIMO_TAREAS_LISTADO) : tareas) {
+            porDia.computeIfAbsent(tarea.fechaLimite(), d -> new ArrayList<>()).add(tarea);
+        }
+
+        List<List<LocalDate>> semanas = new ArrayList<>();
+        LocalDate dia = primerDia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        while (!dia.isAfter(ultimoDia)) {
+            List<LocalDate> semana = new ArrayList<>(7);
+            for (int i = 0; i < 7; i++) {
+                semana.add(dia);
+                dia = dia.plusDays(1);
+            }
+            semanas.add(semana);
+        }
+        return new CalendarioMes(mes, semanas, porDia, truncado);
+    }
+
+    /**
+     * Tareas no completadas con fecha límite anterior a hoy, de la más antigua a la más reciente.
+     */
+    public List<TareaResumen> listarVencidas() {
+        return tareaRepository.buscarVencidas(hoy(), EstadoTarea.COMPLETADA, Limit.of(MAXIMO_TAREAS_LISTADO));
+    }
+
+    /**
+     * Tareas no completadas que vencen entre hoy y dentro de los días indicados.
+     */
+    public List<TareaResumen> listarProximas(int dias) {
+        LocalDate hoy = hoy();
+        return tareaRepository.buscarPorFechaLimite(hoy, hoy.plusDays(Math.max(dias, 0)), EstadoTarea.COMPLETADA,
+                Limit.of(MAXIMO_TAREAS_LISTADO));
+    }
+
+    public int getAntelacionDias() {
+        return antelacionDias;
+    }
+
+    /**
+     * Reprograma los avisos de una tarea cuando confirme la transacción actual.
+     * Debe llamarse dentro de la transacción que guarda la tarea.
+     * @param plazoCambiado true si es una tarea nueva, si ha cambiado su fecha límite o si ha dejado de
+     *                      estar completada: solo entonces se avisa al momento de que ya ha vencido.
+     */
+    public void programar(Long id, Long proyectoId, String titulo, LocalDate fechaLimite, EstadoTarea estado,
+                          boolean plazoCambiado) {
+        TrasConfirmar.ejecutar(() -> {
+            if (fechaLimite == null || estado == EstadoTarea.COMPLETADA) {
+                quitar(id);
+            } else {
+                reprogramar(new Entrada(id, proyectoId, titulo, fechaLimite), plazoCambiado);
+            }
+        });
+    }
+
+    /**
+     * Quita una tarea borrada del planificador cuando confirme la transacción actual.
+     */
+    public void cancelar(Long id) {
+        TrasConfirmar.ejecutar(() -> quitar(id));
+    }
+
+    private synchronized void quitar(long id) {
+        anotarCambio(id);
+        rueda.cancelar(id);
+    }
+
+    /**
+     * Anota un cambio confirmado mientras se carga la ventana. Con el bloqueo tomado.
+     */
+    private void anotarCambio(long id) {
+        if (tocadasDuranteCarga != null) {
+            tocadasDuranteCarga.add(id);
+        }
+    }
+
+    /**
+     * Vuelve a cargar la ventana completa en segundo plano (tras una importación masiva).
+     */
+    public void recargar() {
+        planificador.execute(() -> avanzar(true));
+    }
+
+    /**
+     * Coloca la ventana al arrancar y la revisa cada hora; al cambiar de día se cargan los días
+     * que entran y se envían los avisos pendientes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        planificador.scheduleWithFixedDelay(() -> avanzar(false), 0, 1, TimeUnit.HOURS);
+    }
+
+    /**
+     * La consulta se hace sin el bloqueo, para no detener las reprogramaciones de las peticiones: mientras
+     * dura se anotan las tareas que cambian y, al incorporar las filas, esas se saltan (su cambio es más
+     * reciente que la fila leída). Visible en el paquete para las pruebas.
+     */
+    void avanzar(boolean recargarTodo) {
+        try {
+            LocalDate hoy = hoy();
+            LocalDate nuevoInicio = hoy.minusDays(1);
+            List<AvisoVencimiento> avisos = new ArrayList<>();
+            LocalDate cargarDesde;
+            LocalDate cargarHasta;
+            LocalDate huecoDesde = null;
+            synchronized (this) {
+                LocalDate inicioAnterior = rueda.getInicio();
+                LocalDate finAnterior = rueda.getFin();
+                if (inicioAnterior == null) {
+                    huecoDesde = nuevoInicio.minusDays(diasRecuperacion);
+                } else if (nuevoInicio.isAfter(inicioAnterior)) {
+                    // Días que salen de la ventana sin haber sido "ayer" en una revisión (revisión retrasada)
+                    for (LocalDate dia = inicioAnterior; dia.isBefore(nuevoInicio) && dia.isBefore(finAnterior);
+                            dia = dia.plusDays(1)) {
+                        avisosVencidas(dia, avisos);
+                    }
+                    huecoDesde = max(finAnterior, nuevoInicio.minusDays(diasRecuperacion)); // Saltados por completo
+                }
+                cargarDesde = rueda.avanzarA(nuevoInicio);
+                if (recargarTodo || recargaPendiente) {
+                    cargarDesde = rueda.getInicio();
+                }
+                cargarHasta = rueda.getFin().minusDays(1);
+                if (cargarDesde != null) {
+                    tocadasDuranteCarga = new HashSet<>();
+                }
+            }
+
+            List<TareaResumen> filas = List.of();
+            try {
+                if (huecoDesde != null && huecoDesde.isBefore(nuevoInicio)) {
+                    avisosDelHueco(huecoDesde, nuevoInicio.minusDays(1), avisos);
+                }
+                if (cargarDesde != null) {
+                    filas = tareaRepository.buscarPorFechaLimite(cargarDesde, cargarHasta,
+                            EstadoTarea.COMPLETADA, Limit.unlimited());
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    tocadasDuranteCarga = null;
+                    recargaPendiente |= cargarDesde != null; // Días sin cargar: se reintenta en la siguiente revisión
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                if (cargarDesde != null) {
+                    incorporar(filas);
+                    log.debug("Vencimientos cargados del {} al {}: {} tareas", cargarDesde, cargarHasta, filas.size());
+                }
+                avisosVencidas(nuevoInicio, avisos);
+                for (LocalDate dia = hoy; !dia.isAfter(hoy.plusDays(antelacionDias)); dia = dia.plusDays(1)) {
+                    for (Entrada entrada : rueda.delDia(dia)) {
+                        if (entrada.marcarAvisoProximo()) {
+                            avisos.add(aviso(AvisoVencimiento.Tipo.PROXIMA, entrada));
+                        }
+                    }
+                }
+            }
+            avisos.forEach(this::publicar);
+        } catch (RuntimeException e) {
+            log.error("Error al revisar los vencimientos de tareas", e); // Se reintenta en la siguiente revisión
+        }
+    }
+
+    /**
+     * Incorpora a la rueda las filas leídas, salvo las de tareas que han cambiado durante la consulta.
+     * Se llama con el bloqueo tomado.
+     */
+    private void incorporar(List<TareaResumen> filas) {
+        for (TareaResumen fila : filas) {
+            if (!tocadasDuranteCarga.contains(fila.id())) {
+                Entrada entrada = new Entrada(fila.id(), fila.proyectoId(), fila.titulo(), fila.fechaLimite());
+                entrada.heredarAvisos(rueda.programar(entrada));
+            }
+        }
+        tocadasDuranteCarga = null;
+        recargaPendiente = false;
+    }
+
+    /**
+     * Avisos de vencida de las tareas de la rueda cuya fecha límite es el día indicado. Con el bloqueo tomado.
+     */
+    private void avisosVencidas(LocalDate dia, List<AvisoVencimiento> avisos) {
+        for (Entrada entrada : rueda.delDia(dia)) {
+            if (entrada.marcarAvisoVencido()) {
+                avisos.add(aviso(AvisoVencimiento.Tipo.VENCIDA, entrada));
+            }
+        }
+    }
+
+    /**
+     * Avisos de vencida de los días que la ventana ha saltado sin tenerlos cargados (aplicación parada o
+     * revisión retrasada más de una ventana), hasta dias-recuperacion días atrás. No pasan por la rueda.
+     */
+    private void avisosDelHueco(LocalDate desde, LocalDate hasta, List<AvisoVencimiento> avisos) {
+        List<TareaResumen> filas = tareaRepository.buscarPorFechaLimite(desde, hasta, EstadoTarea.COMPLETADA,
+                Limit.unlimited());
+        for (TareaResumen fila : filas) {
+            avisos.add(new AvisoVencimiento(AvisoVencimiento.Tipo.VENCIDA, fila.id(), fila.proyectoId(), fila.titulo(),
+                    fila.fechaLimite()));
+        }
+        log.debug("Avisos de vencida recuperados del {} al {}: {} tareas", desde, hasta, filas.size());
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private void reprogramar(Entrada entrada, boolean plazoCambiado) {
+        LocalDate hoy = hoy();
+        LocalDate fecha = entrada.getFechaLimite();
+        AvisoVencimiento aviso = null;
+        synchronized (this) {
+            anotarCambio(entrada.getTareaId());
+            Entrada anterior = rueda.programar(entrada);
+            if (!plazoCambiado) {
+                entrada.heredarAvisos(anterior);
+            }
+            if (fecha.isBefore(hoy)) {
+                if (plazoCambiado && entrada.marcarAvisoVencido()) {
+                    aviso = aviso(AvisoVencimiento.Tipo.VENCIDA, entrada);
+                }
+            } else if (!fecha.isAfter(hoy.plusDays(antelacionDias)) && entrada.marcarAvisoProximo()) {
+                aviso = aviso(AvisoVencimiento.Tipo.PROXIMA, entrada);
+            }
+        }
+        if (aviso != null) {
+            publicar(aviso);
+        }
+    }
+
+    private void publicar(AvisoVencimiento aviso) {
+        (aviso.tipo() == AvisoVencimiento.Tipo.PROXIMA ? avisosProximas : avisosVencidas).increment();
+        log.debug("Aviso de vencimiento {}: tarea {} ({})", aviso.tipo(), aviso.tareaId(), aviso.fechaLimite());
+        publicador.publishEvent(aviso);
+    }
+
+    private static AvisoVencimiento aviso(AvisoVencimiento.Tipo tipo, Entrada entrada) {
+        return new AvisoVencimiento(tipo, entrada.getTareaId(), entrada.getProyectoId(), entrada.getTitulo(),
+                entrada.getFechaLimite());
+    }
+
+    private LocalDate hoy() {
+        return LocalDate.now(reloj);
+    }
+
+    @Override
+    public void destroy() {
+        planificador.shutdownNow();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.crudusuario.sesion;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import com.example.crudusuario.replicas.LecturaPropia;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Envuelve el repositorio de sesiones JDBC para que una petición que solo lee no escriba la sesión
+ * y para medir lo que cuesta la sesión en cada petición.
+ *
+ * - Spring Session actualiza la hora del último acceso en cada petición, lo que supone un UPDATE por petición.
+ *   Aquí solo se actualiza si ha avanzado al menos umbralUltimoAcceso: el resto de peticiones sin cambios
+ *   en los atributos no escriben nada. A cambio, una sesión puede caducar hasta ese umbral antes de tiempo.
+ * - Publica sesion.repositorio (timer) con la etiqueta operacion: crear, leer, guardar y borrar.
+ *   El SQL de la sesión se cuenta además en sql.peticion.* junto con el de la página.
+ *
+ * El SQL de la sesión no se considera una escritura de la petición a efectos de las réplicas (ver {@link LecturaPropia}).
+ */
+public class RepositorioSesiones<S extends Session> implements SessionRepository<RepositorioSesiones.Sesion<S>>, DisposableBean {
+
+    private final SessionRepository<S> destino;
+    private final Duration umbralUltimoAcceso;
+    private final Timer crear;
+    private final Timer leer;
+    private final Timer guardar;
+    private final Timer borrar;
+
+    public RepositorioSesiones(SessionRepository<S> destino, Duration umbralUltimoAcceso, MeterRegistry meterRegistry) {
+        if (umbralUltimoAcceso.isNegative()) {
+            throw new IllegalArgumentException("El umbral del último acceso no puede ser negativo.");
+        }
+        this.destino = destino;
+        this.umbralUltimoAcceso = umbralUltimoAcceso;
+        this.crear = timer("crear", meterRegistry);
+        this.leer = timer("leer", meterRegistry);
+        this.guardar = timer("guardar", meterRegistry);
+        this.borrar = timer("borrar", meterRegistry);
+    }
+
+    @Override
+    public Sesion<S> createSession() {
+        return new Sesion<>(medir(crear, destino::createSession), umbralUltimoAcceso);
+    }
+
+    @Override
+    public void save(Sesion<S> sesion) {
+        medir(guardar, () -> {
+            destino.save(sesion.destino);
+            return null;
+        });
+    }
+
+    @Override
+    public Sesion<S> findById(String id) {
+        S sesion = medir(leer, () -> destino.findById(id));
+        return (sesion != null) ? new Sesion<>(sesion, umbralUltimoAcceso) : null;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        medir(borrar, () -> {
+            destino.deleteById(id);
+            return null;
+        });
+    }
+
+    /**
+     * Spring llama al cierre sobre este envoltorio: se propaga para parar la limpieza de sesiones caducadas.
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (destino instanceof DisposableBean desechable) {
+            desechable.destroy();
+        }
+    }
+
+    private static <T> T medir(Timer timer, Supplier<T> operacion) {
+        return timer.record(() -> LecturaPropia.fueraDePeticion(operacion));
+    }
+
+    private static Timer timer(String operacion, MeterRegistry meterRegistry) {
+        return Timer.builder("sesion.repositorio").tag("operacion", operacion)
+                .description("Tiempo de las operaciones sobre el almacén de sesiones").register(meterRegistry);
+    }
+
+    /**
+     * Sesión que ignora los avances del último acceso menores que el umbral; el resto se delega sin cambios.
+     */
+    public static final class Sesion<S extends Session> implements Session {
+
+        private final S destino;
+        private final Duration umbralUltimoAcceso;
+
+        Sesion(S destino, Duration umbralUltimoAcceso) {
+            this.destino = destino;
+            this.umbralUltimoAcceso = umbralUltimoAcceso;
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            if (Duration.between(destino.getLastAccessedTime(), lastAccessedTime).compareTo(umbralUltimoAcceso) >= 0) {
+                destino.setLastAccessedTime(lastAccessedTime);
+            }
+        }
+
+        @Override
+        public String getId() {
+            return destino.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            return destino.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return destino.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return destino.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            destino.setAttribute(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            destino.removeAttribute(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return destino.getCreationTime();
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return destino.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            destino.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return destino.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return destino.isExpired();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.crudusuario.sesion;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.core.serializer.support.SerializationFailedException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Serializa los atributos de sesión para guardarlos en la base de datos: serialización Java comprimida
+ * con Deflate. El contexto de seguridad (la mayor parte de la sesión) repite nombres de clases y
+ * autoridades, y comprimido ocupa en torno a la mitad.
+ *
+ * Se usa la serialización Java y no JSON para admitir cualquier atributo Serializable sin registrar tipos.
+ * Publica sesion.atributo.tamanio con los bytes guardados por atributo.
+ */
+public class SerializadorSesion {
+
+    private final ClassLoader classLoader;
+    private final DistributionSummary tamanio;
+
+    public SerializadorSesion(ClassLoader classLoader, MeterRegistry meterRegistry) {
+        this.classLoader = classLoader;
+        this.tamanio = DistributionSummary.builder("sesion.atributo.tamanio").baseUnit("bytes")
+                .description("Bytes guardados por atributo de sesión (comprimidos)").register(meterRegistry);
+    }
+
+    public byte[] serializar(Object valor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (ObjectOutputStream salida = new ObjectOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            salida.writeObject(valor);
+        } catch (IOException e) {
+            throw new SerializationFailedException("No se pudo serializar el atributo de sesión " + valor.getClass().getName(), e);
+        } finally {
+            deflater.end(); // Un Deflater propio no lo libera el stream al cerrarse
+        }
+        tamanio.record(bytes.size());
+        return bytes.toByteArray();
+    }
+
+    public Object deserializar(byte[] datos) {
+        Inflater inflater = new Inflater();
+        try (ObjectInputStream entrada = new ConfigurableObjectInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(datos), inflater), classLoader)) {
+            return entrada.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SerializationFailedException("No se pudo leer un atributo de sesión", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
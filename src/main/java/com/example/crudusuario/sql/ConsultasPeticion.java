@@ -0,0 +1,102 @@
+package com.example.crudusuario.sql;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sentencias SQL, filas leídas y tiempo JDBC acumulados durante una petición HTTP.
+ *
+ * Se asocia al hilo que atiende la petición ({@link #iniciar()} / {@link #terminar()}); lo que se ejecuta
+ * en otros hilos (reindexado, vencimientos, exportaciones en streaming) no se cuenta.
+ * Un SELECT idéntico repetido varias veces en la misma petición es sospechoso de N+1.
+ */
+public final class ConsultasPeticion {
+
+    /** Atributo de la petición con las consultas acumuladas (lo leen los tests de presupuesto). */
+    public static final String ATRIBUTO = ConsultasPeticion.class.getName();
+
+    private static final int MAXIMO_SENTENCIAS_DISTINTAS = 256; // Acota la memoria en peticiones con SQL dinámico
+    private static final ThreadLocal<ConsultasPeticion> ACTUAL = new ThreadLocal<>();
+
+    private int sentencias;
+    private long filas;
+    private long nanosJdbc;
+    private final Map<String, Integer> repeticionesSelect = new HashMap<>();
+
+    /**
+     * Empieza a contar en el hilo actual.
+     */
+    public static ConsultasPeticion iniciar() {
+        ConsultasPeticion consultas = new ConsultasPeticion();
+        ACTUAL.set(consultas);
+        return consultas;
+    }
+
+    /**
+     * Deja de contar en el hilo actual.
+     */
+    public static void terminar() {
+        ACTUAL.remove();
+    }
+
+    /**
+     * Consultas de la petición en curso en este hilo, o null si no se está contando.
+     */
+    static ConsultasPeticion actual() {
+        return ACTUAL.get();
+    }
+
+    void registrarSentencia(String sql, long nanos) {
+        sentencias++;
+        nanosJdbc += nanos;
+        if (sql != null && esSelect(sql)
+                && (repeticionesSelect.size() < MAXIMO_SENTENCIAS_DISTINTAS || repeticionesSelect.containsKey(sql))) {
+            repeticionesSelect.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void registrarFila() {
+        filas++;
+    }
+
+    void registrarTiempo(long nanos) {
+        nanosJdbc += nanos;
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    public long getNanosJdbc() {
+        return nanosJdbc;
+    }
+
+    /**
+     * SELECT ejecutados al menos umbral veces en la petición, con su número de ejecuciones.
+     */
+    public Map<String, Integer> sospechasNMas1(int umbral) {
+        Map<String, Integer> sospechas = new LinkedHashMap<>();
+        repeticionesSelect.forEach((sql, veces) -> {
+            if (veces >= umbral) {
+                sospechas.put(sql, veces);
+            }
+        });
+        return sospechas;
+    }
+
+    private static boolean esSelect(String sql) {
+        String inicio = sql.stripLeading();
+        return inicio.length() >= 6 && inicio.substring(0, 6).toLowerCase(Locale.ROOT).equals("select");
+    }
+
+    @Override
+    public String toString() {
+        return sentencias + " sentencias, " + filas + " filas, " + (nanosJdbc / 1_000_000) + " ms JDBC";
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.crudusuario.sql;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que cuenta en {@link ConsultasPeticion} las sentencias ejecutadas, las filas leídas
+ * y el tiempo pasado en JDBC.
+ *
+ * Solo instrumenta las conexiones obtenidas mientras hay una petición contándose en el hilo
+ * (ver FiltroConsultasSql); el resto (tareas en segundo plano, arranque) usan la conexión del pool
+ * sin intermediarios. Cada execute* cuenta como una sentencia, también executeBatch.
+ */
+public class DataSourceInstrumentado extends DelegatingDataSource implements AutoCloseable {
+
+    public DataSourceInstrumentado(DataSource destino) {
+        super(destino);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrumentar(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrumentar(super.getConnection(username, password));
+    }
+
+    /**
+     * Cierra el pool de destino: al envolverlo, Spring ya no infiere su método close.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    private static Connection instrumentar(Connection conexion) {
+        if (ConsultasPeticion.actual() == null) {
+            return conexion;
+        }
+        return proxy(Connection.class, (metodo, args) -> {
+            Object resultado = invocar(conexion, metodo, args);
+            if (resultado instanceof Statement sentencia && ConsultasPeticion.actual() != null) {
+                // prepareStatement/prepareCall reciben el SQL como primer argumento; createStatement no
+                String sql = (args != null && args.length > 0 && args[0] instanceof String texto) ? texto : null;
+                return instrumentar(sentencia, sql);
+            }
+            return resultado;
+        });
+    }
+
+    private static Statement instrumentar(Statement sentencia, String sqlPreparado) {
+        Class<? extends Statement> tipo = (sentencia instanceof CallableStatement) ? CallableStatement.class
+                : (sentencia instanceof PreparedStatement) ? PreparedStatement.class : Statement.class;
+        return proxy(tipo, (metodo, args) -> {
+            ConsultasPeticion consultas = ConsultasPeticion.actual();
+            if (consultas == null) {
+                return invocar(sentencia, metodo, args);
+            }
+            Object resultado;
+            if (metodo.getName().startsWith("execute")) {
+                String sql = (args != null && args.length > 0 && args[0] instanceof String texto) ? texto : sqlPreparado;
+                long inicio = System.nanoTime();
+                try {
+                    resultado = invocar(sentencia, metodo, args);
+                } finally {
+                    consultas.registrarSentencia(sql, System.nanoTime() - inicio);
+                }
+            } else {
+                resultado = invocar(sentencia, metodo, args);
+            }
+            return (resultado instanceof ResultSet filas) ? instrumentar(filas) : resultado;
+        });
+    }
+
+    private static ResultSet instrumentar(ResultSet filas) {
+        return proxy(ResultSet.class, (metodo, args) -> {
+            ConsultasPeticion consultas = ConsultasPeticion.actual();
+            if (consultas == null || !metodo.getName().equals("next")) {
+                return invocar(filas, metodo, args);
+            }
+            long inicio = System.nanoTime(); // Con fetch por bloques, next() también espera a la base de datos
+            Object hayFila = invocar(filas, metodo, args);
+            consultas.registrarTiempo(System.nanoTime() - inicio);
+            if (Boolean.TRUE.equals(hayFila)) {
+                consultas.registrarFila();
+            }
+            return hayFila;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Interceptor {
+        Object invocar(Method metodo, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, Interceptor interceptor) {
+        return (T) Proxy.newProxyInstance(DataSourceInstrumentado.class.getClassLoader(), new Class<?>[] { tipo },
+                (proxy, metodo, args) -> switch (metodo.getName()) {
+                    // Identidad del propio proxy: Hibernate guarda las sentencias abiertas en mapas
+                    case "equals" -> (args != null && args.length == 1) ? proxy == args[0] : interceptor.invocar(metodo, args);
+                    case "hashCode" -> (args == null) ? System.identityHashCode(proxy) : interceptor.invocar(metodo, args);
+                    default -> interceptor.invocar(metodo, args);
+                });
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.crudusuario.sql;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Cuenta el SQL de cada petición HTTP (con {@link DataSourceInstrumentado}) y lo publica por ruta:
+ * - sql.peticion.sentencias, sql.peticion.filas y sql.peticion.tiempo: distribución por petición.
+ * - sql.peticion.sospechas.n1: peticiones que repiten un mismo SELECT al menos umbral-repeticiones veces.
+ * - sql.peticion.presupuesto.excedido: peticiones con más sentencias que el presupuesto.
+ * Las sospechas y los excesos se registran además en el log con el SQL repetido.
+ *
+ * La etiqueta uri es el patrón de la ruta (/tareas/editar/{id}), no la URL, para no disparar la cardinalidad.
+ */
+public class FiltroConsultasSql extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroConsultasSql.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int presupuesto;
+    private final int umbralRepeticiones;
+
+    public FiltroConsultasSql(MeterRegistry meterRegistry, int presupuesto, int umbralRepeticiones) {
+        if (presupuesto < 1 || umbralRepeticiones < 2) {
+            throw new IllegalArgumentException("El presupuesto debe ser positivo y el umbral de repeticiones al menos 2.");
+        }
+        this.meterRegistry = meterRegistry;
+        this.presupuesto = presupuesto;
+        this.umbralRepeticiones = umbralRepeticiones;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConsultasPeticion consultas = ConsultasPeticion.iniciar();
+        request.setAttribute(ConsultasPeticion.ATRIBUTO, consultas);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConsultasPeticion.terminar();
+            publicar(request, consultas);
+        }
+    }
+
+    private void publicar(HttpServletRequest request, ConsultasPeticion consultas) {
+        if (consultas.getSentencias() == 0) {
+            return; // Recursos estáticos, cachés, redirecciones: no aportan nada a las distribuciones
+        }
+        String uri = ruta(request);
+        DistributionSummary.builder("sql.peticion.sentencias").tag("uri", uri)
+                .description("Sentencias SQL por petición").register(meterRegistry)
+                .record(consultas.getSentencias());
+        DistributionSummary.builder("sql.peticion.filas").tag("uri", uri)
+                .description("Filas leídas por petición").register(meterRegistry)
+                .record(consultas.getFilas());
+        Timer.builder("sql.peticion.tiempo").tag("uri", uri)
+                .description("Tiempo en JDBC por petición").register(meterRegistry)
+                .record(consultas.getNanosJdbc(), TimeUnit.NANOSECONDS);
+
+        Map<String, Integer> sospechas = consultas.sospechasNMas1(umbralRepeticiones);
+        if (!sospechas.isEmpty()) {
+            Counter.builder("sql.peticion.sospechas.n1").tag("uri", uri)
+                    .description("Peticiones que repiten un mismo SELECT (posible N+1)").register(meterRegistry)
+                    .increment();
+            sospechas.forEach((sql, veces) -> log.warn("Posible N+1 en {} {}: {} veces {}", request.getMethod(), uri, veces, sql));
+        }
+        if (consultas.getSentencias() > presupuesto) {
+            Counter.builder("sql.peticion.presupuesto.excedido").tag("uri", uri)
+                    .description("Peticiones con más sentencias SQL que el presupuesto").register(meterRegistry)
+                    .increment();
+            log.warn("{} {} ha superado el presupuesto de {} sentencias: {}", request.getMethod(), uri, presupuesto, consultas);
+        } else {
+            log.debug("{} {}: {}", request.getMethod(), uri, consultas);
+        }
+    }
+
+    private static String ruta(HttpServletRequest request) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return (patron != null) ? patron.toString() : "DESCONOCIDA";
+    }
+}
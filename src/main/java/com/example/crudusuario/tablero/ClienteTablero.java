@@ -0,0 +1,113 @@
+package com.example.crudusuario.tablero;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Navegador suscrito al tablero de un proyecto, con un buffer acotado de mensajes pendientes de enviar.
+ *
+ * Los mensajes llegan ya formateados como texto SSE (se serializan una vez para todos los clientes).
+ * Un solo envío a la vez por cliente: el primero que encuentra el cliente ocioso lanza en el ejecutor
+ * un vaciado que escribe todo lo pendiente en una sola escritura y un solo flush.
+ * Si el navegador no lee y el buffer se llena, se desconecta al cliente (consumidor lento) en lugar de
+ * acumular memoria o frenar a los demás; EventSource vuelve a conectar y la página se recarga.
+ * Quien publica solo marca el cliente como cerrado: completar el emisor espera al envío en curso (que puede
+ * estar bloqueado en un socket sin leer), así que se hace en el ejecutor de envíos y nunca en el hilo que
+ * reparte los eventos a todos los tableros.
+ */
+public final class ClienteTablero {
+
+    private static final MediaType TEXTO = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    private final SseEmitter emisor;
+    private final BlockingQueue<String> pendientes;
+    private final Executor envios;
+    private final AtomicBoolean enviando = new AtomicBoolean();
+    private volatile boolean cerrado;
+    private volatile long ultimoEnvio = System.nanoTime();
+
+    ClienteTablero(SseEmitter emisor, int capacidad, Executor envios) {
+        this.emisor = emisor;
+        this.pendientes = new ArrayBlockingQueue<>(capacidad);
+        this.envios = envios;
+    }
+
+    /**
+     * Encola un mensaje.
+     * @return false si el cliente está cerrado o se acaba de cerrar por tener el buffer lleno.
+     */
+    boolean ofrecer(String mensaje) {
+        if (cerrado) {
+            return false;
+        }
+        if (!pendientes.offer(mensaje)) {
+            cerrar();
+            return false;
+        }
+        programarEnvio();
+        return true;
+    }
+
+    /**
+     * Si no se le ha escrito nada desde hace el intervalo, encola un latido (un comentario SSE) para mantener
+     * abierta la conexión; a los clientes que acaban de recibir datos no se les envía.
+     */
+    void latir(long intervaloNanos) {
+        if (pendientes.isEmpty() && System.nanoTime() - ultimoEnvio >= intervaloNanos) {
+            ofrecer(":\n\n");
+        }
+    }
+
+    boolean cerrado() {
+        return cerrado;
+    }
+
+    void cerrar() {
+        if (!cerrado) {
+            cerrado = true;
+            pendientes.clear();
+            try {
+                envios.execute(emisor::complete);
+            } catch (RejectedExecutionException e) {
+                emisor.complete(); // Aplicación parándose
+            }
+        }
+    }
+
+    private void programarEnvio() {
+        if (enviando.compareAndSet(false, true)) {
+            envios.execute(this::vaciar);
+        }
+    }
+
+    private void vaciar() {
+        try {
+            StringBuilder texto = new StringBuilder();
+            String mensaje;
+            while ((mensaje = pendientes.poll()) != null) {
+                texto.append(mensaje);
+            }
+            if (texto.length() > 0 && !cerrado) {
+                emisor.send(Set.of(new DataWithMediaType(texto.toString(), TEXTO)));
+                ultimoEnvio = System.nanoTime();
+            }
+        } catch (IOException | IllegalStateException e) {
+            cerrar(); // El navegador se ha ido
+        } finally {
+            enviando.set(false);
+            if (!pendientes.isEmpty() && !cerrado) {
+                programarEnvio(); // Lo que llegó mientras se escribía
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.crudusuario.tablero;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clientes suscritos al tablero de un proyecto. Cada mensaje se formatea una sola vez y se encola
+ * a todos; el envío a cada navegador lo hace su {@link ClienteTablero}.
+ */
+final class DifusorProyecto {
+
+    private final Set<ClienteTablero> clientes = ConcurrentHashMap.newKeySet();
+
+    void agregar(ClienteTablero cliente) {
+        clientes.add(cliente);
+    }
+
+    void quitar(ClienteTablero cliente) {
+        clientes.remove(cliente);
+    }
+
+    boolean vacio() {
+        return clientes.isEmpty();
+    }
+
+    int tamanio() {
+        return clientes.size();
+    }
+
+    /**
+     * @return Clientes desconectados por tener el buffer lleno.
+     */
+    int difundir(String mensaje) {
+        int descartados = 0;
+        for (ClienteTablero cliente : clientes) {
+            if (cliente.cerrado()) {
+                clientes.remove(cliente); // Desconectado o caducado
+            } else if (!cliente.ofrecer(mensaje)) {
+                clientes.remove(cliente);
+                descartados++;
+            }
+        }
+        return descartados;
+    }
+
+    void latir(long intervaloNanos) {
+        clientes.forEach(cliente -> cliente.latir(intervaloNanos));
+    }
+
+    void cerrar() {
+        clientes.forEach(ClienteTablero::cerrar);
+        clientes.clear();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.crudusuario.tablero;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Suscripciones SSE al tablero de cada proyecto: un {@link DifusorProyecto} compartido por proyecto,
+ * que existe mientras tenga clientes.
+ *
+ * Publicar un mensaje cuesta una serialización y una inserción en el buffer de cada cliente; los latidos
+ * se revisan para todos los clientes en una sola pasada. Nada de esto consulta la base de datos.
+ *
+ * Se recuerda el id del último mensaje de cada proyecto. Al reconectar, el navegador envía Last-Event-ID:
+ * si no coincide, se ha perdido algún cambio mientras estaba desconectado y se le pide que recargue.
+ * En la primera conexión envía el id que había al generar la página ({@link #ultimo(Long)}), y se compara
+ * igual: así no se pierden los cambios publicados entre la lectura de las tareas y la suscripción.
+ *
+ * Cada evento de la bandeja de salida se entrega a un solo nodo, así que los ids solo son comparables dentro
+ * del nodo que los publicó: llevan delante el identificador del nodo ("nodo-id"). Un id de otro nodo (página
+ * generada o conexión anterior en otro nodo, sin sesiones fijas) no provoca recargar, que se repetiría en cada
+ * conexión; el navegador sigue desde el último id de este nodo.
+ */
+public class TableroTareas {
+
+    private final String nodo = UUID.randomUUID().toString().substring(0, 8) + "-"; // Prefijo de los ids de este nodo
+    private final Map<Long, DifusorProyecto> difusores = new ConcurrentHashMap<>();
+    private final Map<Long, Long> ultimos = new ConcurrentHashMap<>(); // Evento del último mensaje de cada proyecto
+    private final int capacidadBuffer;
+    private final Executor envios;
+    private final Duration duracion;
+    private final Duration reconexion;
+    private final AtomicLong descartados = new AtomicLong();
+
+    /**
+     * @param capacidadBuffer Mensajes pendientes por cliente antes de desconectarlo por lento.
+     * @param envios Ejecutor de las escrituras a los navegadores (pueden bloquearse con clientes lentos).
+     * @param duracion Tiempo tras el que se cierra cada conexión (el navegador vuelve a conectar solo).
+     * @param reconexion Espera del navegador antes de volver a conectar.
+     */
+    public TableroTareas(int capacidadBuffer, Executor envios, Duration duracion, Duration reconexion) {
+        if (capacidadBuffer <= 0) {
+            throw new IllegalArgumentException("La capacidad del buffer de cada cliente debe ser mayor que cero.");
+        }
+        this.capacidadBuffer = capacidadBuffer;
+        this.envios = envios;
+        this.duracion = duracion;
+        this.reconexion = reconexion;
+    }
+
+    /**
+     * Id del último mensaje publicado para el proyecto, que la página debe leer antes que las tareas.
+     */
+    public String ultimo(Long proyectoId) {
+        return nodo + ultimos.getOrDefault(proyectoId, 0L);
+    }
+
+    /**
+     * Abre la suscripción de un navegador al tablero de un proyecto.
+     * @param ultimoVisto Cabecera Last-Event-ID, o el id que llevaba la página en la primera conexión
+     *                    (null si no se conoce). Solo se compara si lo publicó este nodo.
+     */
+    public SseEmitter suscribir(Long proyectoId, String ultimoVisto) {
+        String ultimo = ultimo(proyectoId);
+        String bienvenida = "retry:" + reconexion.toMillis() + "\nid:" + ultimo + "\n"
+                + ((ultimoVisto != null && ultimoVisto.startsWith(nodo) && !ultimoVisto.equals(ultimo))
+                        ? "event:recargar\ndata:{}\n\n" : "\n");
+
+        SseEmitter emisor = new SseEmitter(duracion.toMillis());
+        ClienteTablero cliente = new ClienteTablero(emisor, capacidadBuffer, envios);
+        Runnable quitar = () -> {
+            cliente.cerrar();
+            difusores.computeIfPresent(proyectoId, (id, difusor) -> {
+                difusor.quitar(cliente);
+                return difusor.vacio() ? null : difusor;
+            });
+        };
+        emisor.onCompletion(quitar);
+        emisor.onTimeout(quitar);
+        emisor.onError(error -> quitar.run());
+        difusores.compute(proyectoId, (id, difusor) -> { // Atómico frente a la retirada del difusor vacío
+            DifusorProyecto destino = (difusor != null) ? difusor : new DifusorProyecto();
+            destino.agregar(cliente);
+            return destino;
+        });
+        cliente.ofrecer(bienvenida);
+        return emisor;
+    }
+
+    /**
+     * Envía un mensaje SSE ya formateado (sin la línea id:, que se añade aquí) a todos los clientes del proyecto.
+     * @param id ID del evento de dominio.
+     */
+    public void publicar(Long proyectoId, long id, String mensaje) {
+        ultimos.put(proyectoId, id);
+        DifusorProyecto difusor = difusores.get(proyectoId);
+        if (difusor != null) {
+            descartados.addAndGet(difusor.difundir("id:" + nodo + id + "\n" + mensaje));
+        }
+    }
+
+    /**
+     * Envía un latido a los clientes que no han recibido nada durante el intervalo.
+     */
+    public void latir(Duration intervalo) {
+        long intervaloNanos = intervalo.toNanos();
+        difusores.values().forEach(difusor -> difusor.latir(intervaloNanos));
+    }
+
+    public int clientes() {
+        return difusores.values().stream().mapToInt(DifusorProyecto::tamanio).sum();
+    }
+
+    public int proyectos() {
+        return difusores.size();
+    }
+
+    /**
+     * Clientes desconectados por lentos desde el arranque.
+     */
+    public long descartados() {
+        return descartados.get();
+    }
+
+    /**
+     * Cierra todas las conexiones (al parar la aplicación).
+     */
+    public void cerrar() {
+        difusores.values().forEach(DifusorProyecto::cerrar);
+        difusores.clear();
+    }
+}
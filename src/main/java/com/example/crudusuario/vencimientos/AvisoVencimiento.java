@@ -0,0 +1,13 @@
+package com.example.crudusuario.vencimientos;
+
+import java.time.LocalDate;
+
+/**
+ * Evento de aplicación que se publica cuando una tarea no completada está a punto de vencer o ha vencido.
+ */
+public record AvisoVencimiento(Tipo tipo, Long tareaId, Long proyectoId, String titulo, LocalDate fechaLimite) {
+
+    public enum Tipo {
+        PROXIMA, VENCIDA
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.crudusuario.vencimientos;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda temporal con una ranura por día para las fechas límite de las tareas.
+ *
+ * Solo guarda una ventana de días consecutivos [inicio, inicio + dias). La ranura de un día es
+ * epochDay % dias, de modo que al avanzar la ventana la ranura del día que sale se vacía y se
+ * reutiliza para el día que entra, que se carga de la base de datos (carga perezosa por días).
+ * Programar, cancelar y leer un día cuestan O(1).
+ *
+ * No es segura para hilos: la sincroniza quien la usa.
+ */
+public class RuedaVencimientos {
+
+    /**
+     * Tarea programada en la rueda. Los indicadores evitan repetir un mismo aviso.
+     */
+    public static final class Entrada {
+        private final long tareaId;
+        private final Long proyectoId;
+        private final String titulo;
+        private final LocalDate fechaLimite;
+        private boolean avisoProximo;
+        private boolean avisoVencido;
+
+        public Entrada(long tareaId, Long proyectoId, String titulo, LocalDate fechaLimite) {
+            this.tareaId = tareaId;
+            this.proyectoId = proyectoId;
+            this.titulo = titulo;
+            this.fechaLimite = fechaLimite;
+        }
+
+        public long getTareaId() { return tareaId; }
+        public Long getProyectoId() { return proyectoId; }
+        public String getTitulo() { return titulo; }
+        public LocalDate getFechaLimite() { return fechaLimite; }
+
+        /**
+         * Marca el aviso de vencimiento próximo como enviado.
+         * @return true si no se había enviado antes.
+         */
+        public boolean marcarAvisoProximo() {
+            boolean nuevo = !avisoProximo;
+            avisoProximo = true;
+            return nuevo;
+        }
+
+        /**
+         * Marca el aviso de tarea vencida como enviado.
+         * @return true si no se había enviado antes.
+         */
+        public boolean marcarAvisoVencido() {
+            boolean nuevo = !avisoVencido;
+            avisoVencido = true;
+            return nuevo;
+        }
+
+        /**
+         * Conserva los avisos ya enviados para la misma fecha límite (p. ej. al editar solo el título).
+         */
+        public void heredarAvisos(Entrada anterior) {
+            if (anterior != null && anterior.fechaLimite.equals(fechaLimite)) {
+                avisoProximo = anterior.avisoProximo;
+                avisoVencido = anterior.avisoVencido;
+            }
+        }
+    }
+
+    private final Map<Long, Entrada>[] ranuras;
+    private final Map<Long, Entrada> porTarea = new HashMap<>();
+    private LocalDate inicio;
+
+    /**
+     * @param dias Número de días que cubre la ventana.
+     */
+    @SuppressWarnings("unchecked")
+    public RuedaVencimientos(int dias) {
+        if (dias < 1) {
+            throw new IllegalArgumentException("La rueda debe cubrir al menos un día.");
+        }
+        this.ranuras = new Map[dias];
+        for (int i = 0; i < dias; i++) {
+            ranuras[i] = new HashMap<>();
+        }
+    }
+
+    /**
+     * Primer día de la ventana (null si aún no se ha colocado).
+     */
+    public LocalDate getInicio() {
+        return inicio;
+    }
+
+    /**
+     * Día siguiente al último de la ventana.
+     */
+    public LocalDate getFin() {
+        return (inicio != null) ? inicio.plusDays(ranuras.length) : null;
+    }
+
+    public boolean cubre(LocalDate fecha) {
+        return inicio != null && fecha != null && !fecha.isBefore(inicio) && fecha.isBefore(getFin());
+    }
+
+    /**
+     * Mueve la ventana para que empiece en nuevoInicio, vaciando las ranuras de los días que salen.
+     * @return Primer día que ha entrado en la ventana y debe cargarse (hasta {@link #getFin()}),
+     *         o null si no ha entrado ningún día.
+     */
+    public LocalDate avanzarA(LocalDate nuevoInicio) {
+        if (inicio != null && !nuevoInicio.isAfter(inicio)) {
+            return null; // La ventana solo avanza
+        }
+        LocalDate finAnterior = getFin();
+        if (inicio == null || !nuevoInicio.isBefore(finAnterior)) {
+            // Primera colocación o salto mayor que la ventana: se vacía todo
+            for (Map<Long, Entrada> ranura : ranuras) {
+                ranura.clear();
+            }
+            porTarea.clear();
+            inicio = nuevoInicio;
+            return nuevoInicio;
+        }
+        for (LocalDate dia = inicio; dia.isBefore(nuevoInicio); dia = dia.plusDays(1)) {
+            Map<Long, Entrada> ranura = ranura(dia);
+            porTarea.keySet().removeAll(ranura.keySet());
+            ranura.clear();
+        }
+        inicio = nuevoInicio;
+        return finAnterior;
+    }
+
+    /**
+     * Programa (o reprograma) una tarea. Si su fecha queda fuera de la ventana solo se quita la anterior.
+     * @return La entrada que había para la tarea, o null.
+     */
+    public Entrada programar(Entrada entrada) {
+        Entrada anterior = cancelar(entrada.tareaId);
+        if (cubre(entrada.fechaLimite)) {
+            ranura(entrada.fechaLimite).put(entrada.tareaId, entrada);
+            porTarea.put(entrada.tareaId, entrada);
+        }
+        return anterior;
+    }
+
+    /**
+     * Quita una tarea de la rueda.
+     * @return La entrada quitada, o null si no estaba.
+     */
+    public Entrada cancelar(long tareaId) {
+        Entrada anterior = porTarea.remove(tareaId);
+        if (anterior != null) {
+            ranura(anterior.fechaLimite).remove(tareaId);
+        }
+        return anterior;
+    }
+
+    /**
+     * Tareas con fecha límite en el día indicado (vacío si el día está fuera de la ventana).
+     */
+    public Collection<Entrada> delDia(LocalDate dia) {
+        return cubre(dia) ? ranura(dia).values() : List.of();
+    }
+
+    public int tamanio() {
+        return porTarea.size();
+    }
+
+    private Map<Long, Entrada> ranura(LocalDate dia) {
+        return ranuras[(int) Math.floorMod(dia.toEpochDay(), (long) ranuras.length)];
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.crudusuario.vista;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Renderiza páginas con tablas grandes por bloques: la cabecera de la página sale en cuanto se abre
+ * la tabla y las filas se envían y vuelcan al cliente cada filas-por-bloque, según se leen del cursor.
+ * La memoria no depende del número de filas: solo se retiene un bloque y el buffer de la respuesta.
+ *
+ * La plantilla debe marcar dentro del tbody dónde van las filas y declararlas como fragmento:
+ * <pre>
+ * &lt;th:block th:if="${marcaFilas}" th:utext="${marcaFilas}"&gt;&lt;/th:block&gt;
+ * &lt;th:block th:fragment="filas"&gt;&lt;tr th:each="fila : ${filas}"&gt;...&lt;/tr&gt;&lt;/th:block&gt;
+ * </pre>
+ * La página se renderiza una sola vez, sin filas, y se parte por la marca: lo anterior se envía al abrir la tabla
+ * y lo posterior al terminarla. Lo que depende de valores que solo se conocen al final (ver
+ * {@link TablaPorBloques#ponerEnPie}, y sinFilas = true si no se ha escrito ninguna fila) se declara como
+ * fragmento "pie", que no se pinta en la página y se renderiza aparte al terminar, en el sitio de su marca:
+ * <pre>
+ * &lt;th:block th:if="${marcaPie}" th:utext="${marcaPie}"&gt;&lt;/th:block&gt;
+ * &lt;th:block th:fragment="pie" th:unless="${marcaPie}"&gt;...&lt;/th:block&gt;
+ * </pre>
+ *
+ * Una vez enviada la cabecera la respuesta está confirmada: un error a mitad de la tabla ya no puede
+ * mostrar la página de error y el cliente recibe la página cortada.
+ */
+@Component
+public class RenderizadorPorBloques {
+
+    static final String MARCA = "<!--filas-por-bloques-->";
+    static final String MARCA_PIE = "<!--pie-por-bloques-->";
+
+    private final ViewResolver viewResolver;
+    private final int filasPorBloque;
+    private final int tamanioBuffer;
+
+    public RenderizadorPorBloques(@Qualifier("thymeleafViewResolver") ViewResolver viewResolver,
+                                  @Value("${app.vista.filas-por-bloque:200}") int filasPorBloque,
+                                  @Value("${app.vista.tamanio-buffer:16384}") int tamanioBuffer) {
+        if (filasPorBloque < 1 || tamanioBuffer < 1024) {
+            throw new IllegalArgumentException("Las filas por bloque deben ser positivas y el buffer de al menos 1024 bytes.");
+        }
+        this.viewResolver = viewResolver;
+        this.filasPorBloque = filasPorBloque;
+        this.tamanioBuffer = tamanioBuffer;
+    }
+
+    /**
+     * Envía la cabecera de la página hasta el tbody y devuelve la tabla en la que escribir las filas.
+     * @param plantilla Vista de la página (p. ej. "tareas/listado_general").
+     * @param variableFilas Variable del modelo que recorre el fragmento "filas".
+     * @param modelo Modelo de la página, sin las filas.
+     */
+    public <T> TablaPorBloques<T> abrir(String plantilla, String variableFilas, Map<String, ?> modelo,
+                                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setBufferSize(tamanioBuffer);
+
+        Map<String, Object> modeloTabla = new HashMap<>(modelo);
+        modeloTabla.put(variableFilas, List.of());
+        modeloTabla.put("marcaFilas", MARCA);
+        modeloTabla.put("marcaPie", MARCA_PIE);
+
+        String pagina = renderizarEnMemoria(plantilla, modeloTabla, request, response);
+        int marca = posicionMarca(plantilla, pagina);
+        response.getWriter().write(pagina, 0, marca);
+        response.flushBuffer(); // El navegador empieza a pintar antes de lanzar la consulta
+
+        modeloTabla.remove("marcaFilas");
+        modeloTabla.remove("marcaPie"); // Al terminar, el fragmento "pie" sí se pinta
+        return new TablaPorBloques<>(this, plantilla, variableFilas, modeloTabla, pagina.substring(marca + MARCA.length()),
+                filasPorBloque, request, response);
+    }
+
+    /**
+     * Renderiza la página completa de una vez (p. ej. una página de error sin tabla).
+     */
+    public void renderizar(String plantilla, Map<String, ?> modelo, HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+        renderizarVista(plantilla, modelo, request, response);
+    }
+
+    /**
+     * Renderiza una vista o un fragmento ("plantilla :: fragmento") en la respuesta indicada.
+     */
+    void renderizarVista(String vista, Map<String, ?> modelo, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        try {
+            View view = viewResolver.resolveViewName(vista, RequestContextUtils.getLocale(request));
+            if (view == null) {
+                throw new IllegalStateException("No existe la vista " + vista);
+            }
+            view.render(modelo, request, response);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo renderizar la vista " + vista, e);
+        }
+    }
+
+    String renderizarEnMemoria(String vista, Map<String, ?> modelo, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        EnMemoria enMemoria = new EnMemoria(response);
+        renderizarVista(vista, modelo, request, enMemoria);
+        return enMemoria.contenido();
+    }
+
+    static int posicionMarca(String plantilla, String pagina) {
+        int posicion = pagina.indexOf(MARCA);
+        if (posicion < 0) {
+            throw new IllegalStateException("La plantilla " + plantilla + " no incluye th:utext=\"${marcaFilas}\".");
+        }
+        return posicion;
+    }
+
+    /**
+     * Recoge en memoria lo que escribe la vista; las cabeceras (tipo de contenido, codificación)
+     * sí llegan a la respuesta real, que aún no está confirmada.
+     */
+    private static final class EnMemoria extends HttpServletResponseWrapper {
+
+        private final StringWriter salida = new StringWriter();
+        private final PrintWriter writer = new PrintWriter(salida);
+
+        EnMemoria(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() {
+            writer.flush();
+        }
+
+        String contenido() {
+            writer.flush();
+            return salida.toString();
+        }
+    }
+}
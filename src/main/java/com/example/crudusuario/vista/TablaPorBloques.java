@@ -0,0 +1,101 @@
+package com.example.crudusuario.vista;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Tabla abierta por {@link RenderizadorPorBloques}: acumula las filas en un bloque, renderiza el fragmento
+ * "filas" de la plantilla con cada bloque lleno y lo vuelca al cliente. Pensada para usarse como
+ * consumidor de un cursor, por eso {@link #escribir} lanza UncheckedIOException si el cliente se desconecta.
+ * No es segura entre hilos: se usa dentro de la petición que la abrió.
+ */
+public final class TablaPorBloques<T> {
+
+    private final RenderizadorPorBloques renderizador;
+    private final String plantilla;
+    private final String variableFilas;
+    private final Map<String, Object> modelo;
+    private final String cola; // Página a partir de la tabla, ya renderizada al abrirla
+    private final int filasPorBloque;
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+    private final List<T> bloque;
+    private long filas;
+
+    TablaPorBloques(RenderizadorPorBloques renderizador, String plantilla, String variableFilas,
+                    Map<String, Object> modelo, String cola, int filasPorBloque,
+                    HttpServletRequest request, HttpServletResponse response) {
+        this.renderizador = renderizador;
+        this.plantilla = plantilla;
+        this.variableFilas = variableFilas;
+        this.modelo = modelo;
+        this.cola = cola;
+        this.filasPorBloque = filasPorBloque;
+        this.request = request;
+        this.response = response;
+        this.bloque = new ArrayList<>(filasPorBloque);
+    }
+
+    /**
+     * Añade una fila; cuando el bloque se llena se renderiza y se envía al cliente.
+     */
+    public void escribir(T fila) {
+        bloque.add(fila);
+        filas++;
+        if (bloque.size() == filasPorBloque) {
+            volcar();
+        }
+    }
+
+    /**
+     * Variable del modelo que solo se conoce al final (p. ej. el cursor de la página siguiente)
+     * y que se usa en la parte de la página posterior a la tabla.
+     */
+    public void ponerEnPie(String nombre, Object valor) {
+        modelo.put(nombre, valor);
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    /**
+     * Envía el último bloque y el resto de la página a partir de la tabla, con el fragmento "pie"
+     * renderizado con los valores finales si la plantilla lo declara.
+     */
+    public void terminar() throws IOException {
+        volcar();
+        int pie = cola.indexOf(RenderizadorPorBloques.MARCA_PIE);
+        if (pie < 0) {
+            response.getWriter().write(cola);
+        } else {
+            response.getWriter().write(cola, 0, pie);
+            modelo.put(variableFilas, List.of());
+            modelo.put("sinFilas", filas == 0);
+            renderizador.renderizarVista(plantilla + " :: pie", modelo, request, response);
+            int finPie = pie + RenderizadorPorBloques.MARCA_PIE.length();
+            response.getWriter().write(cola, finPie, cola.length() - finPie);
+        }
+        response.flushBuffer();
+    }
+
+    private void volcar() {
+        if (bloque.isEmpty()) {
+            return;
+        }
+        modelo.put(variableFilas, bloque);
+        try {
+            renderizador.renderizarVista(plantilla + " :: filas", modelo, request, response);
+            response.flushBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        bloque.clear();
+    }
+}
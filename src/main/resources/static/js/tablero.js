@@ -0,0 +1,109 @@
+/*
+ * Tablero en vivo de la página de un proyecto: aplica a la tabla de tareas los cambios que envía el servidor
+ * por Server-Sent Events (ver TableroTareasService), sin recargar la página.
+ * La entrega puede repetirse, así que de cada tarea solo se aplican versiones más nuevas que la última vista.
+ */
+(function () {
+    'use strict';
+
+    var cuerpo = document.getElementById('tareas');
+    if (!cuerpo || !window.EventSource) {
+        return;
+    }
+    var versiones = new Map(); // ID de tarea -> última versión aplicada
+
+    function fila(id) {
+        return cuerpo.querySelector('tr[data-id="' + id + '"]');
+    }
+
+    function nuevaVersion(id, version) {
+        var vista = versiones.get(id);
+        if (vista !== undefined && vista >= version) {
+            return false;
+        }
+        versiones.set(id, version);
+        return true;
+    }
+
+    function enlace(texto, href, clase) {
+        var a = document.createElement('a');
+        a.textContent = texto;
+        a.href = href;
+        a.className = 'btn ' + clase;
+        return a;
+    }
+
+    // El borrado lleva la versión mostrada: si otro usuario cambia la tarea antes, no se borra
+    function enlazarEliminar(tr, id, version) {
+        var eliminar = tr.querySelector('a.btn-danger');
+        if (eliminar) {
+            eliminar.href = cuerpo.dataset.eliminar + id + '?version=' + version;
+        }
+    }
+
+    function crearFila(id) {
+        var tr = cuerpo.insertRow(-1);
+        tr.dataset.id = id;
+        for (var i = 0; i < 8; i++) {
+            tr.insertCell(-1);
+        }
+        var marca = document.createElement('input');
+        marca.type = 'checkbox';
+        marca.name = 'ids';
+        marca.value = id;
+        marca.className = 'form-check-input';
+        marca.setAttribute('form', 'cambioEstado');
+        tr.cells[0].appendChild(marca);
+        tr.cells[1].textContent = id;
+        tr.cells[6].textContent = cuerpo.dataset.proyecto;
+        var eliminar = enlace('Eliminar', cuerpo.dataset.eliminar + id, 'btn-danger');
+        eliminar.onclick = function () {
+            return confirm('¿Estás seguro de eliminar esta tarea?');
+        };
+        tr.cells[7].append(enlace('Editar', cuerpo.dataset.editar + id, 'btn-warning'), ' ', eliminar);
+        var vacio = document.getElementById('sinTareas');
+        if (vacio) {
+            vacio.remove();
+        }
+        return tr;
+    }
+
+    // El id del último cambio al generar la página: si se ha publicado otro antes de conectar, llega recargar
+    var fuente = new EventSource(cuerpo.dataset.eventos + '?ultimo=' + encodeURIComponent(cuerpo.dataset.ultimoEvento));
+
+    fuente.addEventListener('tarea', function (e) {
+        var tarea = JSON.parse(e.data);
+        if (nuevaVersion(tarea.id, tarea.version)) {
+            var tr = fila(tarea.id) || crearFila(tarea.id);
+            tr.cells[2].textContent = tarea.titulo;
+            tr.cells[3].textContent = tarea.descripcion || '';
+            tr.cells[4].textContent = tarea.fechaLimite || '';
+            tr.cells[5].textContent = tarea.estado;
+            enlazarEliminar(tr, tarea.id, tarea.version);
+        }
+    });
+
+    fuente.addEventListener('estado', function (e) {
+        var cambio = JSON.parse(e.data);
+        var tr = fila(cambio.id);
+        if (tr && nuevaVersion(cambio.id, cambio.version)) {
+            tr.cells[5].textContent = cambio.estado;
+            enlazarEliminar(tr, cambio.id, cambio.version);
+        }
+    });
+
+    fuente.addEventListener('eliminada', function (e) {
+        var id = JSON.parse(e.data).id;
+        versiones.set(id, Infinity); // Un evento anterior repetido no debe volver a crearla
+        var tr = fila(id);
+        if (tr) {
+            tr.remove();
+        }
+    });
+
+    // Cambios que no caben en un delta, o perdidos mientras la conexión estaba caída
+    fuente.addEventListener('recargar', function () {
+        fuente.close();
+        location.reload();
+    });
+})();
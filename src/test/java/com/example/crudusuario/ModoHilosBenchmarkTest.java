@@ -0,0 +1,122 @@
+package com.example.crudusuario;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compara el servidor con hilos de plataforma (pool de Tomcat) y con hilos virtuales
+ * bajo carga concurrente sobre páginas que consultan la base de datos.
+ *
+ * No se ejecuta en el build normal. Necesita la base de datos configurada y un usuario existente:
+ * mvn test -Dtest=ModoHilosBenchmarkTest -Dbenchmark.hilos=true -Dbenchmark.usuario=admin -Dbenchmark.password=admin
+ */
+@EnabledIfSystemProperty(named = "benchmark.hilos", matches = "true")
+class ModoHilosBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ModoHilosBenchmarkTest.class);
+    private static final int CLIENTES = Integer.getInteger("benchmark.clientes", 400);
+    private static final int PETICIONES_POR_CLIENTE = Integer.getInteger("benchmark.peticiones", 25);
+    private static final int HILOS_TOMCAT = Integer.getInteger("benchmark.hilosTomcat", 50);
+    private static final String RUTA = System.getProperty("benchmark.ruta", "/tareas/todas");
+
+    @Test
+    void compararModos() throws Exception {
+        Resultado plataforma = medir(false);
+        Resultado virtuales = medir(true);
+
+        log.info("Resultado del benchmark:\n{}\n{}\n{}",
+                String.format("%-12s %12s %10s %10s", "modo", "peticiones/s", "p50 (ms)", "p99 (ms)"), plataforma, virtuales);
+    }
+
+    private Resultado medir(boolean hilosVirtuales) throws Exception {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(FormularioSpringMvcDataSecurityApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + hilosVirtuales,
+                        "server.tomcat.threads.max=" + HILOS_TOMCAT,
+                        "spring.jpa.show-sql=false")
+                .run()) {
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            HttpClient cliente = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+            String cookie = iniciarSesion(cliente, base);
+
+            HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + RUTA)).header("Cookie", cookie).GET().build();
+            cliente.send(peticion, HttpResponse.BodyHandlers.discarding()); // Calentamiento
+
+            long[] latencias = new long[CLIENTES * PETICIONES_POR_CLIENTE];
+            AtomicInteger indice = new AtomicInteger();
+            AtomicInteger errores = new AtomicInteger();
+            long inicio = System.nanoTime();
+            try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futuros = new ArrayList<>();
+                for (int c = 0; c < CLIENTES; c++) {
+                    futuros.add(clientes.submit(() -> {
+                        for (int i = 0; i < PETICIONES_POR_CLIENTE; i++) {
+                            long t0 = System.nanoTime();
+                            HttpResponse<Void> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+                            latencias[indice.getAndIncrement()] = System.nanoTime() - t0;
+                            if (respuesta.statusCode() != 200) {
+                                errores.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> futuro : futuros) {
+                    futuro.get();
+                }
+            }
+            long total = System.nanoTime() - inicio;
+
+            assertEquals(0, errores.get(), "Hubo respuestas distintas de 200");
+            Arrays.sort(latencias);
+            return new Resultado(hilosVirtuales ? "virtuales" : "plataforma",
+                    latencias.length / (total / 1e9),
+                    latencias[latencias.length / 2] / 1e6,
+                    latencias[(int) (latencias.length * 0.99)] / 1e6);
+        }
+    }
+
+    private String iniciarSesion(HttpClient cliente, String base) throws Exception {
+        String formulario = "username=" + URLEncoder.encode(System.getProperty("benchmark.usuario", "admin"), StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(System.getProperty("benchmark.password", "admin"), StandardCharsets.UTF_8);
+        HttpResponse<Void> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(base + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formulario))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        String cookie = respuesta.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("SESSION=")) // Cookie de Spring Session
+                .map(c -> c.substring(0, c.indexOf(';')))
+                .findFirst()
+                .orElse(null);
+        assertNotNull(cookie, "No se pudo iniciar sesión con el usuario de benchmark");
+        return cookie;
+    }
+
+    private record Resultado(String modo, double peticionesPorSegundo, double p50, double p99) {
+        @Override
+        public String toString() {
+            return String.format("%-12s %12.1f %10.2f %10.2f", modo, peticionesPorSegundo, p50, p99);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.crudusuario.busqueda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.crudusuario.busqueda.IndiceInvertido.Aciertos;
+
+/**
+ * Ranking BM25, búsqueda insensible a acentos, ámbito por proyectos y entradas obsoletas tras editar o borrar.
+ */
+class IndiceInvertidoTest {
+
+    private final IndiceInvertido indice = new IndiceInvertido();
+
+    @BeforeEach
+    void indexar() {
+        indice.indexar(1, 10L, "Informe mensual");
+        indice.indexar(2, 10L, "Informe informe revisión");
+        indice.indexar(3, 20L, "Informe anual de ventas y gastos del departamento comercial");
+    }
+
+    @Test
+    void ordenaPorFrecuenciaYLongitud() {
+        // Dos apariciones puntúan más que una; con una, el texto corto más que el largo
+        assertEquals(new Aciertos(List.of(2L, 1L, 3L), 3), indice.buscar("informe", null, 0, 10));
+        assertEquals(new Aciertos(List.of(1L), 3), indice.buscar("informe", null, 1, 1));
+    }
+
+    @Test
+    void exigeTodosLosTerminos() {
+        assertEquals(new Aciertos(List.of(3L), 1), indice.buscar("INFORME ventas", null, 0, 10));
+        assertEquals(Aciertos.VACIO, indice.buscar("informe trimestral", null, 0, 10));
+    }
+
+    @Test
+    void ignoraLosAcentos() {
+        assertEquals(List.of(2L), indice.buscar("revision", null, 0, 10).ids());
+        assertEquals(List.of(2L), indice.buscar("REVISIÓN", null, 0, 10).ids());
+    }
+
+    @Test
+    void limitaALosProyectosIndicados() {
+        assertEquals(new Aciertos(List.of(2L, 1L), 2), indice.buscar("informe", Set.of(10L), 0, 10));
+        assertEquals(new Aciertos(List.of(3L), 1), indice.buscar("informe", Set.of(20L), 0, 10));
+        assertEquals(Aciertos.VACIO, indice.buscar("informe", Set.of(99L), 0, 10));
+        assertEquals(Aciertos.VACIO, indice.buscar("informe", Set.of(), 0, 10));
+
+        indice.indexar(3, 10L, "Informe anual"); // Cambia de proyecto
+        assertEquals(Aciertos.VACIO, indice.buscar("informe", Set.of(20L), 0, 10));
+        assertEquals(3, indice.buscar("informe", Set.of(10L), 0, 10).total());
+    }
+
+    @Test
+    void noDevuelveEntradasObsoletasNiRepetidas() {
+        indice.indexar(1, 10L, "Resumen mensual"); // Deja una entrada obsoleta de "informe"
+        assertEquals(new Aciertos(List.of(2L, 3L), 2), indice.buscar("informe", null, 0, 10));
+
+        indice.indexar(1, 10L, "Informe mensual"); // La vuelve a añadir: queda repetida en la lista
+        assertEquals(3, indice.buscar("informe", null, 0, 10).total());
+        assertEquals(3, indice.buscar("informe", null, 0, 10).ids().size());
+
+        indice.eliminar(1);
+        indice.eliminar(2); // Más de la mitad obsoletas: la lista se compacta
+        assertEquals(new Aciertos(List.of(3L), 1), indice.buscar("informe", null, 0, 10));
+        assertEquals(1, indice.tamanio());
+
+        indice.eliminar(3); // Sin entradas vigentes la lista desaparece
+        assertEquals(Aciertos.VACIO, indice.buscar("informe", null, 0, 10));
+        indice.indexar(4, 10L, "Nuevo informe");
+        assertEquals(new Aciertos(List.of(4L), 1), indice.buscar("informe", null, 0, 10));
+    }
+}
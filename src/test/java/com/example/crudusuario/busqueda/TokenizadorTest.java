@@ -0,0 +1,26 @@
+package com.example.crudusuario.busqueda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Normalización de términos: minúsculas, sin tildes ni diéresis, sin palabras vacías ni términos de una letra.
+ */
+class TokenizadorTest {
+
+    @Test
+    void quitaTildesYDieresisYPasaAMinusculas() {
+        assertEquals(List.of("titulo", "ano", "pinguino", "revision"),
+                Tokenizador.terminos("Título del AÑO: pingüino, REVISIÓN"));
+    }
+
+    @Test
+    void descartaPalabrasVaciasYTerminosDeUnaLetra() {
+        assertEquals(List.of(), Tokenizador.terminos("a la x de y"));
+        assertEquals(List.of(), Tokenizador.terminos(null));
+        assertEquals(List.of("informe", "informe", "q3"), Tokenizador.terminos("Informe (informe) del Q3"));
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.crudusuario.carga;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.crudusuario.FormularioSpringMvcDataSecurityApplication;
+import com.example.crudusuario.carga.ConductorCarga.Estadisticas;
+import com.example.crudusuario.carga.ConductorCarga.Operacion;
+import com.example.crudusuario.service.BusquedaTareasService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Prueba de carga y latencia sobre la aplicación completa con el volumen del perfil "carga"
+ * (H2 en modo MySQL sembrado por GeneradorDatosCarga): login, /proyectos, /tareas/proyecto/{id},
+ * /tareas/todas y alta, edición y borrado de tareas con varios usuarios virtuales a la vez.
+ *
+ * Muestra p50/p99 y rendimiento por operación, guarda el resultado en target/carga/resultados.json y
+ * falla si se supera algún umbral de application-carga.properties o, con carga.linea-base, si empeora
+ * más de carga.tolerancia respecto a otra ejecución.
+ *
+ * No se ejecuta en el build normal (siembra millones de filas). Cualquier propiedad se puede cambiar:
+ * mvn test -Dtest=CargaLatenciaTest -Dcarga=true -Dcarga.tareas=500000 -DargLine=-Xmx8g
+ */
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+@SpringBootTest(classes = FormularioSpringMvcDataSecurityApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("carga")
+@Import(GeneradorDatosCarga.class)
+class CargaLatenciaTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CargaLatenciaTest.class);
+    private static final Path RESULTADOS = Path.of("target", "carga", "resultados.json");
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private Environment entorno;
+
+    @Autowired
+    private BusquedaTareasService busquedaTareasService;
+
+    @Test
+    void latenciaYRendimientoDentroDeUmbrales() throws Exception {
+        esperarIndice();
+        ConductorCarga.Resultado resultado = new ConductorCarga(new ConductorCarga.Configuracion(
+                "http://localhost:" + puerto,
+                entorno.getRequiredProperty("carga.hilos", Integer.class),
+                entorno.getRequiredProperty("carga.calentamiento", Duration.class),
+                entorno.getRequiredProperty("carga.duracion", Duration.class),
+                ConductorCarga.mezcla(entorno.getRequiredProperty("carga.mezcla")),
+                entorno.getRequiredProperty("carga.usuarios", Integer.class),
+                entorno.getRequiredProperty("carga.proyectos", Integer.class),
+                entorno.getRequiredProperty("carga.tareas", Long.class),
+                entorno.getRequiredProperty("carga.semilla", Long.class))).ejecutar();
+
+        imprimir(resultado);
+        Files.createDirectories(RESULTADOS.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(RESULTADOS.toFile(), resultado);
+
+        List<String> violaciones = new ArrayList<>();
+        comprobarUmbrales(resultado, violaciones);
+        String lineaBase = entorno.getProperty("carga.linea-base", "");
+        if (!lineaBase.isBlank()) {
+            comprobarLineaBase(resultado, new ObjectMapper().readTree(new File(lineaBase)), violaciones);
+        }
+        assertTrue(violaciones.isEmpty(), () -> "Umbrales de carga superados:\n" + String.join("\n", violaciones));
+    }
+
+    private void comprobarUmbrales(ConductorCarga.Resultado resultado, List<String> violaciones) {
+        double rendimientoMinimo = entorno.getRequiredProperty("carga.umbral.rendimiento-minimo", Double.class);
+        if (resultado.rendimiento() < rendimientoMinimo) {
+            violaciones.add(String.format("rendimiento %.1f pet/s < %.1f", resultado.rendimiento(), rendimientoMinimo));
+        }
+        double tasaErrores = (double) resultado.errores() / Math.max(1, resultado.peticiones() + resultado.errores());
+        if (tasaErrores > entorno.getRequiredProperty("carga.umbral.tasa-errores", Double.class)) {
+            violaciones.add(String.format("%d errores (%.2f %%)", resultado.errores(), tasaErrores * 100));
+        }
+        for (Map.Entry<Operacion, Estadisticas> entrada : resultado.porOperacion().entrySet()) {
+            String operacion = entrada.getKey().clave;
+            comprobar(violaciones, operacion, "p50", entrada.getValue().p50ms(), umbral("p50", operacion));
+            comprobar(violaciones, operacion, "p99", entrada.getValue().p99ms(), umbral("p99", operacion));
+        }
+    }
+
+    /**
+     * Compara con el resultados.json de otra ejecución: latencias y rendimiento con margen de tolerancia.
+     */
+    private void comprobarLineaBase(ConductorCarga.Resultado resultado, JsonNode base, List<String> violaciones) {
+        double tolerancia = entorno.getRequiredProperty("carga.tolerancia", Double.class);
+        double rendimientoBase = base.path("rendimiento").asDouble();
+        if (resultado.rendimiento() < rendimientoBase * (1 - tolerancia)) {
+            violaciones.add(String.format("rendimiento %.1f pet/s frente a %.1f en la línea base", resultado.rendimiento(), rendimientoBase));
+        }
+        for (Map.Entry<Operacion, Estadisticas> entrada : resultado.porOperacion().entrySet()) {
+            JsonNode anterior = base.path("porOperacion").path(entrada.getKey().name());
+            if (anterior.isMissingNode()) {
+                continue;
+            }
+            String operacion = entrada.getKey().clave + " (línea base)";
+            comprobar(violaciones, operacion, "p50", entrada.getValue().p50ms(), anterior.path("p50ms").asDouble() * (1 + tolerancia));
+            comprobar(violaciones, operacion, "p99", entrada.getValue().p99ms(), anterior.path("p99ms").asDouble() * (1 + tolerancia));
+        }
+    }
+
+    private double umbral(String percentil, String operacion) {
+        Duration defecto = entorno.getRequiredProperty("carga.umbral." + percentil + ".defecto", Duration.class);
+        return entorno.getProperty("carga.umbral." + percentil + "." + operacion, Duration.class, defecto).toNanos() / 1e6;
+    }
+
+    private static void comprobar(List<String> violaciones, String operacion, String percentil, double valorMs, double maximoMs) {
+        if (valorMs > maximoMs) {
+            violaciones.add(String.format("%s %s %.1f ms > %.1f ms", operacion, percentil, valorMs, maximoMs));
+        }
+    }
+
+    private static void imprimir(ConductorCarga.Resultado resultado) {
+        StringBuilder informe = new StringBuilder(String.format("%-16s %10s %8s %10s %10s%n",
+                "operacion", "peticiones", "errores", "p50 (ms)", "p99 (ms)"));
+        resultado.porOperacion().forEach((operacion, e) -> informe.append(String.format("%-16s %10d %8d %10.2f %10.2f%n",
+                operacion.clave, e.peticiones(), e.errores(), e.p50ms(), e.p99ms())));
+        informe.append(String.format("Total: %d peticiones, %d errores, %.1f peticiones/s",
+                resultado.peticiones(), resultado.errores(), resultado.rendimiento()));
+        log.info("Resultado de la prueba de carga:\n{}", informe);
+    }
+
+    /**
+     * El índice de búsqueda se reconstruye en segundo plano al arrancar; se espera a que termine
+     * para no medir con esa reconstrucción compitiendo por la CPU.
+     */
+    private void esperarIndice() throws InterruptedException {
+        long tareas = entorno.getRequiredProperty("carga.tareas", Long.class);
+        long limite = System.nanoTime() + Duration.ofMinutes(30).toNanos();
+        while (busquedaTareasService.buscar("tarea", null, null, 0, 1).total() < tareas) {
+            assertTrue(System.nanoTime() < limite, "El índice de búsqueda no se ha reconstruido a tiempo.");
+            Thread.sleep(500);
+        }
+    }
+}
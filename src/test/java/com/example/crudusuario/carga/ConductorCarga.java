@@ -0,0 +1,305 @@
+package com.example.crudusuario.carga;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Conductor de carga multihilo contra la aplicación arrancada: cada hilo es un usuario virtual que
+ * inicia sesión y lanza operaciones al azar según la mezcla configurada, sin pausas entre ellas.
+ *
+ * Las tareas que se editan o eliminan se eligen por su ID (ver GeneradorDatosCarga.estadoDe) en franjas
+ * disjuntas por hilo, de modo que dos usuarios virtuales nunca compiten por la misma tarea.
+ * Las latencias del calentamiento se descartan.
+ */
+final class ConductorCarga {
+
+    enum Operacion {
+        LOGIN("login"), PROYECTOS("proyectos"), TAREAS_PROYECTO("tareas-proyecto"), TAREAS_TODAS("tareas-todas"),
+        CREAR("crear"), EDITAR("editar"), ELIMINAR("eliminar");
+
+        final String clave;
+
+        Operacion(String clave) {
+            this.clave = clave;
+        }
+
+        static Operacion desdeClave(String clave) {
+            return Arrays.stream(values()).filter(o -> o.clave.equals(clave)).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Operación de carga desconocida: " + clave));
+        }
+    }
+
+    record Configuracion(String base, int hilos, Duration calentamiento, Duration duracion, Map<Operacion, Integer> mezcla,
+                         int usuarios, int proyectos, long tareas, long semilla) {
+    }
+
+    record Estadisticas(long peticiones, long errores, double p50ms, double p99ms) {
+    }
+
+    record Resultado(Map<Operacion, Estadisticas> porOperacion, long peticiones, long errores, double rendimiento) {
+    }
+
+    private final Configuracion configuracion;
+    private final HttpClient cliente = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+    private final Operacion[] ruleta; // Cada operación aparece tantas veces como su peso
+
+    ConductorCarga(Configuracion configuracion) {
+        this.configuracion = configuracion;
+        List<Operacion> entradas = new ArrayList<>();
+        configuracion.mezcla().forEach((operacion, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                entradas.add(operacion);
+            }
+        });
+        if (entradas.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla de operaciones está vacía.");
+        }
+        this.ruleta = entradas.toArray(Operacion[]::new);
+    }
+
+    /**
+     * Interpreta "login:1,proyectos:2,...".
+     */
+    static Map<Operacion, Integer> mezcla(String texto) {
+        Map<Operacion, Integer> mezcla = new LinkedHashMap<>();
+        for (String parte : texto.split(",")) {
+            String[] claveValor = parte.trim().split(":");
+            mezcla.put(Operacion.desdeClave(claveValor[0].trim()), Integer.parseInt(claveValor[1].trim()));
+        }
+        return mezcla;
+    }
+
+    Resultado ejecutar() throws Exception {
+        long inicioMedicion = System.nanoTime() + configuracion.calentamiento().toNanos();
+        long fin = inicioMedicion + configuracion.duracion().toNanos();
+
+        List<UsuarioVirtual> usuarios = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newFixedThreadPool(configuracion.hilos())) {
+            List<Future<?>> futuros = new ArrayList<>();
+            for (int i = 0; i < configuracion.hilos(); i++) {
+                UsuarioVirtual usuario = new UsuarioVirtual(i, inicioMedicion, fin);
+                usuarios.add(usuario);
+                futuros.add(hilos.submit(() -> {
+                    usuario.ejecutar();
+                    return null;
+                }));
+            }
+            for (Future<?> futuro : futuros) {
+                futuro.get();
+            }
+        }
+
+        Map<Operacion, Estadisticas> porOperacion = new EnumMap<>(Operacion.class);
+        long peticiones = 0;
+        long errores = 0;
+        for (Operacion operacion : Operacion.values()) {
+            Muestras todas = new Muestras();
+            long erroresOperacion = 0;
+            for (UsuarioVirtual usuario : usuarios) {
+                todas.agregar(usuario.latencias.get(operacion));
+                erroresOperacion += usuario.errores.getOrDefault(operacion, 0L);
+            }
+            if (todas.tamanio == 0 && erroresOperacion == 0) {
+                continue;
+            }
+            long[] ordenadas = todas.ordenadas();
+            porOperacion.put(operacion, new Estadisticas(ordenadas.length, erroresOperacion,
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.99)));
+            peticiones += ordenadas.length;
+            errores += erroresOperacion;
+        }
+        double segundos = configuracion.duracion().toNanos() / 1e9;
+        return new Resultado(porOperacion, peticiones, errores, peticiones / segundos);
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return Double.NaN;
+        }
+        return ordenadas[Math.min(ordenadas.length - 1, (int) (ordenadas.length * p))] / 1e6;
+    }
+
+    /**
+     * Un usuario del generador con su sesión, su generador aleatorio y sus franjas de tareas.
+     */
+    private final class UsuarioVirtual {
+        private final int indice;
+        private final long inicioMedicion;
+        private final long fin;
+        private final SplittableRandom aleatorio;
+        private final String username;
+        private final Map<Operacion, Muestras> latencias = new EnumMap<>(Operacion.class);
+        private final Map<Operacion, Long> errores = new EnumMap<>(Operacion.class);
+        private String cookie;
+        private long siguienteEdicion;   // Franja de IDs EN_CURSO (id % 3 == 1)
+        private long siguienteBorrado;   // Franja de IDs PENDIENTE (id % 3 == 0)
+
+        UsuarioVirtual(int indice, long inicioMedicion, long fin) {
+            this.indice = indice;
+            this.inicioMedicion = inicioMedicion;
+            this.fin = fin;
+            this.aleatorio = new SplittableRandom(configuracion.semilla() + indice);
+            this.username = "usuario" + (indice % configuracion.usuarios() + 1);
+            for (Operacion operacion : Operacion.values()) {
+                latencias.put(operacion, new Muestras());
+            }
+        }
+
+        void ejecutar() {
+            cookie = iniciarSesion();
+            while (System.nanoTime() < fin) {
+                Operacion operacion = ruleta[aleatorio.nextInt(ruleta.length)];
+                if (operacion == Operacion.ELIMINAR && siguienteIdBorrado() > configuracion.tareas()) {
+                    continue; // Ya no quedan tareas pendientes en la franja de este hilo
+                }
+                long t0 = System.nanoTime();
+                boolean correcta;
+                try {
+                    correcta = ejecutar(operacion);
+                } catch (Exception e) {
+                    correcta = false;
+                }
+                long t1 = System.nanoTime();
+                if (t0 >= inicioMedicion && t1 <= fin) {
+                    if (correcta) {
+                        latencias.get(operacion).agregar(t1 - t0);
+                    } else {
+                        errores.merge(operacion, 1L, Long::sum);
+                    }
+                }
+            }
+        }
+
+        private boolean ejecutar(Operacion operacion) throws Exception {
+            return switch (operacion) {
+                case LOGIN -> (cookie = iniciarSesion()) != null;
+                case PROYECTOS -> get("/proyectos").statusCode() == 200;
+                case TAREAS_PROYECTO -> get("/tareas/proyecto/" + (aleatorio.nextInt(configuracion.proyectos()) + 1)).statusCode() == 200;
+                case TAREAS_TODAS -> get("/tareas/todas?despuesDe=" + aleatorio.nextLong(configuracion.tareas())
+                        + (aleatorio.nextBoolean() ? "&estado=PENDIENTE" : "")).statusCode() == 200;
+                case CREAR -> redirigeAProyecto(post("/tareas/guardar", Map.of(
+                        "proyectoId", String.valueOf(aleatorio.nextInt(configuracion.proyectos()) + 1),
+                        "titulo", "Tarea de carga " + indice,
+                        "descripcion", "Creada por el conductor de carga",
+                        "estado", "PENDIENTE")));
+                case EDITAR -> redirigeAProyecto(post("/tareas/actualizar/" + idEdicion(), Map.of(
+                        "titulo", "Tarea editada por " + username,
+                        "descripcion", "Editada por el conductor de carga",
+                        "estado", "EN_CURSO")));
+                case ELIMINAR -> {
+                    long id = siguienteIdBorrado();
+                    siguienteBorrado++;
+                    yield redirigeAProyecto(get("/tareas/eliminar/" + id));
+                }
+            };
+        }
+
+        /**
+         * IDs con id % 3 == 1 (EN_CURSO): hilo i edita 3(i + k·hilos) + 1, y vuelve a empezar al acabar.
+         */
+        private long idEdicion() {
+            long id = 3 * (indice + siguienteEdicion * configuracion.hilos()) + 1;
+            if (id > configuracion.tareas()) {
+                siguienteEdicion = 0;
+                id = 3L * indice + 1;
+            }
+            siguienteEdicion++;
+            return id;
+        }
+
+        /**
+         * IDs con id % 3 == 0 (PENDIENTE): hilo i elimina 3(i + k·hilos + 1), cada uno una sola vez.
+         */
+        private long siguienteIdBorrado() {
+            return 3 * (indice + siguienteBorrado * configuracion.hilos() + 1);
+        }
+
+        private String iniciarSesion() {
+            try {
+                HttpResponse<Void> respuesta = post("/login", Map.of("username", username, "password", GeneradorDatosCarga.CONTRASENA),
+                        false);
+                String destino = respuesta.headers().firstValue("Location").orElse("");
+                if (respuesta.statusCode() != 302 || destino.contains("error")) {
+                    return null;
+                }
+                return respuesta.headers().allValues("Set-Cookie").stream()
+                        .filter(c -> c.startsWith("SESSION=")) // Cookie de Spring Session
+                        .map(c -> c.substring(0, c.indexOf(';')))
+                        .findFirst()
+                        .orElse(null);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+
+        private HttpResponse<Void> get(String ruta) throws Exception {
+            return cliente.send(peticion(ruta).GET().build(), HttpResponse.BodyHandlers.discarding());
+        }
+
+        private HttpResponse<Void> post(String ruta, Map<String, String> campos) throws Exception {
+            return post(ruta, campos, true);
+        }
+
+        private HttpResponse<Void> post(String ruta, Map<String, String> campos, boolean conSesion) throws Exception {
+            StringBuilder formulario = new StringBuilder();
+            campos.forEach((campo, valor) -> formulario.append(formulario.isEmpty() ? "" : "&")
+                    .append(URLEncoder.encode(campo, StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(valor, StandardCharsets.UTF_8)));
+            HttpRequest.Builder peticion = conSesion ? peticion(ruta) : HttpRequest.newBuilder(URI.create(configuracion.base() + ruta));
+            return cliente.send(peticion.header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(formulario.toString())).build(), HttpResponse.BodyHandlers.discarding());
+        }
+
+        private HttpRequest.Builder peticion(String ruta) {
+            HttpRequest.Builder peticion = HttpRequest.newBuilder(URI.create(configuracion.base() + ruta));
+            return (cookie != null) ? peticion.header("Cookie", cookie) : peticion;
+        }
+
+        private boolean redirigeAProyecto(HttpResponse<Void> respuesta) {
+            return respuesta.statusCode() == 302
+                    && respuesta.headers().firstValue("Location").orElse("").contains("/tareas/proyecto/");
+        }
+    }
+
+    /**
+     * Latencias en nanosegundos sin objetos por muestra.
+     */
+    private static final class Muestras {
+        private long[] valores = new long[1024];
+        private int tamanio;
+
+        void agregar(long valor) {
+            if (tamanio == valores.length) {
+                valores = Arrays.copyOf(valores, tamanio * 2);
+            }
+            valores[tamanio++] = valor;
+        }
+
+        void agregar(Muestras otras) {
+            for (int i = 0; i < otras.tamanio; i++) {
+                agregar(otras.valores[i]);
+            }
+        }
+
+        long[] ordenadas() {
+            long[] copia = Arrays.copyOf(valores, tamanio);
+            Arrays.sort(copia);
+            return copia;
+        }
+    }
+}
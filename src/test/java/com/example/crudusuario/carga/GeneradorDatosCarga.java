@@ -0,0 +1,106 @@
+package com.example.crudusuario.carga;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.crudusuario.model.EstadoProyecto;
+import com.example.crudusuario.model.EstadoTarea;
+
+/**
+ * Siembra el perfil "carga" con un volumen fijo y determinista (misma semilla, mismos datos).
+ *
+ * - Usuarios usuario1..usuarioN con la contraseña CONTRASENA (usuario1 es ADMIN, el resto USER).
+ * - Proyectos repartidos entre los usuarios y tareas repartidas entre los proyectos.
+ * - Los IDs se asignan explícitamente (1..N) y el estado de la tarea depende de su ID
+ *   (id % 3: 0 PENDIENTE, 1 EN_CURSO, 2 COMPLETADA), así el conductor de carga sabe qué tareas
+ *   puede editar o eliminar sin consultarlas.
+ *
+ * Se ejecuta al refrescar el contexto, antes de ApplicationReadyEvent, para que el índice de búsqueda,
+ * los contadores y los vencimientos se construyan sobre los datos sembrados como en producción.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class GeneradorDatosCarga {
+
+    static final String CONTRASENA = "carga";
+    private static final Logger log = LoggerFactory.getLogger(GeneradorDatosCarga.class);
+    private static final int LOTE = 5000;
+    private static final String[] VERBOS = { "Revisar", "Preparar", "Enviar", "Corregir", "Planificar", "Documentar" };
+    private static final String[] OBJETOS = { "informe", "presupuesto", "contrato", "entrega", "migración", "reunión" };
+
+    private final JdbcTemplate jdbc;
+    private final PasswordEncoder passwordEncoder;
+    private final Environment entorno;
+
+    public GeneradorDatosCarga(JdbcTemplate jdbc, PasswordEncoder passwordEncoder, Environment entorno) {
+        this.jdbc = jdbc;
+        this.passwordEncoder = passwordEncoder;
+        this.entorno = entorno;
+    }
+
+    /**
+     * Estado de una tarea sembrada según su ID.
+     */
+    static EstadoTarea estadoDe(long tareaId) {
+        return EstadoTarea.values()[(int) (tareaId % 3)];
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void sembrar() {
+        int usuarios = entorno.getRequiredProperty("carga.usuarios", Integer.class);
+        int proyectos = entorno.getRequiredProperty("carga.proyectos", Integer.class);
+        long tareas = entorno.getRequiredProperty("carga.tareas", Long.class);
+        SplittableRandom aleatorio = new SplittableRandom(entorno.getRequiredProperty("carga.semilla", Long.class));
+        long inicio = System.nanoTime();
+
+        String hash = passwordEncoder.encode(CONTRASENA); // Un único hash: BCrypt por usuario tardaría minutos
+        List<Object[]> filas = new ArrayList<>(LOTE);
+        for (int u = 1; u <= usuarios; u++) {
+            filas.add(new Object[] { u, "usuario" + u, hash, (u == 1) ? "ADMIN" : "USER" });
+            insertarSiLleno(filas, u == usuarios, "INSERT INTO usuarios (id, username, password, role) VALUES (?, ?, ?, ?)");
+        }
+
+        EstadoProyecto[] estadosProyecto = EstadoProyecto.values();
+        LocalDate base = LocalDate.of(2024, 1, 1);
+        for (int p = 1; p <= proyectos; p++) {
+            filas.add(new Object[] { p, "Proyecto " + p, "Proyecto de carga " + p, base.plusDays(aleatorio.nextInt(730)),
+                    estadosProyecto[aleatorio.nextInt(estadosProyecto.length)].name(), (p - 1) % usuarios + 1 });
+            insertarSiLleno(filas, p == proyectos,
+                    "INSERT INTO proyectos (id, nombre, descripcion, fecha_inicio, estado, version, usuario_id) VALUES (?, ?, ?, ?, ?, 0, ?)");
+        }
+
+        LocalDate hoy = LocalDate.now();
+        for (long t = 1; t <= tareas; t++) {
+            String titulo = VERBOS[aleatorio.nextInt(VERBOS.length)] + " " + OBJETOS[aleatorio.nextInt(OBJETOS.length)] + " " + t;
+            LocalDate fechaLimite = (aleatorio.nextInt(4) == 0) ? null : hoy.plusDays(aleatorio.nextInt(-90, 180));
+            filas.add(new Object[] { t, titulo, "Descripción de la tarea " + t, fechaLimite, estadoDe(t).name(),
+                    (t - 1) % proyectos + 1 });
+            insertarSiLleno(filas, t == tareas,
+                    "INSERT INTO tareas (id, titulo, descripcion, fecha_limite, estado, version, proyecto_id) VALUES (?, ?, ?, ?, ?, 0, ?)");
+        }
+
+        // Los IDs explícitos no avanzan la identidad en H2: las altas siguen a partir del último sembrado
+        jdbc.execute("ALTER TABLE usuarios ALTER COLUMN id RESTART WITH " + (usuarios + 1));
+        jdbc.execute("ALTER TABLE proyectos ALTER COLUMN id RESTART WITH " + (proyectos + 1));
+        jdbc.execute("ALTER TABLE tareas ALTER COLUMN id RESTART WITH " + (tareas + 1));
+        log.info("Datos de carga sembrados en {} s: {} usuarios, {} proyectos, {} tareas",
+                (System.nanoTime() - inicio) / 1_000_000_000, usuarios, proyectos, tareas);
+    }
+
+    private void insertarSiLleno(List<Object[]> filas, boolean ultima, String sql) {
+        if (filas.size() == LOTE || (ultima && !filas.isEmpty())) {
+            jdbc.batchUpdate(sql, filas);
+            filas.clear();
+        }
+    }
+}
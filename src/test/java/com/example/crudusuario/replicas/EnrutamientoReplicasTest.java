@@ -0,0 +1,187 @@
+package com.example.crudusuario.replicas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.crudusuario.FormularioSpringMvcDataSecurityApplication;
+import com.example.crudusuario.dto.ProyectoResumen;
+import com.example.crudusuario.model.Proyecto;
+import com.example.crudusuario.service.ProyectoService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Enrutamiento a réplicas con dos bases H2 en memoria: el primario (esquema creado por Hibernate) y una réplica
+ * con el mismo esquema y datos distintos, para saber de cuál se ha leído por el nombre del proyecto.
+ */
+@SpringBootTest(classes = FormularioSpringMvcDataSecurityApplication.class, properties = {
+    "spring.datasource.url=" + EnrutamientoReplicasTest.URL_PRIMARIO,
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "app.jdbc.filas-por-lectura=500",
+    "app.datasource.replicas.urls=" + EnrutamientoReplicasTest.URL_REPLICA
+})
+class EnrutamientoReplicasTest {
+
+    static final String URL_PRIMARIO = "jdbc:h2:mem:primario;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String URL_REPLICA = "jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ProyectoService proyectoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void prepararBases() throws SQLException {
+        try (Connection primario = DriverManager.getConnection(URL_PRIMARIO, "sa", "");
+             Connection replica = DriverManager.getConnection(URL_REPLICA, "sa", "")) {
+            try (Statement sentencia = replica.createStatement()) {
+                sentencia.execute("DROP ALL OBJECTS");
+            }
+            copiarEsquema(primario, replica);
+            sembrar(primario, "Solo en el primario");
+            sembrar(replica, "Solo en la réplica");
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void terminarPeticion() {
+        LecturaPropia.terminar();
+    }
+
+    @Test
+    void laLecturaDeUnaPeticionVaALaReplica() {
+        LecturaPropia.iniciar(false);
+        assertEquals(List.of("Solo en la réplica"), nombres(proyectoService.listarResumenProyectos()));
+    }
+
+    @Test
+    void fueraDeUnaPeticionSeLeeDelPrimario() {
+        assertEquals(List.of("Solo en el primario"), nombres(proyectoService.listarResumenProyectos()));
+    }
+
+    @Test
+    void trasEscribirLaPeticionLeeDelPrimario() {
+        LecturaPropia lectura = LecturaPropia.iniciar(false);
+        transactionTemplate.executeWithoutResult(estado ->
+                jdbcTemplate.update("UPDATE proyectos SET descripcion = 'editado' WHERE id = 1"));
+
+        assertTrue(lectura.haEscrito());
+        assertEquals(List.of("Solo en el primario"), nombres(proyectoService.listarResumenProyectos()));
+    }
+
+    @Test
+    void laSesionQueAcabaDeEscribirLeeDelPrimarioDuranteLaVentana() throws Exception {
+        FiltroLecturaPropia filtro = new FiltroLecturaPropia(Duration.ofMinutes(1));
+        MockHttpServletRequest escritura = new MockHttpServletRequest("POST", "/proyectos/guardar");
+        filtro.doFilter(escritura, new MockHttpServletResponse(), (req, res) -> transactionTemplate.executeWithoutResult(
+                estado -> jdbcTemplate.update("UPDATE proyectos SET descripcion = 'editado' WHERE id = 1")));
+        assertNotNull(escritura.getSession().getAttribute(FiltroLecturaPropia.ATRIBUTO_ULTIMA_ESCRITURA));
+
+        MockHttpServletRequest lectura = new MockHttpServletRequest("GET", "/proyectos");
+        lectura.setSession(escritura.getSession());
+        List<String> leidos = new ArrayList<>();
+        filtro.doFilter(lectura, new MockHttpServletResponse(),
+                (req, res) -> leidos.addAll(nombres(proyectoService.listarResumenProyectos())));
+        assertEquals(List.of("Solo en el primario"), leidos);
+
+        MockHttpServletRequest otraSesion = new MockHttpServletRequest("GET", "/proyectos");
+        leidos.clear();
+        filtro.doFilter(otraSesion, new MockHttpServletResponse(),
+                (req, res) -> leidos.addAll(nombres(proyectoService.listarResumenProyectos())));
+        assertEquals(List.of("Solo en la réplica"), leidos);
+    }
+
+    @Test
+    void loLeidoDeUnaReplicaNoEntraEnLaCacheDeSegundoNivel() {
+        LecturaPropia.iniciar(false);
+        assertEquals("Solo en la réplica", nombreProyectoLeido());
+        assertFalse(entityManagerFactory.getCache().contains(Proyecto.class, 1L));
+
+        LecturaPropia.terminar();
+        assertEquals("Solo en el primario", nombreProyectoLeido());
+        assertTrue(entityManagerFactory.getCache().contains(Proyecto.class, 1L));
+
+        LecturaPropia.iniciar(false); // La réplica sí lee de la caché que llenó el primario
+        assertEquals("Solo en el primario", nombreProyectoLeido());
+    }
+
+    private String nombreProyectoLeido() {
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+        return soloLectura.execute(estado -> entityManager.find(Proyecto.class, 1L).getNombre());
+    }
+
+    /**
+     * Mismo esquema que el primario (tablas, índices, restricciones), sin datos.
+     */
+    private static void copiarEsquema(Connection primario, Connection replica) throws SQLException {
+        List<String> ddl = new ArrayList<>();
+        try (Statement sentencia = primario.createStatement(); ResultSet filas = sentencia.executeQuery("SCRIPT NODATA")) {
+            while (filas.next()) {
+                String sql = filas.getString(1);
+                if (!sql.startsWith("--") && !sql.startsWith("CREATE USER")) {
+                    ddl.add(sql);
+                }
+            }
+        }
+        try (Statement sentencia = replica.createStatement()) {
+            for (String sql : ddl) {
+                sentencia.execute(sql);
+            }
+        }
+    }
+
+    private static void sembrar(Connection conexion, String nombreProyecto) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("DELETE FROM tareas");
+            sentencia.execute("DELETE FROM proyectos");
+            sentencia.execute("DELETE FROM usuarios");
+            sentencia.execute("INSERT INTO usuarios (id, username, password, role) VALUES (1, 'admin', 'x', 'ADMIN')");
+            sentencia.execute("INSERT INTO proyectos (id, nombre, descripcion, fecha_inicio, estado, version, usuario_id) "
+                    + "VALUES (1, '" + nombreProyecto + "', 'prueba', DATE '2025-01-01', 'ACTIVO', 0, 1)");
+        }
+    }
+
+    private static List<String> nombres(List<ProyectoResumen> proyectos) {
+        return proyectos.stream().map(ProyectoResumen::nombre).toList();
+    }
+}
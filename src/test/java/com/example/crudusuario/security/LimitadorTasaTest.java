@@ -0,0 +1,60 @@
+package com.example.crudusuario.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Cubetas de fichas con un reloj manual: ráfaga inicial, recarga al ritmo configurado y claves independientes.
+ */
+class LimitadorTasaTest {
+
+    private final AtomicLong reloj = new AtomicLong(-TimeUnit.HOURS.toNanos(1)); // nanoTime puede ser negativo
+    private final LimitadorTasa limitador = new LimitadorTasa(5, Duration.ofMinutes(1), 100, reloj::get);
+
+    @Test
+    void admiteLaRafagaYRechazaLaSiguiente() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limitador.consumir("ana"));
+        }
+        long espera = limitador.consumir("ana");
+        assertEquals(TimeUnit.SECONDS.toNanos(12), espera);
+        assertEquals(0, limitador.consumir("luis"));
+    }
+
+    @Test
+    void recuperaUnaFichaPorIntervalo() {
+        for (int i = 0; i < 5; i++) {
+            limitador.consumir("ana");
+        }
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(12));
+        assertEquals(0, limitador.consumir("ana"));
+        assertTrue(limitador.consumir("ana") > 0);
+    }
+
+    @Test
+    void comprobarNoGastaFichas() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limitador.espera("ana"));
+        }
+        for (int i = 0; i < 5; i++) {
+            limitador.consumir("ana");
+        }
+        assertEquals(TimeUnit.SECONDS.toNanos(12), limitador.espera("ana"));
+    }
+
+    @Test
+    void elTiempoSinUsoNoAcumulaMasQueLaRafaga() {
+        limitador.consumir("ana");
+        reloj.addAndGet(TimeUnit.HOURS.toNanos(2));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limitador.consumir("ana"));
+        }
+        assertTrue(limitador.consumir("ana") > 0);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.crudusuario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.crudusuario.FormularioSpringMvcDataSecurityApplication;
+import com.example.crudusuario.eventos.EventoDominio;
+import com.example.crudusuario.eventos.SuscriptorEventos;
+
+/**
+ * Bandeja de salida sobre H2 en modo MySQL con un suscriptor de prueba que falla a demanda: orden por agregado
+ * con eventos aplazados, espera exponencial con tope, paso de lote a evento a evento y repetición de la entrega
+ * tras deshacer lo escrito.
+ *
+ * Los eventos se insertan con JDBC (sin despertar al hilo de la bandeja) y se entregan llamando a drenar,
+ * así que cada prueba decide cuándo se revisa la tabla. Son eventos de usuario sin datos, que los suscriptores
+ * de la aplicación ignoran.
+ */
+@SpringBootTest(classes = FormularioSpringMvcDataSecurityApplication.class, properties = {
+    "spring.datasource.url=jdbc:h2:mem:bandeja;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "app.jdbc.filas-por-lectura=500",
+    "app.eventos.intervalo=1h",
+    "app.eventos.reintento-inicial=1s",
+    "app.eventos.reintento-maximo=4s"
+})
+@Import(BandejaSalidaServiceTest.SuscriptorPrueba.class)
+class BandejaSalidaServiceTest {
+
+    private static final long UNA_HORA = 3_600_000;
+
+    @Autowired
+    private BandejaSalidaService bandeja;
+
+    @Autowired
+    private SuscriptorPrueba suscriptor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void limpiar() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS entregas_prueba (agregado_id BIGINT, intento INT)");
+        jdbcTemplate.update("DELETE FROM entregas_prueba");
+        jdbcTemplate.update("DELETE FROM eventos_salida");
+        suscriptor.fallan.clear();
+        suscriptor.lotes.clear();
+    }
+
+    @Test
+    void unEventoAplazadoRetieneLosSiguientesDeSuAgregado() {
+        long a1 = insertar(1, System.currentTimeMillis() + UNA_HORA, 1);
+        long a2 = insertar(1, 0, 0);
+        long b1 = insertar(2, 0, 0);
+
+        bandeja.drenar();
+        assertEquals(List.of(List.of(b1)), suscriptor.lotes);
+        assertEquals(List.of(a1, a2), pendientes());
+
+        jdbcTemplate.update("UPDATE eventos_salida SET siguiente_intento = 0 WHERE id = ?", a1);
+        bandeja.drenar();
+        assertEquals(List.of(List.of(b1), List.of(a1), List.of(a2)), suscriptor.lotes);
+        assertEquals(List.of(), pendientes());
+    }
+
+    @Test
+    void laEsperaSeDuplicaEnCadaFalloHastaElMaximo() {
+        long id = insertar(3, 0, 0);
+        suscriptor.fallan.add(3L);
+        long[] esperas = { 1000, 2000, 4000, 4000 };
+        for (int i = 0; i < esperas.length; i++) {
+            jdbcTemplate.update("UPDATE eventos_salida SET siguiente_intento = 0 WHERE id = ?", id);
+            long antes = System.currentTimeMillis();
+            bandeja.drenar();
+            long despues = System.currentTimeMillis();
+            Map<String, Object> fila = jdbcTemplate.queryForMap(
+                    "SELECT intentos, siguiente_intento FROM eventos_salida WHERE id = ?", id);
+            assertEquals(i + 1, ((Number) fila.get("intentos")).intValue());
+            long siguiente = ((Number) fila.get("siguiente_intento")).longValue();
+            assertTrue(siguiente >= antes + esperas[i] && siguiente <= despues + esperas[i],
+                    "Intento " + (i + 1) + ": se esperaba un aplazamiento de " + esperas[i] + " ms");
+        }
+        assertEquals(List.of(), suscriptor.lotes);
+    }
+
+    @Test
+    void siElLoteFallaSeEntreganUnoAUno() {
+        long c = insertar(4, 0, 0);
+        long d = insertar(5, 0, 0);
+        suscriptor.fallan.add(5L);
+
+        bandeja.drenar();
+        assertEquals(List.of(List.of(c)), suscriptor.lotes); // El lote [c, d] falló entero
+        assertEquals(List.of(d), pendientes());
+        assertEquals(1, entregasGuardadas(4));
+        assertEquals(0, entregasGuardadas(5));
+    }
+
+    @Test
+    void unaEntregaFallidaSeDeshaceYSeRepite() {
+        long id = insertar(6, 0, 0);
+        suscriptor.fallan.add(6L);
+
+        bandeja.drenar();
+        assertEquals(0, entregasGuardadas(6)); // Lo que escribió antes de fallar no se confirma
+        assertEquals(List.of(id), pendientes());
+
+        suscriptor.fallan.clear();
+        jdbcTemplate.update("UPDATE eventos_salida SET siguiente_intento = 0 WHERE id = ?", id);
+        bandeja.drenar();
+        assertEquals(List.of(List.of(id)), suscriptor.lotes);
+        assertEquals(List.of(2), jdbcTemplate.queryForList(
+                "SELECT intento FROM entregas_prueba WHERE agregado_id = 6", Integer.class));
+        assertEquals(List.of(), pendientes());
+    }
+
+    private long insertar(long agregadoId, long siguienteIntento, int intentos) {
+        jdbcTemplate.update("""
+                INSERT INTO eventos_salida (agregado, agregado_id, tipo, datos, usuario, creado, siguiente_intento, intentos)
+                VALUES ('USUARIO', ?, 'MODIFICADO', NULL, NULL, ?, ?, ?)
+                """, agregadoId, System.currentTimeMillis(), siguienteIntento, intentos);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM eventos_salida", Long.class);
+    }
+
+    private List<Long> pendientes() {
+        return jdbcTemplate.queryForList("SELECT id FROM eventos_salida ORDER BY id", Long.class);
+    }
+
+    private int entregasGuardadas(long agregadoId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM entregas_prueba WHERE agregado_id = ?",
+                Integer.class, agregadoId);
+    }
+
+    /**
+     * Anota cada entrega en una tabla (para comprobar que se deshace) y falla si el lote lleva algún agregado
+     * de la lista fallan. Los lotes entregados sin error se guardan con los ID de sus eventos.
+     */
+    static class SuscriptorPrueba implements SuscriptorEventos {
+
+        final Set<Long> fallan = ConcurrentHashMap.newKeySet();
+        final List<List<Long>> lotes = new CopyOnWriteArrayList<>();
+        private final JdbcTemplate jdbcTemplate;
+
+        SuscriptorPrueba(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        public void recibir(EventoDominio evento) {
+            recibir(List.of(evento));
+        }
+
+        @Override
+        public void recibir(Collection<EventoDominio> eventos) {
+            for (EventoDominio evento : eventos) {
+                jdbcTemplate.update("INSERT INTO entregas_prueba (agregado_id, intento) VALUES (?, ?)",
+                        evento.agregadoId(), evento.intento());
+            }
+            if (eventos.stream().anyMatch(evento -> fallan.contains(evento.agregadoId()))) {
+                throw new IllegalStateException("Fallo de prueba");
+            }
+            lotes.add(eventos.stream().map(EventoDominio::id).toList());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.crudusuario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.example.crudusuario.FormularioSpringMvcDataSecurityApplication;
+import com.example.crudusuario.dto.ResultadoTransicion;
+import com.example.crudusuario.dto.ResultadoTransicion.Resultado;
+import com.example.crudusuario.dto.ResultadoTransicion.ResultadoTarea;
+import com.example.crudusuario.model.EstadoTarea;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Cambio de estado masivo sobre H2 en modo MySQL, con lotes de dos tareas para que cada operación use varios:
+ * resultado por tarea, incremento de versión y variación de los contadores por proyecto y estado.
+ *
+ * Tareas sembradas (todas con versión 0): proyecto 1 con 1, 5 y 6 PENDIENTE, 2 EN_CURSO y 3 COMPLETADA;
+ * proyecto 2 con 4 PENDIENTE.
+ */
+@SpringBootTest(classes = FormularioSpringMvcDataSecurityApplication.class, properties = {
+    "spring.datasource.url=jdbc:h2:mem:transiciones;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "app.jdbc.filas-por-lectura=500",
+    "app.transiciones.tamanio-lote=2"
+})
+class TransicionesTareasServiceTest {
+
+    @Autowired
+    private TransicionesTareasService transicionesTareasService;
+
+    @Autowired
+    private ContadoresTareasService contadoresTareasService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void sembrar() {
+        jdbcTemplate.update("DELETE FROM resumen_estados_tarea");
+        jdbcTemplate.update("DELETE FROM tareas");
+        jdbcTemplate.update("DELETE FROM proyectos");
+        jdbcTemplate.update("DELETE FROM usuarios");
+        jdbcTemplate.update("INSERT INTO usuarios (id, username, password, role) VALUES (1, 'ana', 'x', 'USER')");
+        jdbcTemplate.batchUpdate("INSERT INTO proyectos (id, nombre, descripcion, fecha_inicio, estado, version, usuario_id) "
+                + "VALUES (?, ?, 'prueba', DATE '2025-01-01', 'ACTIVO', 0, 1)",
+                List.of(new Object[] { 1L, "Sprint" }, new Object[] { 2L, "Otro" }));
+        jdbcTemplate.batchUpdate("INSERT INTO tareas (id, titulo, estado, version, proyecto_id) VALUES (?, ?, ?, 0, ?)",
+                List.of(new Object[] { 1L, "Tarea 1", "PENDIENTE", 1L },
+                        new Object[] { 2L, "Tarea 2", "EN_CURSO", 1L },
+                        new Object[] { 3L, "Tarea 3", "COMPLETADA", 1L },
+                        new Object[] { 4L, "Tarea 4", "PENDIENTE", 2L },
+                        new Object[] { 5L, "Tarea 5", "PENDIENTE", 1L },
+                        new Object[] { 6L, "Tarea 6", "PENDIENTE", 1L }));
+        jdbcTemplate.update("INSERT INTO resumen_estados_tarea (proyecto_id, estado, total) "
+                + "SELECT proyecto_id, estado, COUNT(*) FROM tareas GROUP BY proyecto_id, estado");
+    }
+
+    @Test
+    void porIdsDevuelveElResultadoDeCadaTareaEnElOrdenPedido() {
+        ResultadoTransicion resultado = transicionesTareasService.cambiarEstado(List.of(1L, 3L, 99L, 2L, 1L),
+                EstadoTarea.COMPLETADA);
+
+        assertEquals(List.of(
+                new ResultadoTarea(1L, Resultado.CAMBIADA, 1L),
+                new ResultadoTarea(3L, Resultado.SIN_CAMBIOS, 0L),
+                new ResultadoTarea(99L, Resultado.NO_ENCONTRADA, null),
+                new ResultadoTarea(2L, Resultado.CAMBIADA, 1L)), resultado.tareas());
+        assertEquals(2, resultado.cambiadas());
+        assertEquals(1, resultado.sinCambios());
+        assertEquals(1, resultado.noEncontradas());
+
+        assertEquals(Map.of(1L, 1L, 2L, 1L, 3L, 0L, 5L, 0L, 6L, 0L), versiones(1L));
+        assertEquals(Map.of(EstadoTarea.PENDIENTE, 2L, EstadoTarea.EN_CURSO, 0L, EstadoTarea.COMPLETADA, 3L),
+                contadores(1L));
+    }
+
+    @Test
+    void porFiltroCambiaTodasLasDelEstadoActualDelProyecto() {
+        ResultadoTransicion resultado = transicionesTareasService.cambiarEstado(1L, EstadoTarea.PENDIENTE,
+                EstadoTarea.EN_CURSO);
+
+        assertEquals(List.of(
+                new ResultadoTarea(1L, Resultado.CAMBIADA, 1L),
+                new ResultadoTarea(5L, Resultado.CAMBIADA, 1L),
+                new ResultadoTarea(6L, Resultado.CAMBIADA, 1L)), resultado.tareas());
+        assertEquals(3, resultado.cambiadas());
+
+        assertEquals(Map.of(1L, 1L, 2L, 0L, 3L, 0L, 5L, 1L, 6L, 1L), versiones(1L));
+        assertEquals(Map.of(EstadoTarea.PENDIENTE, 0L, EstadoTarea.EN_CURSO, 4L, EstadoTarea.COMPLETADA, 1L),
+                contadores(1L));
+        assertEquals(Map.of(EstadoTarea.PENDIENTE, 1L, EstadoTarea.EN_CURSO, 0L, EstadoTarea.COMPLETADA, 0L),
+                contadores(2L)); // Otro proyecto: sin tocar
+    }
+
+    @Test
+    void rechazaPeticionesNoValidas() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transicionesTareasService.cambiarEstado(List.of(), EstadoTarea.COMPLETADA));
+        assertThrows(IllegalArgumentException.class,
+                () -> transicionesTareasService.cambiarEstado(1L, EstadoTarea.PENDIENTE, EstadoTarea.PENDIENTE));
+        assertThrows(EntityNotFoundException.class,
+                () -> transicionesTareasService.cambiarEstado(99L, EstadoTarea.PENDIENTE, EstadoTarea.EN_CURSO));
+    }
+
+    /**
+     * Versión de cada tarea del proyecto.
+     */
+    private Map<Long, Long> versiones(Long proyectoId) {
+        Map<Long, Long> versiones = new HashMap<>();
+        jdbcTemplate.query("SELECT id, version FROM tareas WHERE proyecto_id = ?",
+                (RowCallbackHandler) fila -> versiones.put(fila.getLong("id"), fila.getLong("version")), proyectoId);
+        return versiones;
+    }
+
+    private Map<EstadoTarea, Long> contadores(Long proyectoId) {
+        return contadoresTareasService.resumenProyectos(List.of(proyectoId)).get(proyectoId);
+    }
+}
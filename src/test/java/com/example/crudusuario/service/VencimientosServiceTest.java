@@ -0,0 +1,144 @@
+package com.example.crudusuario.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.crudusuario.dto.TareaResumen;
+import com.example.crudusuario.model.EstadoTarea;
+import com.example.crudusuario.repository.TareaRepository;
+import com.example.crudusuario.vencimientos.AvisoVencimiento;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Avisos de vencimiento con un reloj manual y las tareas en memoria: revisiones retrasadas, días con la
+ * aplicación parada y tareas que cambian mientras se carga la ventana.
+ * Ventana de 5 días, avisos de próxima con 1 día de antelación y 3 días de recuperación.
+ */
+class VencimientosServiceTest {
+
+    private static final LocalDate HOY = LocalDate.of(2025, 3, 10);
+
+    private final RelojManual reloj = new RelojManual();
+    private final List<TareaResumen> tareas = new ArrayList<>();
+    private final List<String> avisos = new ArrayList<>();
+    private Runnable duranteLaConsulta;
+    private VencimientosService vencimientos;
+
+    @BeforeEach
+    void crear() {
+        TareaRepository tareaRepository = mock(TareaRepository.class);
+        when(tareaRepository.buscarPorFechaLimite(any(), any(), any(), any())).thenAnswer(llamada -> {
+            if (duranteLaConsulta != null) {
+                duranteLaConsulta.run();
+                duranteLaConsulta = null;
+            }
+            LocalDate desde = llamada.getArgument(0);
+            LocalDate hasta = llamada.getArgument(1);
+            EstadoTarea excluido = llamada.getArgument(2);
+            return tareas.stream()
+                    .filter(t -> !t.fechaLimite().isBefore(desde) && !t.fechaLimite().isAfter(hasta))
+                    .filter(t -> t.estado() != excluido)
+                    .toList();
+        });
+        vencimientos = new VencimientosService(tareaRepository,
+                evento -> avisos.add(((AvisoVencimiento) evento).tipo() + " " + ((AvisoVencimiento) evento).tareaId()),
+                new SimpleMeterRegistry(), 5, 1, 3, reloj);
+        reloj.dia = HOY;
+    }
+
+    @Test
+    void avisaDeLosDiasQueSaltaUnaRevisionRetrasada() {
+        tarea(1, HOY.plusDays(1));
+        tarea(2, HOY.plusDays(2));
+        tarea(3, HOY.plusDays(3));
+
+        vencimientos.avanzar(false);
+        assertEquals(List.of("PROXIMA 1"), avisos);
+
+        reloj.dia = HOY.plusDays(4); // Tres revisiones diarias perdidas
+        vencimientos.avanzar(false);
+        assertEquals(List.of("PROXIMA 1", "VENCIDA 1", "VENCIDA 2", "VENCIDA 3"), avisos);
+
+        vencimientos.avanzar(false); // Misma fecha: no repite avisos
+        assertEquals(4, avisos.size());
+    }
+
+    @Test
+    void recuperaLosDiasConLaAplicacionParada() {
+        tarea(4, HOY.minusDays(3)); // Dentro de los días de recuperación
+        tarea(5, HOY.minusDays(6)); // Demasiado antigua
+        tarea(6, HOY.minusDays(1)); // Ayer: ya está en la ventana
+
+        vencimientos.avanzar(false);
+        assertEquals(List.of("VENCIDA 4", "VENCIDA 6"), avisos);
+
+        tarea(7, HOY.plusDays(10));
+        reloj.dia = HOY.plusDays(20); // Más de una ventana sin revisar
+        vencimientos.avanzar(false);
+        assertEquals(List.of("VENCIDA 4", "VENCIDA 6"), avisos); // El día 10 queda fuera de la recuperación
+
+        tarea(8, HOY.plusDays(27));
+        reloj.dia = HOY.plusDays(30);
+        vencimientos.avanzar(false);
+        assertEquals(List.of("VENCIDA 4", "VENCIDA 6", "VENCIDA 8"), avisos);
+    }
+
+    @Test
+    void losCambiosDuranteLaCargaGananALaFilaLeida() {
+        tarea(7, HOY.plusDays(1));
+        tarea(8, HOY);
+        tarea(9, HOY.plusDays(1));
+        duranteLaConsulta = () -> {
+            vencimientos.programar(7L, 10L, "Tarea 7", HOY.plusDays(4), EstadoTarea.PENDIENTE, true);
+            vencimientos.cancelar(8L);
+        };
+
+        vencimientos.avanzar(false);
+        assertEquals(List.of("PROXIMA 9"), avisos); // Las filas leídas de 7 y 8 ya no valen
+
+        reloj.dia = HOY.plusDays(5);
+        vencimientos.avanzar(false);
+        assertEquals(List.of("PROXIMA 9", "VENCIDA 9", "VENCIDA 7"), avisos);
+    }
+
+    private void tarea(long id, LocalDate fechaLimite) {
+        tareas.add(new TareaResumen(id, "Tarea " + id, null, fechaLimite, EstadoTarea.PENDIENTE, 10L, "Proyecto", 0));
+    }
+
+    /**
+     * Reloj que marca el mediodía del día indicado.
+     */
+    private static final class RelojManual extends Clock {
+
+        LocalDate dia;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zona) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return dia.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+    }
+}
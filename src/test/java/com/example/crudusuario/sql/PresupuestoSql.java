@@ -0,0 +1,50 @@
+package com.example.crudusuario.sql;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Comprobaciones de MockMvc sobre el SQL que lanza una petición (lo cuenta FiltroConsultasSql).
+ *
+ * mockMvc.perform(get("/tareas/todas"))
+ *        .andExpect(PresupuestoSql.maximoSentencias(2))
+ *        .andExpect(PresupuestoSql.sinSospechasNMas1());
+ */
+public final class PresupuestoSql {
+
+    private static final int UMBRAL_REPETICIONES = 3;
+
+    private PresupuestoSql() {
+    }
+
+    /**
+     * Falla si la petición ejecutó más sentencias SQL que el presupuesto.
+     */
+    public static ResultMatcher maximoSentencias(int maximo) {
+        return resultado -> {
+            ConsultasPeticion consultas = consultas(resultado.getRequest().getAttribute(ConsultasPeticion.ATRIBUTO));
+            assertTrue(consultas.getSentencias() <= maximo, () -> resultado.getRequest().getRequestURI()
+                    + " ha superado el presupuesto de " + maximo + " sentencias: " + consultas);
+        };
+    }
+
+    /**
+     * Falla si la petición repitió un mismo SELECT (posible N+1).
+     */
+    public static ResultMatcher sinSospechasNMas1() {
+        return resultado -> {
+            Map<String, Integer> sospechas = consultas(resultado.getRequest().getAttribute(ConsultasPeticion.ATRIBUTO))
+                    .sospechasNMas1(UMBRAL_REPETICIONES);
+            assertTrue(sospechas.isEmpty(), () -> "Posible N+1 en " + resultado.getRequest().getRequestURI() + ": " + sospechas);
+        };
+    }
+
+    private static ConsultasPeticion consultas(Object atributo) {
+        assertNotNull(atributo, "La petición no pasó por FiltroConsultasSql (¿app.sql.instrumentacion.habilitada=false?)");
+        return (ConsultasPeticion) atributo;
+    }
+}
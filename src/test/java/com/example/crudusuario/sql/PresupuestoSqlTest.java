@@ -0,0 +1,96 @@
+package com.example.crudusuario.sql;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.crudusuario.FormularioSpringMvcDataSecurityApplication;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Presupuesto de sentencias SQL de las páginas de listado: si un cambio introduce consultas por fila
+ * (N+1) o consultas de más, el build falla.
+ *
+ * Se ejecuta sobre H2 en modo MySQL sembrado con varios usuarios, proyectos y tareas: con las tablas vacías
+ * no habría filas por las que repetir una consulta y el presupuesto no detectaría nada.
+ */
+@SpringBootTest(classes = FormularioSpringMvcDataSecurityApplication.class, properties = {
+    "spring.datasource.url=jdbc:h2:mem:presupuesto;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "app.jdbc.filas-por-lectura=500"
+})
+@AutoConfigureMockMvc
+@WithMockUser(authorities = "ADMIN")
+class PresupuestoSqlTest {
+
+    private static final int USUARIOS = 3;
+    private static final int PROYECTOS_POR_USUARIO = 4;
+    private static final int TAREAS_POR_PROYECTO = 5;
+    private static final String[] ESTADOS_TAREA = { "PENDIENTE", "EN_CURSO", "COMPLETADA" };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void sembrar() {
+        jdbcTemplate.update("DELETE FROM tareas");
+        jdbcTemplate.update("DELETE FROM proyectos");
+        jdbcTemplate.update("DELETE FROM usuarios");
+        List<Object[]> usuarios = new ArrayList<>();
+        List<Object[]> proyectos = new ArrayList<>();
+        List<Object[]> tareas = new ArrayList<>();
+        long proyectoId = 0;
+        long tareaId = 0;
+        for (long u = 1; u <= USUARIOS; u++) {
+            usuarios.add(new Object[] { u, "usuario" + u, "x", "USER" });
+            for (int p = 0; p < PROYECTOS_POR_USUARIO; p++) {
+                proyectoId++;
+                proyectos.add(new Object[] { proyectoId, "Proyecto " + proyectoId, u });
+                for (int t = 0; t < TAREAS_POR_PROYECTO; t++) {
+                    tareaId++;
+                    tareas.add(new Object[] { tareaId, "Tarea " + tareaId, ESTADOS_TAREA[(int) (tareaId % 3)], proyectoId });
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO usuarios (id, username, password, role) VALUES (?, ?, ?, ?)", usuarios);
+        jdbcTemplate.batchUpdate("INSERT INTO proyectos (id, nombre, descripcion, fecha_inicio, estado, version, usuario_id) "
+                + "VALUES (?, ?, 'prueba', DATE '2025-01-01', 'ACTIVO', 0, ?)", proyectos);
+        jdbcTemplate.batchUpdate("INSERT INTO tareas (id, titulo, descripcion, fecha_limite, estado, version, proyecto_id) "
+                + "VALUES (?, ?, 'prueba', DATE '2025-06-01', ?, 0, ?)", tareas);
+        entityManagerFactory.getCache().evictAll(); // Cada petición parte sin caché de segundo nivel
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "/tareas/todas, 2",
+        "/tareas/todas?estado=PENDIENTE, 2",
+        "/proyectos, 2"
+    })
+    void listadosDentroDelPresupuesto(String ruta, int maximoSentencias) throws Exception {
+        mockMvc.perform(get(ruta))
+               .andExpect(status().isOk())
+               .andExpect(PresupuestoSql.maximoSentencias(maximoSentencias))
+               .andExpect(PresupuestoSql.sinSospechasNMas1());
+    }
+}
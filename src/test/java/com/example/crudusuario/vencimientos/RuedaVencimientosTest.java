@@ -0,0 +1,88 @@
+package com.example.crudusuario.vencimientos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.crudusuario.vencimientos.RuedaVencimientos.Entrada;
+
+/**
+ * Ventana de días de la rueda: colocación, avance con reutilización de ranuras, saltos y reprogramaciones.
+ */
+class RuedaVencimientosTest {
+
+    private static final LocalDate DIA = LocalDate.of(2025, 3, 10);
+
+    private final RuedaVencimientos rueda = new RuedaVencimientos(3);
+
+    @Test
+    void soloGuardaLasFechasDeLaVentana() {
+        assertEquals(DIA, rueda.avanzarA(DIA));
+        assertEquals(DIA.plusDays(3), rueda.getFin());
+        rueda.programar(entrada(1, DIA));
+        rueda.programar(entrada(2, DIA.plusDays(2)));
+        assertNull(rueda.programar(entrada(3, DIA.plusDays(3)))); // Fuera: no se guarda
+        assertEquals(2, rueda.tamanio());
+        assertEquals(List.of(), List.copyOf(rueda.delDia(DIA.plusDays(3))));
+    }
+
+    @Test
+    void alAvanzarVaciaLosDiasQueSalenYReutilizaSusRanuras() {
+        rueda.avanzarA(DIA);
+        rueda.programar(entrada(1, DIA));
+        rueda.programar(entrada(2, DIA.plusDays(2)));
+
+        assertEquals(DIA.plusDays(3), rueda.avanzarA(DIA.plusDays(1))); // Primer día que entra
+        assertEquals(1, rueda.tamanio());
+        assertTrue(rueda.delDia(DIA).isEmpty());
+        assertTrue(rueda.delDia(DIA.plusDays(3)).isEmpty()); // Misma ranura que DIA, ya vacía
+
+        Entrada nueva = entrada(4, DIA.plusDays(3));
+        rueda.programar(nueva);
+        assertEquals(List.of(nueva), List.copyOf(rueda.delDia(DIA.plusDays(3))));
+
+        assertNull(rueda.avanzarA(DIA)); // No retrocede
+        assertEquals(DIA.plusDays(10), rueda.avanzarA(DIA.plusDays(10))); // Salto mayor que la ventana
+        assertEquals(0, rueda.tamanio());
+    }
+
+    @Test
+    void reprogramarQuitaLaFechaAnterior() {
+        rueda.avanzarA(DIA);
+        Entrada primera = entrada(1, DIA);
+        rueda.programar(primera);
+        Entrada segunda = entrada(1, DIA.plusDays(1));
+        assertSame(primera, rueda.programar(segunda));
+        assertTrue(rueda.delDia(DIA).isEmpty());
+        assertEquals(List.of(segunda), List.copyOf(rueda.delDia(DIA.plusDays(1))));
+
+        assertSame(segunda, rueda.cancelar(1));
+        assertNull(rueda.cancelar(1));
+        assertEquals(0, rueda.tamanio());
+    }
+
+    @Test
+    void heredaLosAvisosSoloConLaMismaFecha() {
+        Entrada anterior = entrada(1, DIA);
+        anterior.marcarAvisoProximo();
+
+        Entrada mismaFecha = entrada(1, DIA);
+        mismaFecha.heredarAvisos(anterior);
+        assertFalse(mismaFecha.marcarAvisoProximo());
+
+        Entrada otraFecha = entrada(1, DIA.plusDays(1));
+        otraFecha.heredarAvisos(anterior);
+        assertTrue(otraFecha.marcarAvisoProximo());
+    }
+
+    private static Entrada entrada(long id, LocalDate fecha) {
+        return new Entrada(id, 10L, "Tarea " + id, fecha);
+    }
+}